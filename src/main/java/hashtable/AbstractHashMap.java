@@ -0,0 +1,180 @@
+package hashtable;
+
+import interfaces.AbstractMap;
+import interfaces.Entry;
+
+import java.util.ArrayList;
+
+/**
+ * An abstract base class supporting Map implementations that use hash tables.
+ *
+ * The base class keeps the entry count and the table capacity, maps keys to
+ * bucket indices, and implements get, put and remove in terms of the abstract
+ * bucketGet, bucketPut and bucketRemove methods supplied by the concrete
+ * collision-handling scheme. The table is resized whenever the number of
+ * entries exceeds the configured maximum load.
+ *
+ * Capacities are powers of two and bucket indices are taken from the high bits
+ * of a multiplicative (Fibonacci) hash of the key's hashCode, so that keys whose
+ * hash codes differ only in their high bits still spread across the table.
+ */
+public abstract class AbstractHashMap<K extends Comparable<K>, V> extends AbstractMap<K, V> {
+
+	/** Multiplier for Fibonacci hashing: 2^32 divided by the golden ratio. */
+	protected static final int GOLDEN = 0x9E3779B9;
+
+	protected int n = 0;              // number of entries in the map
+	protected int capacity;           // length of the table
+	protected int shift;              // 32 - log2(capacity)
+	protected final double maxLoad;   // resize once n exceeds maxLoad * capacity
+
+	/**
+	 * Creates a hash table with the given capacity (rounded up to a power of two)
+	 * and maximum load factor. The concrete map allocates its first table in its
+	 * own constructor.
+	 *
+	 * @param cap     initial capacity
+	 * @param maxLoad load factor above which the table is doubled
+	 */
+	protected AbstractHashMap(int cap, double maxLoad) {
+		if (!(maxLoad > 0))
+			throw new IllegalArgumentException("Maximum load must be positive");
+		this.maxLoad = maxLoad;
+		setCapacity(cap);
+	}
+
+	/**
+	 * Returns the number of entries in the map.
+	 *
+	 * @return number of entries in the map
+	 */
+	@Override
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	public V get(K key) {
+		return bucketGet(hashValue(key), key);
+	}
+
+	/**
+	 * Removes the entry with the specified key, if present, and returns its
+	 * associated value. Otherwise does nothing and returns null.
+	 *
+	 * @param key the key whose entry is to be removed from the map
+	 * @return the previous value associated with the removed key, or null if no
+	 *         such entry exists
+	 */
+	@Override
+	public V remove(K key) {
+		return bucketRemove(hashValue(key), key);
+	}
+
+	/**
+	 * Associates the given value with the given key. If an entry with the key was
+	 * already in the map, this replaced the previous value with the new one and
+	 * returns the old value. Otherwise, a new entry is added and null is returned.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key (or null, if no such
+	 *         entry)
+	 */
+	@Override
+	public V put(K key, V value) {
+		V answer = bucketPut(hashValue(key), key, value);
+		if (n > maxLoad * capacity)
+			resize(2 * capacity);
+		return answer;
+	}
+
+	/**
+	 * Returns the ratio of entries to table slots.
+	 *
+	 * @return the current load factor
+	 */
+	@Override
+	public double loadFactor() {
+		return (double) n / capacity;
+	}
+
+	// private utilities
+
+	/** Sets capacity to the least power of two that is at least cap. */
+	protected final void setCapacity(int cap) {
+		capacity = Math.max(2, Integer.highestOneBit(Math.max(cap, 2) - 1) << 1);
+		shift = 32 - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/** Spreads a key's hashCode over all 32 bits. */
+	protected static int spread(Object key) {
+		return key.hashCode() * GOLDEN;
+	}
+
+	/** Hash function applying the Fibonacci method to the key's hashCode. */
+	protected int hashValue(K key) {
+		return spread(key) >>> shift;
+	}
+
+	/**
+	 * Updates the size of the hash table and rehashes all entries. Subclasses
+	 * with direct access to their table may override this with a cheaper
+	 * in-place rehash.
+	 *
+	 * @param newCap the new capacity
+	 */
+	protected void resize(int newCap) {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+		for (Entry<K, V> e : entrySet())
+			buffer.add(e);
+		setCapacity(newCap);
+		createTable();
+		n = 0;
+		for (Entry<K, V> e : buffer)
+			bucketPut(hashValue(e.getKey()), e.getKey(), e.getValue());
+	}
+
+	// protected abstract methods to be implemented by subclasses
+
+	/** Replaces the table by an empty one having length equal to current capacity. */
+	protected abstract void createTable();
+
+	/**
+	 * Returns value associated with key k in bucket with hash value h. If no such
+	 * entry exists, returns null.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @return associate value (or null, if no such entry)
+	 */
+	protected abstract V bucketGet(int h, K k);
+
+	/**
+	 * Associates key k with value v in bucket with hash value h, returning the
+	 * previously associated value, if any.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @param v the value to be associated
+	 * @return previous value associated with k (or null, if no such entry)
+	 */
+	protected abstract V bucketPut(int h, K k, V v);
+
+	/**
+	 * Removes entry having key k from bucket with hash value h, returning the
+	 * previously associated value, if found.
+	 *
+	 * @param h the hash value of the relevant bucket
+	 * @param k the key of interest
+	 * @return previous value associated with k (or null, if no such entry)
+	 */
+	protected abstract V bucketRemove(int h, K k);
+}
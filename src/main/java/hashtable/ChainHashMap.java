@@ -0,0 +1,243 @@
+package hashtable;
+
+import interfaces.Entry;
+import tree.AVLTreeMap;
+import utils.MapEntry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+
+/**
+ * A hash map using separate chaining, whose long chains are converted into
+ * balanced trees.
+ *
+ * Each bucket is empty, a singly linked chain of entries, or an
+ * {@link AVLTreeMap} ordered by the keys' natural order. A chain that grows
+ * beyond TREEIFY_THRESHOLD entries is converted into a tree, so a bucket that
+ * many keys hash to (by bad luck or by an adversary choosing colliding keys)
+ * costs O(log n) per operation instead of O(n). A tree bucket that shrinks to
+ * UNTREEIFY_THRESHOLD entries goes back to being a chain.
+ */
+public class ChainHashMap<K extends Comparable<K>, V> extends AbstractHashMap<K, V> {
+
+	/** Chain length above which a bucket is converted to a tree. */
+	public static final int TREEIFY_THRESHOLD = 8;
+
+	/** Tree size at or below which a bucket is converted back to a chain. */
+	public static final int UNTREEIFY_THRESHOLD = 6;
+
+	private Object[] table;   // each bucket is null, a Node chain or an AVLTreeMap
+	private int occupied;     // number of non-empty buckets
+	private int treeBuckets;  // number of buckets currently held as trees
+
+	/** Creates a hash map with capacity 16 and maximum load 0.75. */
+	public ChainHashMap() {
+		this(16);
+	}
+
+	/** Creates a hash map with the given capacity and maximum load 0.75. */
+	public ChainHashMap(int cap) {
+		this(cap, 0.75);
+	}
+
+	/**
+	 * Creates a hash map with the given capacity and maximum load factor.
+	 *
+	 * @param cap     initial capacity
+	 * @param maxLoad average chain length above which the table is doubled
+	 */
+	public ChainHashMap(int cap, double maxLoad) {
+		super(cap, maxLoad);
+		initTable();
+	}
+
+	// ---------------- nested Node class ----------------
+	private static final class Node<K, V> {
+		final K key;
+		V value;
+		Node<K, V> next;
+
+		Node(K key, V value, Node<K, V> next) {
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+	} // ----------- end of nested Node class -----------
+
+	@Override
+	protected void createTable() {
+		initTable();
+	}
+
+	private void initTable() {
+		table = new Object[capacity];
+		occupied = 0;
+		treeBuckets = 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketGet(int h, K k) {
+		Object bucket = table[h];
+		if (bucket instanceof AVLTreeMap)
+			return treeGet((AVLTreeMap<K, V>) bucket, k);
+		for (Node<K, V> node = (Node<K, V>) bucket; node != null; node = node.next) {
+			if (k.equals(node.key))
+				return node.value;
+		}
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketPut(int h, K k, V v) {
+		Object bucket = table[h];
+		if (bucket instanceof AVLTreeMap) {
+			AVLTreeMap<K, V> bucketTree = (AVLTreeMap<K, V>) bucket;
+			int before = bucketTree.size();
+			V old = treePut(bucketTree, k, v);
+			n += bucketTree.size() - before;
+			return old;
+		}
+		int length = 0;
+		for (Node<K, V> node = (Node<K, V>) bucket; node != null; node = node.next) {
+			if (k.equals(node.key)) {
+				V old = node.value;
+				node.value = v;
+				return old;
+			}
+			length++;
+		}
+		if (bucket == null)
+			occupied++;
+		table[h] = new Node<>(k, v, (Node<K, V>) bucket);
+		n++;
+		if (length + 1 > TREEIFY_THRESHOLD)
+			treeify(h);
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketRemove(int h, K k) {
+		Object bucket = table[h];
+		if (bucket instanceof AVLTreeMap) {
+			AVLTreeMap<K, V> bucketTree = (AVLTreeMap<K, V>) bucket;
+			int before = bucketTree.size();
+			V old = treeRemove(bucketTree, k);
+			n -= before - bucketTree.size();
+			if (bucketTree.size() <= UNTREEIFY_THRESHOLD)
+				untreeify(h);
+			return old;
+		}
+		Node<K, V> prev = null;
+		for (Node<K, V> node = (Node<K, V>) bucket; node != null; prev = node, node = node.next) {
+			if (k.equals(node.key)) {
+				if (prev == null)
+					table[h] = node.next;
+				else
+					prev.next = node.next;
+				if (table[h] == null)
+					occupied--;
+				n--;
+				return node.value;
+			}
+		}
+		return null;
+	}
+
+	// Replaces the chain in bucket h by an AVL tree holding the same entries.
+	@SuppressWarnings("unchecked")
+	private void treeify(int h) {
+		AVLTreeMap<K, V> bucketTree = new AVLTreeMap<>();
+		for (Node<K, V> node = (Node<K, V>) table[h]; node != null; node = node.next)
+			treePut(bucketTree, node.key, node.value);
+		table[h] = bucketTree;
+		treeBuckets++;
+	}
+
+	// Replaces the tree in bucket h by a chain holding the same entries.
+	@SuppressWarnings("unchecked")
+	private void untreeify(int h) {
+		Node<K, V> chain = null;
+		for (Entry<K, V> e : ((AVLTreeMap<K, V>) table[h]).entrySet())
+			chain = new Node<>(e.getKey(), e.getValue(), chain);
+		table[h] = chain;
+		treeBuckets--;
+		if (chain == null)
+			occupied--;
+	}
+
+	// TreeMap declares IOException on its accessors without ever throwing it
+	private V treeGet(AVLTreeMap<K, V> bucketTree, K k) {
+		try {
+			return bucketTree.get(k);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private V treePut(AVLTreeMap<K, V> bucketTree, K k, V v) {
+		try {
+			return bucketTree.put(k, v);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private V treeRemove(AVLTreeMap<K, V> bucketTree, K k) {
+		try {
+			return bucketTree.remove(k);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the number of entries that share their bucket with at least one
+	 * earlier entry, i.e. the number of entries minus the number of non-empty
+	 * buckets.
+	 *
+	 * @return number of colliding entries
+	 */
+	@Override
+	public int numCollisions() {
+		return n - occupied;
+	}
+
+	/**
+	 * Returns the number of buckets currently stored as trees.
+	 *
+	 * @return number of tree buckets
+	 */
+	public int treeBuckets() {
+		return treeBuckets;
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map, in
+	 * table order.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+		for (Object bucket : table) {
+			if (bucket instanceof AVLTreeMap) {
+				for (Entry<K, V> e : ((AVLTreeMap<K, V>) bucket).entrySet())
+					buffer.add(e);
+			} else {
+				for (Node<K, V> node = (Node<K, V>) bucket; node != null; node = node.next)
+					buffer.add(new MapEntry<>(node.key, node.value));
+			}
+		}
+		return buffer;
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,106 @@
+package hashtable;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChainHashMapTest {
+
+	// 2^m distinct strings that all have the same hashCode
+	private static List<String> collidingKeys(int m) {
+		List<String> keys = new ArrayList<>();
+		keys.add("");
+		for (int i = 0; i < m; i++) {
+			List<String> next = new ArrayList<>();
+			for (String s : keys) {
+				next.add(s + "Aa");
+				next.add(s + "BB");
+			}
+			keys = next;
+		}
+		return keys;
+	}
+
+	@Test
+	void testPutGetRemove() {
+		ChainHashMap<Integer, String> map = new ChainHashMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals(12, map.size());
+		assertEquals("fifteen", map.remove(15));
+		assertNull(map.remove(15));
+		assertEquals(11, map.size());
+	}
+
+	@Test
+	void testCollisionsAndLoadFactor() {
+		ChainHashMap<String, Integer> map = new ChainHashMap<>(64);
+		List<String> keys = collidingKeys(2);
+		for (int i = 0; i < keys.size(); i++) {
+			map.put(keys.get(i), i);
+		}
+		assertEquals(3, map.numCollisions());
+		assertEquals(4 / 64.0, map.loadFactor());
+		map.remove(keys.get(0));
+		assertEquals(2, map.numCollisions());
+	}
+
+	@Test
+	void testHotBucketBecomesTree() {
+		ChainHashMap<String, Integer> map = new ChainHashMap<>(1 << 12);
+		List<String> keys = collidingKeys(10);
+		for (int i = 0; i < keys.size(); i++) {
+			map.put(keys.get(i), i);
+		}
+		assertEquals(1, map.treeBuckets());
+		assertEquals(keys.size(), map.size());
+		assertEquals(keys.size() - 1, map.numCollisions());
+		for (int i = 0; i < keys.size(); i++) {
+			assertEquals(i, map.get(keys.get(i)));
+		}
+
+		for (int i = 0; i < keys.size() - 3; i++) {
+			assertEquals(i, map.remove(keys.get(i)));
+		}
+		assertEquals(0, map.treeBuckets());
+		assertEquals(3, map.size());
+		assertEquals(keys.size() - 1, map.get(keys.get(keys.size() - 1)));
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		ChainHashMap<Integer, Integer> map = new ChainHashMap<>(2);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		Random rand = new Random(4);
+
+		for (int ix = 0; ix < 50000; ix++) {
+			Integer k = rand.nextInt(5000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		int count = 0;
+		for (Entry<Integer, Integer> e : map.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+}
@@ -0,0 +1,416 @@
+package hashtable;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+
+/**
+ * A bucketized cuckoo hash map with a small overflow stash.
+ *
+ * The table is divided into buckets of WAYS slots and every key has two
+ * candidate buckets chosen by independent hash functions. A key is only ever
+ * stored in one of its two buckets or in the stash, so a lookup inspects at
+ * most 2 * WAYS slots plus STASH_SIZE stash entries, whatever the contents of
+ * the table.
+ *
+ * An insertion that finds both buckets full evicts a random occupant and moves
+ * it to its alternate bucket, repeating for at most MAX_DISPLACEMENTS steps.
+ * An entry still homeless after that goes to the stash; when the stash is also
+ * full the table is rebuilt with fresh hash functions (and doubled in size if
+ * rebuilding alone does not succeed).
+ */
+public class CuckooHashMap<K extends Comparable<K>, V> extends AbstractHashMap<K, V> {
+
+	/** Number of slots in each bucket. */
+	public static final int WAYS = 4;
+
+	/** Maximum number of entries held outside their buckets. */
+	public static final int STASH_SIZE = 4;
+
+	/** Longest eviction chain attempted by a single insertion. */
+	public static final int MAX_DISPLACEMENTS = 64;
+
+	/** Rebuilds attempted after a failed insertion before the key is rejected. */
+	public static final int MAX_REHASH = 8;
+
+	private Object[] keys;
+	private Object[] values;
+	private int[] hashes;          // hashCode of the key in each slot
+
+	private Object[] stashKeys;
+	private Object[] stashValues;
+	private int[] stashHashes;
+	private int stashCount;
+
+	private int bucketShift;       // 32 - log2(number of buckets)
+	private int seed;              // varies the hash functions between rebuilds
+	private int random = 0x2545F491; // xorshift state for choosing eviction victims
+	private int displacements;     // evictions performed since the table was built
+
+	// entry left without a slot by a failed insertion, to be placed by rehash
+	private Object homelessKey;
+	private Object homelessValue;
+	private int homelessHash;
+
+	/** Creates a hash map with capacity 16 and maximum load 0.9. */
+	public CuckooHashMap() {
+		this(16);
+	}
+
+	/** Creates a hash map with the given capacity and maximum load 0.9. */
+	public CuckooHashMap(int cap) {
+		this(cap, 0.9);
+	}
+
+	/**
+	 * Creates a hash map with the given capacity and maximum load factor.
+	 *
+	 * @param cap     initial capacity (in slots, at least two buckets)
+	 * @param maxLoad load factor above which the table is doubled (below 1)
+	 */
+	public CuckooHashMap(int cap, double maxLoad) {
+		super(Math.max(cap, 2 * WAYS), checkLoad(maxLoad));
+		initTable();
+	}
+
+	private static double checkLoad(double maxLoad) {
+		if (maxLoad >= 1)
+			throw new IllegalArgumentException("A cuckoo table needs a maximum load below 1");
+		return maxLoad;
+	}
+
+	@Override
+	protected void createTable() {
+		initTable();
+	}
+
+	private void initTable() {
+		bucketShift = 32 - Integer.numberOfTrailingZeros(capacity / WAYS);
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		stashKeys = new Object[STASH_SIZE];
+		stashValues = new Object[STASH_SIZE];
+		stashHashes = new int[STASH_SIZE];
+		stashCount = 0;
+		displacements = 0;
+	}
+
+	/** Both bucket indices are derived from the raw hashCode. */
+	@Override
+	protected int hashValue(K key) {
+		return key.hashCode();
+	}
+
+	// first slot of the key's primary bucket
+	private int bucket1(int hc) {
+		return (((hc ^ seed) * GOLDEN) >>> bucketShift) * WAYS;
+	}
+
+	// first slot of the key's secondary bucket, using the murmur3 finaliser
+	private int bucket2(int hc) {
+		int x = hc ^ Integer.rotateLeft(seed, 16);
+		x ^= x >>> 16;
+		x *= 0x85EBCA6B;
+		x ^= x >>> 13;
+		x *= 0xC2B2AE35;
+		x ^= x >>> 16;
+		int b = (x >>> bucketShift) * WAYS;
+		return b == bucket1(hc) ? b ^ WAYS : b;
+	}
+
+	private int nextRandom() {
+		random ^= random << 13;
+		random ^= random >>> 17;
+		random ^= random << 5;
+		return random;
+	}
+
+	// Returns the table slot of k, or capacity + j for stash entry j, or -1.
+	private int locate(int hc, K k) {
+		int b = bucket1(hc);
+		for (int i = b; i < b + WAYS; i++) {
+			if (hashes[i] == hc && k.equals(keys[i]))
+				return i;
+		}
+		b = bucket2(hc);
+		for (int i = b; i < b + WAYS; i++) {
+			if (hashes[i] == hc && k.equals(keys[i]))
+				return i;
+		}
+		for (int j = 0; j < stashCount; j++) {
+			if (stashHashes[j] == hc && k.equals(stashKeys[j]))
+				return capacity + j;
+		}
+		return -1;
+	}
+
+	private int freeSlot(int b) {
+		for (int i = b; i < b + WAYS; i++) {
+			if (keys[i] == null)
+				return i;
+		}
+		return -1;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketGet(int h, K k) {
+		int i = locate(h, k);
+		if (i < 0)
+			return null;
+		return (V) (i < capacity ? values[i] : stashValues[i - capacity]);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketPut(int h, K k, V v) {
+		int i = locate(h, k);
+		if (i >= 0) {
+			V old;
+			if (i < capacity) {
+				old = (V) values[i];
+				values[i] = v;
+			} else {
+				old = (V) stashValues[i - capacity];
+				stashValues[i - capacity] = v;
+			}
+			return old;
+		}
+		n++;
+		if (!place(h, k, v)) {
+			Snapshot all = snapshot();
+			if (!rehash(all, capacity, MAX_REHASH)) {
+				// only possible when too many keys share a hash code: back out k
+				all.remove(k);
+				n--;
+				rehash(all, capacity, Integer.MAX_VALUE);
+				throw new IllegalStateException("Too many keys share the hash code of " + k);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Stores a key known to be absent, evicting occupants along a cuckoo path
+	 * and falling back to the stash. On failure the entry left without a slot is
+	 * kept in the homeless fields.
+	 *
+	 * @return true if every entry has a slot
+	 */
+	private boolean place(int hc, Object k, Object v) {
+		int from = -1; // bucket the carried entry was just evicted from
+		for (int kick = 0; ; kick++) {
+			int b1 = bucket1(hc);
+			int b2 = bucket2(hc);
+			int slot = freeSlot(b1);
+			if (slot < 0)
+				slot = freeSlot(b2);
+			if (slot >= 0) {
+				keys[slot] = k;
+				values[slot] = v;
+				hashes[slot] = hc;
+				return true;
+			}
+			if (kick == MAX_DISPLACEMENTS)
+				break;
+			int b = from == b1 ? b2 : from == b2 ? b1 : (nextRandom() & 1) == 0 ? b1 : b2;
+			int victim = b + (nextRandom() & (WAYS - 1));
+			Object vk = keys[victim];
+			Object vv = values[victim];
+			int vh = hashes[victim];
+			keys[victim] = k;
+			values[victim] = v;
+			hashes[victim] = hc;
+			k = vk;
+			v = vv;
+			hc = vh;
+			from = b;
+			displacements++;
+		}
+		if (stashCount < STASH_SIZE) {
+			stashKeys[stashCount] = k;
+			stashValues[stashCount] = v;
+			stashHashes[stashCount] = hc;
+			stashCount++;
+			return true;
+		}
+		homelessKey = k;
+		homelessValue = v;
+		homelessHash = hc;
+		return false;
+	}
+
+	// ---------------- nested Snapshot class ----------------
+	// every entry of the map, collected while the table is rebuilt
+	private static final class Snapshot {
+		final Object[] keys;
+		final Object[] values;
+		final int[] hashes;
+		int size = 0;
+
+		Snapshot(int capacity) {
+			keys = new Object[capacity];
+			values = new Object[capacity];
+			hashes = new int[capacity];
+		}
+
+		void add(Object k, Object v, int hc) {
+			keys[size] = k;
+			values[size] = v;
+			hashes[size++] = hc;
+		}
+
+		void remove(Object k) {
+			for (int e = 0; e < size; e++) {
+				if (keys[e].equals(k)) {
+					size--;
+					keys[e] = keys[size];
+					values[e] = values[size];
+					hashes[e] = hashes[size];
+					return;
+				}
+			}
+		}
+	} // ----------- end of nested Snapshot class -----------
+
+	// Collects the table, the stash and the homeless entry.
+	private Snapshot snapshot() {
+		Snapshot all = new Snapshot(n);
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] != null)
+				all.add(keys[i], values[i], hashes[i]);
+		}
+		for (int j = 0; j < stashCount; j++)
+			all.add(stashKeys[j], stashValues[j], stashHashes[j]);
+		if (homelessKey != null)
+			all.add(homelessKey, homelessValue, homelessHash);
+		homelessKey = null;
+		homelessValue = null;
+		return all;
+	}
+
+	/**
+	 * Rebuilds the table with new hash functions, placing every entry of the
+	 * snapshot again. Every second failed attempt doubles the capacity.
+	 *
+	 * @param all         the entries to place
+	 * @param newCap      capacity for the first attempt
+	 * @param maxAttempts number of rebuilds to try before giving up
+	 * @return true if the rebuild succeeded
+	 */
+	private boolean rehash(Snapshot all, int newCap, int maxAttempts) {
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			seed = nextRandom();
+			setCapacity(newCap);
+			createTable();
+			boolean placed = true;
+			for (int e = 0; e < all.size && placed; e++)
+				placed = place(all.hashes[e], all.keys[e], all.values[e]);
+			homelessKey = null;
+			homelessValue = null;
+			if (placed)
+				return true;
+			if (attempt % 2 == 0)
+				newCap *= 2;
+		}
+		return false;
+	}
+
+	@Override
+	protected void resize(int newCap) {
+		rehash(snapshot(), newCap, Integer.MAX_VALUE);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketRemove(int h, K k) {
+		int i = locate(h, k);
+		if (i < 0)
+			return null;
+		V old;
+		if (i < capacity) {
+			old = (V) values[i];
+			keys[i] = null;
+			values[i] = null;
+			hashes[i] = 0;
+			drainStash();
+		} else {
+			int j = i - capacity;
+			old = (V) stashValues[j];
+			stashCount--;
+			stashKeys[j] = stashKeys[stashCount];
+			stashValues[j] = stashValues[stashCount];
+			stashHashes[j] = stashHashes[stashCount];
+			stashKeys[stashCount] = null;
+			stashValues[stashCount] = null;
+		}
+		n--;
+		return old;
+	}
+
+	// Moves stashed entries into their buckets where a slot has become free.
+	private void drainStash() {
+		for (int j = stashCount - 1; j >= 0; j--) {
+			int hc = stashHashes[j];
+			int slot = freeSlot(bucket1(hc));
+			if (slot < 0)
+				slot = freeSlot(bucket2(hc));
+			if (slot >= 0) {
+				keys[slot] = stashKeys[j];
+				values[slot] = stashValues[j];
+				hashes[slot] = hc;
+				stashCount--;
+				stashKeys[j] = stashKeys[stashCount];
+				stashValues[j] = stashValues[stashCount];
+				stashHashes[j] = stashHashes[stashCount];
+				stashKeys[stashCount] = null;
+				stashValues[stashCount] = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of evictions performed to place entries since the
+	 * table was last built (on construction, growth or rehash).
+	 *
+	 * @return number of cuckoo displacements
+	 */
+	@Override
+	public int numCollisions() {
+		return displacements;
+	}
+
+	/**
+	 * Returns the number of entries currently held in the stash.
+	 *
+	 * @return stash occupancy
+	 */
+	public int stashSize() {
+		return stashCount;
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map, in
+	 * table order followed by the stash.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+		for (int i = 0; i < capacity; i++) {
+			if (keys[i] != null)
+				buffer.add(new MapEntry<>((K) keys[i], (V) values[i]));
+		}
+		for (int j = 0; j < stashCount; j++)
+			buffer.add(new MapEntry<>((K) stashKeys[j], (V) stashValues[j]));
+		return buffer;
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
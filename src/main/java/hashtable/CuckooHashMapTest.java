@@ -0,0 +1,106 @@
+package hashtable;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuckooHashMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		CuckooHashMap<Integer, String> map = new CuckooHashMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals(12, map.size());
+		assertEquals("fifteen", map.remove(15));
+		assertNull(map.remove(15));
+		assertEquals(11, map.size());
+	}
+
+	@Test
+	void testHighLoad() {
+		CuckooHashMap<Integer, Integer> map = new CuckooHashMap<>(1024, 0.95);
+		Random rand = new Random(5);
+		List<Integer> keys = new ArrayList<>();
+		while (keys.size() < 960) {
+			Integer k = rand.nextInt();
+			if (map.put(k, k) == null)
+				keys.add(k);
+		}
+		assertEquals(960 / 1024.0, map.loadFactor());
+		assertTrue(map.numCollisions() > 0);
+		for (Integer k : keys) {
+			assertEquals(k, map.get(k));
+		}
+	}
+
+	@Test
+	void testStashAndRejection() {
+		// "Aa"/"BB" strings of the same length all share one hash code, so they
+		// can only occupy their two buckets plus the stash
+		List<String> same = new ArrayList<>();
+		for (String a : new String[] {"Aa", "BB"})
+			for (String b : new String[] {"Aa", "BB"})
+				for (String c : new String[] {"Aa", "BB"})
+					for (String d : new String[] {"Aa", "BB"})
+						same.add(a + b + c + d);
+
+		CuckooHashMap<String, Integer> map = new CuckooHashMap<>(64);
+		for (int i = 0; i < 10; i++) {
+			map.put(same.get(i), i);
+		}
+		assertEquals(10 - 2 * CuckooHashMap.WAYS, map.stashSize());
+		map.put(same.get(10), 10);
+		map.put(same.get(11), 11);
+		assertEquals(CuckooHashMap.STASH_SIZE, map.stashSize());
+
+		assertThrows(IllegalStateException.class, () -> map.put(same.get(12), 12));
+		assertEquals(12, map.size());
+		for (int i = 0; i < 12; i++) {
+			assertEquals(i, map.get(same.get(i)));
+		}
+		assertNull(map.get(same.get(12)));
+
+		map.remove(same.get(0));
+		assertEquals(CuckooHashMap.STASH_SIZE - 1, map.stashSize());
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		CuckooHashMap<Integer, Integer> map = new CuckooHashMap<>(2);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		Random rand = new Random(6);
+
+		for (int ix = 0; ix < 50000; ix++) {
+			Integer k = rand.nextInt(5000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		int count = 0;
+		for (Entry<Integer, Integer> e : map.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+	}
+}
@@ -0,0 +1,155 @@
+package hashtable;
+
+import interfaces.Map;
+import tree.AVLTreeMap;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class HashPerformanceComparison {
+
+    public static void main(String[] args) throws IOException {
+        // Define the sizes to test with
+        int[] sizes = new int[]{10000, 100000, 1000000};
+
+        // Create CSV writer
+        FileWriter csvWriter = new FileWriter("hash_performance_comparison.csv");
+        // Write header row for the CSV
+        csvWriter.append("Operation,DataStructure,Size,Time(ns)\n");
+
+        for (int size : sizes) {
+            System.out.println("Size: " + size);
+            int[] keys = new Random(size).ints(size).toArray();
+
+            benchmarkLookup("AVLTreeMap", new AVLTreeMap<>(), keys, csvWriter);
+            benchmarkLookup("RobinHoodHashMap", new RobinHoodHashMap<>(), keys, csvWriter);
+            benchmarkLookup("ChainHashMap", new ChainHashMap<>(), keys, csvWriter);
+            benchmarkLookup("CuckooHashMap", new CuckooHashMap<>(), keys, csvWriter);
+            benchmarkLookup("IncrementalHashMap", new IncrementalHashMap<>(), keys, csvWriter);
+            benchmarkFrozenLookup(keys, csvWriter);
+
+            // Tail latency of single insertions while the table grows from empty
+            benchmarkPutLatency("ChainHashMap", new ChainHashMap<>(), keys, csvWriter);
+            benchmarkPutLatency("IncrementalHashMap", new IncrementalHashMap<>(), keys, csvWriter);
+        }
+
+        // Close the CSV writer
+        csvWriter.flush();
+        csvWriter.close();
+    }
+
+    // Fill the map with the keys, then time successful and unsuccessful lookups per operation
+    private static void benchmarkLookup(String name, Map<Integer, Integer> map, int[] keys,
+                                        FileWriter csvWriter) throws IOException {
+        int size = keys.length;
+        long putTime = benchmark(() -> {
+            for (int k : keys) {
+                try {
+                    map.put(k, k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        long hitTime = benchmark(() -> {
+            for (int k : keys) {
+                try {
+                    map.get(k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        // keys from a different seed are almost never present
+        int[] misses = new Random(-size).ints(size).toArray();
+        long missTime = benchmark(() -> {
+            for (int k : misses) {
+                try {
+                    map.get(k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        csvWriter.append("Insertion," + name + "," + size + "," + putTime / size + "\n");
+        csvWriter.append("Search,Successful," + name + "," + size + "," + hitTime / size + "\n");
+        csvWriter.append("Search,Unsuccessful," + name + "," + size + "," + missTime / size + "\n");
+
+        System.out.println(name + ": " + putTime / size + " ns/put, " + hitTime / size + " ns/hit, "
+                + missTime / size + " ns/miss, load " + map.loadFactor() + ", collisions " + map.numCollisions());
+    }
+
+    // Freeze a populated map into a PerfectHashMap, then time lookups against it
+    private static void benchmarkFrozenLookup(int[] keys, FileWriter csvWriter) throws IOException {
+        int size = keys.length;
+        RobinHoodHashMap<Integer, Integer> source = new RobinHoodHashMap<>();
+        for (int k : keys) {
+            source.put(k, k);
+        }
+        AtomicReference<PerfectHashMap<Integer, Integer>> frozen = new AtomicReference<>();
+        long buildTime = benchmark(() -> frozen.set(PerfectHashMap.freeze(source)));
+        PerfectHashMap<Integer, Integer> map = frozen.get();
+
+        long hitTime = benchmark(() -> {
+            for (int k : keys) {
+                map.get(k);
+            }
+        });
+        int[] misses = new Random(-size).ints(size).toArray();
+        long missTime = benchmark(() -> {
+            for (int k : misses) {
+                map.get(k);
+            }
+        });
+
+        csvWriter.append("Build,PerfectHashMap," + size + "," + buildTime + "\n");
+        csvWriter.append("Search,Successful,PerfectHashMap," + size + "," + hitTime / size + "\n");
+        csvWriter.append("Search,Unsuccessful,PerfectHashMap," + size + "," + missTime / size + "\n");
+
+        System.out.println("PerfectHashMap: built in " + buildTime / 1000000 + " ms, " + hitTime / size
+                + " ns/hit, " + missTime / size + " ns/miss, " + map.bitsPerKey() + " index bits/key");
+    }
+
+    // Time every insertion on its own and report the latency percentiles
+    private static void benchmarkPutLatency(String name, Map<Integer, Integer> map, int[] keys,
+                                            FileWriter csvWriter) throws IOException {
+        int size = keys.length;
+        long[] latencies = new long[size];
+        for (int ix = 0; ix < size; ix++) {
+            int k = keys[ix];
+            latencies[ix] = benchmark(() -> {
+                try {
+                    map.put(k, k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[(int) (size * 0.5)];
+        long p99 = latencies[(int) (size * 0.99)];
+        long p999 = latencies[(int) (size * 0.999)];
+        long max = latencies[size - 1];
+
+        csvWriter.append("PutLatency,p50," + name + "," + size + "," + p50 + "\n");
+        csvWriter.append("PutLatency,p99," + name + "," + size + "," + p99 + "\n");
+        csvWriter.append("PutLatency,p99.9," + name + "," + size + "," + p999 + "\n");
+        csvWriter.append("PutLatency,max," + name + "," + size + "," + max + "\n");
+
+        System.out.println(name + " put latency: p50 " + p50 + " ns, p99 " + p99 + " ns, p99.9 " + p999
+                + " ns, max " + max + " ns");
+    }
+
+    // Benchmark helper function to measure execution time
+    private static long benchmark(Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,249 @@
+package hashtable;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+
+/**
+ * A chained hash map that grows without a stop-the-world rehash.
+ *
+ * When the load exceeds the maximum, a table of twice the capacity is
+ * allocated but the entries are left where they are. Every subsequent get,
+ * put and remove then moves MIGRATE_STEP buckets of the old table into the new
+ * one, so the cost of a resize is spread over the operations that follow it
+ * rather than charged to the one insertion that triggered it. While a
+ * migration is in progress new entries go to the new table and lookups check
+ * the new table and then the not yet migrated part of the old one.
+ */
+public class IncrementalHashMap<K extends Comparable<K>, V> extends AbstractHashMap<K, V> {
+
+	/** Number of old-table buckets migrated by each operation. */
+	public static final int MIGRATE_STEP = 4;
+
+	private Node<K, V>[] table;
+	private int occupied;          // non-empty buckets of table
+
+	private Node<K, V>[] oldTable; // table being migrated from, or null
+	private int oldShift;
+	private int oldOccupied;       // non-empty buckets of oldTable
+	private int migrated;          // old buckets below this index have been moved
+
+	/** Creates a hash map with capacity 16 and maximum load 0.75. */
+	public IncrementalHashMap() {
+		this(16);
+	}
+
+	/** Creates a hash map with the given capacity and maximum load 0.75. */
+	public IncrementalHashMap(int cap) {
+		this(cap, 0.75);
+	}
+
+	/**
+	 * Creates a hash map with the given capacity and maximum load factor.
+	 *
+	 * @param cap     initial capacity
+	 * @param maxLoad average chain length above which the table is doubled
+	 */
+	public IncrementalHashMap(int cap, double maxLoad) {
+		super(cap, maxLoad);
+		initTable();
+	}
+
+	// ---------------- nested Node class ----------------
+	private static final class Node<K, V> {
+		final K key;
+		final int hash;
+		V value;
+		Node<K, V> next;
+
+		Node(K key, int hash, V value, Node<K, V> next) {
+			this.key = key;
+			this.hash = hash;
+			this.value = value;
+			this.next = next;
+		}
+	} // ----------- end of nested Node class -----------
+
+	@Override
+	protected void createTable() {
+		initTable();
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private void initTable() {
+		table = (Node<K, V>[]) new Node[capacity];
+		occupied = 0;
+	}
+
+	/** Returns the full spread hash; bucket indices are taken per table. */
+	@Override
+	protected int hashValue(K key) {
+		return spread(key);
+	}
+
+	/** Returns true while entries are still being moved out of an old table. */
+	public boolean isMigrating() {
+		return oldTable != null;
+	}
+
+	// Moves up to MIGRATE_STEP old buckets into the new table.
+	private void step() {
+		if (oldTable == null)
+			return;
+		int end = Math.min(migrated + MIGRATE_STEP, oldTable.length);
+		for (; migrated < end; migrated++) {
+			Node<K, V> node = oldTable[migrated];
+			if (node == null)
+				continue;
+			oldTable[migrated] = null;
+			oldOccupied--;
+			while (node != null) {
+				Node<K, V> next = node.next;
+				int i = node.hash >>> shift;
+				if (table[i] == null)
+					occupied++;
+				node.next = table[i];
+				table[i] = node;
+				node = next;
+			}
+		}
+		if (migrated == oldTable.length)
+			oldTable = null;
+	}
+
+	// Returns the node holding k, searching the new table and any unmigrated old bucket.
+	private Node<K, V> find(int h, K k) {
+		for (Node<K, V> node = table[h >>> shift]; node != null; node = node.next) {
+			if (node.hash == h && k.equals(node.key))
+				return node;
+		}
+		if (oldTable != null && (h >>> oldShift) >= migrated) {
+			for (Node<K, V> node = oldTable[h >>> oldShift]; node != null; node = node.next) {
+				if (node.hash == h && k.equals(node.key))
+					return node;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	protected V bucketGet(int h, K k) {
+		step();
+		Node<K, V> node = find(h, k);
+		return node == null ? null : node.value;
+	}
+
+	@Override
+	protected V bucketPut(int h, K k, V v) {
+		step();
+		Node<K, V> node = find(h, k);
+		if (node != null) {
+			V old = node.value;
+			node.value = v;
+			return old;
+		}
+		int i = h >>> shift;
+		if (table[i] == null)
+			occupied++;
+		table[i] = new Node<>(k, h, v, table[i]);
+		n++;
+		return null;
+	}
+
+	@Override
+	protected V bucketRemove(int h, K k) {
+		step();
+		V old = unlink(table, h >>> shift, h, k);
+		if (old == null && oldTable != null && (h >>> oldShift) >= migrated)
+			old = unlink(oldTable, h >>> oldShift, h, k);
+		return old;
+	}
+
+	// Removes k from bucket i of the given table, keeping the occupancy counts.
+	private V unlink(Node<K, V>[] t, int i, int h, K k) {
+		Node<K, V> prev = null;
+		for (Node<K, V> node = t[i]; node != null; prev = node, node = node.next) {
+			if (node.hash == h && k.equals(node.key)) {
+				if (prev == null)
+					t[i] = node.next;
+				else
+					prev.next = node.next;
+				if (t[i] == null) {
+					if (t == table)
+						occupied--;
+					else
+						oldOccupied--;
+				}
+				n--;
+				return node.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts moving the entries into a table of the given capacity. A migration
+	 * still in progress is completed first.
+	 *
+	 * @param newCap the new capacity
+	 */
+	@Override
+	protected void resize(int newCap) {
+		while (oldTable != null)
+			step();
+		oldTable = table;
+		oldShift = shift;
+		oldOccupied = occupied;
+		migrated = 0;
+		setCapacity(newCap);
+		createTable();
+	}
+
+	/**
+	 * Returns the ratio of entries to table slots, counting the slots of both
+	 * tables while a migration is in progress.
+	 *
+	 * @return the current load factor
+	 */
+	@Override
+	public double loadFactor() {
+		return (double) n / (capacity + (oldTable == null ? 0 : oldTable.length));
+	}
+
+	/**
+	 * Returns the number of entries that share their bucket with at least one
+	 * earlier entry, across both tables.
+	 *
+	 * @return number of colliding entries
+	 */
+	@Override
+	public int numCollisions() {
+		return n - occupied - (oldTable == null ? 0 : oldOccupied);
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+		addAll(table, 0, buffer);
+		if (oldTable != null)
+			addAll(oldTable, migrated, buffer);
+		return buffer;
+	}
+
+	private void addAll(Node<K, V>[] t, int from, ArrayList<Entry<K, V>> buffer) {
+		for (int i = from; i < t.length; i++) {
+			for (Node<K, V> node = t[i]; node != null; node = node.next)
+				buffer.add(new MapEntry<>(node.key, node.value));
+		}
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
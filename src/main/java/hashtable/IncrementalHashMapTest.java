@@ -0,0 +1,82 @@
+package hashtable;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalHashMapTest {
+
+	@Test
+	void testPutGetRemove() {
+		IncrementalHashMap<Integer, String> map = new IncrementalHashMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals(12, map.size());
+		assertEquals("fifteen", map.remove(15));
+		assertNull(map.remove(15));
+		assertEquals(11, map.size());
+	}
+
+	@Test
+	void testMigration() {
+		IncrementalHashMap<Integer, Integer> map = new IncrementalHashMap<>(64, 0.75);
+		for (int i = 0; i < 48; i++) {
+			map.put(i, i);
+		}
+		assertFalse(map.isMigrating());
+		map.put(48, 48);
+		assertTrue(map.isMigrating());
+		// both tables count towards the load while entries are being moved
+		assertEquals(49 / (64.0 + 128.0), map.loadFactor());
+
+		// entries in the unmigrated part of the old table stay reachable
+		for (int i = 0; i <= 48; i++) {
+			assertEquals(i, map.get(i));
+		}
+		assertEquals(48, map.remove(48));
+		for (int i = 0; i < 64 / IncrementalHashMap.MIGRATE_STEP; i++) {
+			map.get(-1);
+		}
+		assertFalse(map.isMigrating());
+		assertEquals(48 / 128.0, map.loadFactor());
+		assertEquals(48, map.size());
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		IncrementalHashMap<Integer, Integer> map = new IncrementalHashMap<>(2);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		Random rand = new Random(7);
+
+		for (int ix = 0; ix < 50000; ix++) {
+			Integer k = rand.nextInt(5000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		int count = 0;
+		for (Entry<Integer, Integer> e : map.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+		assertTrue(map.numCollisions() >= 0);
+	}
+}
@@ -0,0 +1,388 @@
+package hashtable;
+
+import interfaces.AbstractMap;
+import interfaces.Entry;
+import interfaces.Map;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A read-only map over a frozen key set, indexed by a minimal perfect hash
+ * function built with the CHD (compress, hash and displace) algorithm.
+ *
+ * The n keys are split into about n / lambda buckets by one hash function.
+ * Each bucket stores a single displacement index p = d0 * m + d1 chosen at
+ * build time so that the positions (f1(k) + d0 * f2(k) + d1) mod m of its
+ * keys are all distinct from each other and from those of earlier buckets.
+ * Placing the last buckets into a completely full range is very slow, so the
+ * search uses m = n / ALPHA positions; the few keys that land at a position
+ * at or beyond n are then redirected to the unused positions below n. The
+ * resulting function maps the n keys one-to-one onto 0..n-1, so keys and
+ * values are stored in two flat arrays of exactly n cells and a lookup reads
+ * one displacement and probes exactly one slot.
+ *
+ * Displacements are bit-packed at the width of the largest one, about log2(n)
+ * bits per bucket, i.e. roughly log2(n) / lambda bits per key, plus one int per
+ * redirected position.
+ *
+ * The hash functions are seeded from the keys' hashCode, so distinct keys
+ * with equal hash codes cannot be separated. The function is therefore built
+ * over the distinct hash codes only: the first key of each hash code gets the
+ * slot, and the other keys sharing that hash code are kept in a small overflow
+ * sorted by hash code, which a lookup binary-searches and checks with equals
+ * only when the slot's key does not match.
+ */
+public class PerfectHashMap<K extends Comparable<K>, V> extends AbstractMap<K, V> {
+
+	/** Default average number of keys per displacement bucket. */
+	public static final int DEFAULT_LAMBDA = 6;
+
+	/** Fraction of the search positions that end up holding a key. */
+	public static final double ALPHA = 0.99;
+
+	// a bucket whose search reaches d0 = MAX_D0 is given up on and the build reseeded
+	private static final int MAX_D0 = 64;
+
+	private final Object[] keys;
+	private final Object[] values;
+	private final int n;              // number of slots, i.e. distinct hash codes
+	private final int[] overflowHashes; // sorted hash codes of the keys without a slot
+	private final Object[] overflowKeys;
+	private final Object[] overflowValues;
+	private final int m;              // number of positions the displacements address
+	private final int[] remap;        // slot of each position from n to m - 1
+	private final int buckets;
+	private final long seed;
+	private final long[] displacements; // bit-packed displacement index per bucket
+	private final int width;          // bits per displacement
+
+	private PerfectHashMap(Object[] keys, Object[] values, int[] overflowHashes, Object[] overflowKeys,
+						   Object[] overflowValues, int m, int[] remap, int buckets, long seed,
+						   long[] displacements, int width) {
+		this.keys = keys;
+		this.values = values;
+		this.n = keys.length;
+		this.overflowHashes = overflowHashes;
+		this.overflowKeys = overflowKeys;
+		this.overflowValues = overflowValues;
+		this.m = m;
+		this.remap = remap;
+		this.buckets = buckets;
+		this.seed = seed;
+		this.displacements = displacements;
+		this.width = width;
+	}
+
+	/**
+	 * Builds a read-only copy of the given map with the default bucket size.
+	 *
+	 * @param map the map to freeze
+	 * @return a perfect-hash map with the same entries
+	 */
+	public static <K extends Comparable<K>, V> PerfectHashMap<K, V> freeze(Map<K, V> map) {
+		return freeze(map, DEFAULT_LAMBDA);
+	}
+
+	/**
+	 * Builds a read-only copy of the given map. Larger lambda values give a
+	 * smaller index at the cost of a longer build.
+	 *
+	 * @param map    the map to freeze
+	 * @param lambda average number of keys per displacement bucket
+	 * @return a perfect-hash map with the same entries
+	 */
+	public static <K extends Comparable<K>, V> PerfectHashMap<K, V> freeze(Map<K, V> map, int lambda) {
+		if (lambda < 1)
+			throw new IllegalArgumentException("lambda must be positive");
+		ArrayList<Entry<K, V>> entries = new ArrayList<>();
+		for (Entry<K, V> e : map.entrySet())
+			entries.add(e);
+		int total = entries.size();
+		// sort the entry indices by hash code; the first entry of each hash code gets a slot
+		long[] byHash = new long[total];
+		for (int i = 0; i < total; i++)
+			byHash[i] = (long) entries.get(i).getKey().hashCode() << 32 | i;
+		Arrays.sort(byHash);
+		int n = 0;
+		for (int j = 0; j < total; j++) {
+			if (j == 0 || (int) (byHash[j] >> 32) != (int) (byHash[j - 1] >> 32))
+				n++;
+		}
+		int[] hashes = new int[n];
+		int[] first = new int[n];        // entry index of the slot key of each hash code
+		int[] overflowHashes = new int[total - n];
+		Object[] overflowKeys = new Object[total - n];
+		Object[] overflowValues = new Object[total - n];
+		for (int j = 0, i = 0, o = 0; j < total; j++) {
+			int h = (int) (byHash[j] >> 32);
+			Entry<K, V> e = entries.get((int) byHash[j]);
+			if (j == 0 || h != hashes[i - 1]) {
+				hashes[i] = h;
+				first[i++] = (int) byHash[j];
+			} else {
+				overflowHashes[o] = h;
+				overflowKeys[o] = e.getKey();
+				overflowValues[o++] = e.getValue();
+			}
+		}
+		int r = Math.max(1, (n + lambda - 1) / lambda);
+		int m = Math.max(n, (int) Math.ceil(n / ALPHA));
+
+		for (long seed = 0; ; seed++) {
+			long[] found = search(hashes, r, m, seed);
+			if (found == null)
+				continue;
+			// found holds the displacement of every bucket; redirect the positions past n
+			boolean[] taken = new boolean[m];
+			for (int i = 0; i < n; i++) {
+				long x = mix(hashes[i], seed);
+				taken[slot(x, found[bucket(x, r)], m)] = true;
+			}
+			int[] remap = new int[m - n];
+			int free = 0;
+			for (int pos = n; pos < m; pos++) {
+				if (taken[pos]) {
+					while (taken[free])
+						free++;
+					remap[pos - n] = free++;
+				}
+			}
+			// then place the entries
+			Object[] keys = new Object[n];
+			Object[] values = new Object[n];
+			long max = 0;
+			for (long p : found)
+				max = Math.max(max, p);
+			int width = Math.max(1, 64 - Long.numberOfLeadingZeros(max));
+			long[] packed = new long[(int) (((long) r * width + 63) >>> 6)];
+			for (int b = 0; b < r; b++)
+				write(packed, width, b, found[b]);
+			for (int i = 0; i < n; i++) {
+				long x = mix(hashes[i], seed);
+				int slot = slot(x, found[bucket(x, r)], m);
+				if (slot >= n)
+					slot = remap[slot - n];
+				keys[slot] = entries.get(first[i]).getKey();
+				values[slot] = entries.get(first[i]).getValue();
+			}
+			return new PerfectHashMap<>(keys, values, overflowHashes, overflowKeys, overflowValues,
+					m, remap, r, seed, packed, width);
+		}
+	}
+
+	/**
+	 * Searches a displacement for every bucket, largest buckets first.
+	 *
+	 * @return the displacement per bucket, or null if this seed should be abandoned
+	 */
+	private static long[] search(int[] hashes, int r, int m, long seed) {
+		int n = hashes.length;
+		long[] mixed = new long[n];
+		int[] start = new int[r + 1];
+		for (int i = 0; i < n; i++) {
+			mixed[i] = mix(hashes[i], seed);
+			start[bucket(mixed[i], r) + 1]++;
+		}
+		int maxSize = 0;
+		for (int b = 0; b < r; b++) {
+			maxSize = Math.max(maxSize, start[b + 1]);
+			start[b + 1] += start[b];
+		}
+		int[] members = new int[n];   // key indices grouped by bucket
+		int[] fill = start.clone();
+		for (int i = 0; i < n; i++)
+			members[fill[bucket(mixed[i], r)]++] = i;
+
+		// order buckets by decreasing size (counting sort)
+		int[] bySize = new int[maxSize + 2];
+		for (int b = 0; b < r; b++)
+			bySize[start[b + 1] - start[b]]++;
+		for (int s = maxSize; s > 0; s--)
+			bySize[s - 1] += bySize[s];
+		int[] order = new int[r];
+		for (int b = r - 1; b >= 0; b--)
+			order[--bySize[start[b + 1] - start[b]]] = b;
+
+		boolean[] taken = new boolean[m];
+		int[] slots = new int[maxSize];
+		long[] found = new long[r];
+		for (int b : order) {
+			int from = start[b];
+			int size = start[b + 1] - from;
+			if (size == 0)
+				break;
+			long p = 0;
+			search:
+			for (; ; p++) {
+				if (p / m >= MAX_D0)
+					return null;
+				for (int j = 0; j < size; j++) {
+					int s = slot(mixed[members[from + j]], p, m);
+					if (taken[s])
+						continue search;
+					for (int i = 0; i < j; i++) {
+						if (slots[i] == s)
+							continue search;
+					}
+					slots[j] = s;
+				}
+				break;
+			}
+			for (int j = 0; j < size; j++)
+				taken[slots[j]] = true;
+			found[b] = p;
+		}
+		return found;
+	}
+
+	// 64-bit hash of a key's hashCode under the given seed (splitmix64 finaliser)
+	private static long mix(int hashCode, long seed) {
+		long x = hashCode + (seed + 1) * 0x9E3779B97F4A7C15L;
+		x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+		x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+		return x ^ (x >>> 31);
+	}
+
+	private static int bucket(long x, int r) {
+		return (int) (((x >>> 32) * r) >>> 32);
+	}
+
+	// position (f1 + d0 * f2 + d1) mod m for displacement index p = d0 * m + d1
+	private static int slot(long x, long p, int m) {
+		long f1 = ((x & 0xFFFFFFFFL) * m) >>> 32;
+		long f2 = 1 + (((x * 0xC2B2AE3D27D4EB4FL) >>> 33) % Math.max(1, m - 1));
+		long d0 = p / m;
+		long d1 = p % m;
+		return (int) ((f1 + (d0 * f2) % m + d1) % m);
+	}
+
+	private static void write(long[] packed, int width, int index, long value) {
+		long bit = (long) index * width;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+		packed[word] |= value << offset;
+		if (offset + width > 64)
+			packed[word + 1] |= value >>> (64 - offset);
+	}
+
+	private long read(int index) {
+		long bit = (long) index * width;
+		int word = (int) (bit >>> 6);
+		int offset = (int) (bit & 63);
+		long value = displacements[word] >>> offset;
+		if (offset + width > 64)
+			value |= displacements[word + 1] << (64 - offset);
+		return width == 64 ? value : value & ((1L << width) - 1);
+	}
+
+	/**
+	 * Returns the number of entries in the map.
+	 *
+	 * @return number of entries in the map
+	 */
+	@Override
+	public int size() {
+		return n + overflowKeys.length;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists. Exactly one slot is examined; the overflow is searched only if the
+	 * slot holds a different key and some keys share a hash code.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(K key) {
+		if (n == 0)
+			return null;
+		int h = key.hashCode();
+		long x = mix(h, seed);
+		int s = slot(x, read(bucket(x, buckets)), m);
+		if (s >= n)
+			s = remap[s - n];
+		if (key.equals(keys[s]))
+			return (V) values[s];
+		if (overflowHashes.length == 0)
+			return null;
+		int i = Arrays.binarySearch(overflowHashes, h);
+		if (i < 0)
+			return null;
+		while (i > 0 && overflowHashes[i - 1] == h)
+			i--;
+		for (; i < overflowHashes.length && overflowHashes[i] == h; i++) {
+			if (key.equals(overflowKeys[i]))
+				return (V) overflowValues[i];
+		}
+		return null;
+	}
+
+	/** The map is read-only. */
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException("A frozen map cannot be modified");
+	}
+
+	/** The map is read-only. */
+	@Override
+	public V remove(K key) {
+		throw new UnsupportedOperationException("A frozen map cannot be modified");
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map, in
+	 * slot order followed by the overflow.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(size());
+		for (int i = 0; i < n; i++)
+			buffer.add(new MapEntry<>((K) keys[i], (V) values[i]));
+		for (int i = 0; i < overflowKeys.length; i++)
+			buffer.add(new MapEntry<>((K) overflowKeys[i], (V) overflowValues[i]));
+		return buffer;
+	}
+
+	/**
+	 * Returns the ratio of entries to slots, which is 1 for a minimal perfect
+	 * hash of a non-empty map whose keys have distinct hash codes.
+	 *
+	 * @return the load factor
+	 */
+	@Override
+	public double loadFactor() {
+		return n == 0 ? 0 : (double) size() / n;
+	}
+
+	/**
+	 * Returns the number of keys kept in the overflow because an earlier key
+	 * has the same hashCode; every other key has a slot of its own.
+	 *
+	 * @return number of colliding entries
+	 */
+	@Override
+	public int numCollisions() {
+		return overflowKeys.length;
+	}
+
+	/**
+	 * Returns the size of the hash function's index (the packed displacements,
+	 * the redirections and the overflow hash codes) in bits per key.
+	 *
+	 * @return index bits per key
+	 */
+	public double bitsPerKey() {
+		return n == 0 ? 0 : ((double) buckets * width + 32.0 * (remap.length + overflowHashes.length)) / size();
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
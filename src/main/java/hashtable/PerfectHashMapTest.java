@@ -0,0 +1,115 @@
+package hashtable;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+import tree.TreeMap;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerfectHashMapTest {
+
+	@Test
+	void testFreezeTreeMap() throws IOException {
+		TreeMap<Integer, String> source = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			source.put(i, Integer.toString(i));
+		}
+		PerfectHashMap<Integer, String> map = PerfectHashMap.freeze(source);
+		assertEquals(12, map.size());
+		for(Integer i : arr) {
+			assertEquals(Integer.toString(i), map.get(i));
+		}
+		assertNull(map.get(-1));
+		assertNull(map.get(3));
+		assertEquals(0, map.numCollisions());
+		assertEquals(1.0, map.loadFactor());
+		assertThrows(UnsupportedOperationException.class, () -> map.put(3, "3"));
+		assertThrows(UnsupportedOperationException.class, () -> map.remove(35));
+	}
+
+	@Test
+	void testEmptyAndSingle() {
+		RobinHoodHashMap<String, Integer> source = new RobinHoodHashMap<>();
+		PerfectHashMap<String, Integer> empty = PerfectHashMap.freeze(source);
+		assertEquals(0, empty.size());
+		assertNull(empty.get("a"));
+
+		source.put("a", 1);
+		PerfectHashMap<String, Integer> single = PerfectHashMap.freeze(source);
+		assertEquals(1, single.get("a"));
+		assertNull(single.get("b"));
+	}
+
+	@Test
+	void testLargeKeySet() {
+		RobinHoodHashMap<Integer, Integer> source = new RobinHoodHashMap<>();
+		Random rand = new Random(8);
+		while (source.size() < 100000) {
+			int k = rand.nextInt();
+			source.put(k, k);
+		}
+		PerfectHashMap<Integer, Integer> map = PerfectHashMap.freeze(source);
+		assertEquals(source.size(), map.size());
+		for (Entry<Integer, Integer> e : source.entrySet()) {
+			assertEquals(e.getValue(), map.get(e.getKey()));
+		}
+		for (int i = 0; i < 1000; i++) {
+			int k = rand.nextInt();
+			assertEquals(source.get(k), map.get(k));
+		}
+		assertTrue(map.bitsPerKey() < 4, "bits per key: " + map.bitsPerKey());
+	}
+
+	@Test
+	void testEqualHashCodes() {
+		RobinHoodHashMap<String, Integer> source = new RobinHoodHashMap<>();
+		source.put("Aa", 1);
+		source.put("BB", 2);
+		source.put("C#", 3);
+		source.put("AaAa", 4);
+		source.put("BBBB", 5);
+		source.put("AaBB", 6);
+		PerfectHashMap<String, Integer> map = PerfectHashMap.freeze(source);
+		assertEquals(6, map.size());
+		for (Entry<String, Integer> e : source.entrySet()) {
+			assertEquals(e.getValue(), map.get(e.getKey()));
+		}
+		assertNull(map.get("BBAa"));
+		assertNull(map.get("Ab"));
+		assertEquals(4, map.numCollisions());
+		int entries = 0;
+		for (Entry<String, Integer> e : map.entrySet()) {
+			assertEquals(source.get(e.getKey()), e.getValue());
+			entries++;
+		}
+		assertEquals(6, entries);
+	}
+
+	@Test
+	void testRandomLongKeys() {
+		RobinHoodHashMap<Long, Long> source = new RobinHoodHashMap<>();
+		Random rand = new Random(3);
+		while (source.size() < 300000) {
+			long k = rand.nextLong();
+			source.put(k, k);
+		}
+		PerfectHashMap<Long, Long> map = PerfectHashMap.freeze(source);
+		assertEquals(source.size(), map.size());
+		assertTrue(map.numCollisions() > 0);
+		for (Entry<Long, Long> e : source.entrySet()) {
+			assertEquals(e.getValue(), map.get(e.getKey()));
+		}
+		for (int i = 0; i < 1000; i++) {
+			long k = rand.nextLong();
+			assertEquals(source.get(k), map.get(k));
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package hashtable;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+
+/**
+ * An open-addressing hash map using linear probing with Robin Hood
+ * displacement.
+ *
+ * Every occupied slot remembers how far its entry sits from its home bucket.
+ * An insertion that reaches a slot whose entry is closer to home than the one
+ * being inserted swaps the two and carries on with the displaced entry, which
+ * keeps probe sequences short and even. Searches stop as soon as they pass an
+ * entry closer to home than the key would be, and removals shift the following
+ * run back by one slot instead of leaving tombstones.
+ */
+public class RobinHoodHashMap<K extends Comparable<K>, V> extends AbstractHashMap<K, V> {
+
+	private Object[] keys;
+	private Object[] values;
+	private int[] dist;     // 1 + distance of each entry from its home slot; 0 marks an empty slot
+
+	private int collisions = 0;    // entries not stored in their home slot
+	private long probeTotal = 0;   // sum of the distances of all entries from home
+
+	/** Creates a hash map with capacity 16 and maximum load 0.75. */
+	public RobinHoodHashMap() {
+		this(16);
+	}
+
+	/** Creates a hash map with the given capacity and maximum load 0.75. */
+	public RobinHoodHashMap(int cap) {
+		this(cap, 0.75);
+	}
+
+	/**
+	 * Creates a hash map with the given capacity and maximum load factor.
+	 *
+	 * @param cap     initial capacity
+	 * @param maxLoad load factor above which the table is doubled (below 1)
+	 */
+	public RobinHoodHashMap(int cap, double maxLoad) {
+		super(cap, checkLoad(maxLoad));
+		initTable();
+	}
+
+	private static double checkLoad(double maxLoad) {
+		if (maxLoad >= 1)
+			throw new IllegalArgumentException("An open-addressing table needs a maximum load below 1");
+		return maxLoad;
+	}
+
+	@Override
+	protected void createTable() {
+		initTable();
+	}
+
+	private void initTable() {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		dist = new int[capacity];
+		collisions = 0;
+		probeTotal = 0;
+	}
+
+	// bookkeeping for entries placed into or taken out of a slot at distance d
+	private void placed(int d) {
+		probeTotal += d;
+		if (d > 0)
+			collisions++;
+	}
+
+	private void vacated(int d) {
+		probeTotal -= d;
+		if (d > 0)
+			collisions--;
+	}
+
+	/** Returns the slot holding key k whose home slot is h, or -1. */
+	private int findSlot(int h, K k) {
+		int mask = capacity - 1;
+		for (int i = h, d = 1; ; i = (i + 1) & mask, d++) {
+			if (dist[i] < d)  // empty, or an entry closer to home than k would be
+				return -1;
+			if (dist[i] == d && k.equals(keys[i]))
+				return i;
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketGet(int h, K k) {
+		int i = findSlot(h, k);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketPut(int h, K k, V v) {
+		int mask = capacity - 1;
+		Object key = k;
+		Object value = v;
+		int d = 1;
+		int i = h;
+		// search phase: the key can only be found before the first richer slot
+		while (dist[i] >= d) {
+			if (dist[i] == d && k.equals(keys[i])) {
+				V old = (V) values[i];
+				values[i] = v;
+				return old;
+			}
+			i = (i + 1) & mask;
+			d++;
+		}
+		// insert phase: take from the rich, give to the poor
+		while (dist[i] != 0) {
+			if (dist[i] < d) {
+				Object tk = keys[i];
+				Object tv = values[i];
+				int td = dist[i];
+				vacated(td - 1);
+				keys[i] = key;
+				values[i] = value;
+				dist[i] = d;
+				placed(d - 1);
+				key = tk;
+				value = tv;
+				d = td;
+			}
+			i = (i + 1) & mask;
+			d++;
+		}
+		keys[i] = key;
+		values[i] = value;
+		dist[i] = d;
+		placed(d - 1);
+		n++;
+		return null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected V bucketRemove(int h, K k) {
+		int i = findSlot(h, k);
+		if (i < 0)
+			return null;
+		V old = (V) values[i];
+		vacated(dist[i] - 1);
+		// backward-shift deletion: pull the rest of the run one slot closer to home
+		int mask = capacity - 1;
+		int j = (i + 1) & mask;
+		while (dist[j] > 1) {
+			vacated(dist[j] - 1);
+			keys[i] = keys[j];
+			values[i] = values[j];
+			dist[i] = dist[j] - 1;
+			placed(dist[i] - 1);
+			i = j;
+			j = (j + 1) & mask;
+		}
+		keys[i] = null;
+		values[i] = null;
+		dist[i] = 0;
+		n--;
+		return old;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	protected void resize(int newCap) {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldDist = dist;
+		setCapacity(newCap);
+		createTable();
+		n = 0;
+		for (int i = 0; i < oldDist.length; i++) {
+			if (oldDist[i] != 0) {
+				K k = (K) oldKeys[i];
+				bucketPut(hashValue(k), k, (V) oldValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of entries that are not stored in their home slot, i.e.
+	 * that collided with another entry on insertion.
+	 *
+	 * @return number of displaced entries
+	 */
+	@Override
+	public int numCollisions() {
+		return collisions;
+	}
+
+	/**
+	 * Returns the mean number of extra slots a successful search inspects.
+	 *
+	 * @return average distance of an entry from its home slot
+	 */
+	public double averageProbeLength() {
+		return n == 0 ? 0 : (double) probeTotal / n;
+	}
+
+	/**
+	 * Returns an iterable collection of all key-value entries of the map, in
+	 * table order.
+	 *
+	 * @return iterable collection of the map's entries
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(n);
+		for (int i = 0; i < capacity; i++) {
+			if (dist[i] != 0)
+				buffer.add(new MapEntry<>((K) keys[i], (V) values[i]));
+		}
+		return buffer;
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,103 @@
+package hashtable;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RobinHoodHashMapTest {
+
+	@Test
+	void testPutGet() {
+		RobinHoodHashMap<Integer, String> map = new RobinHoodHashMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertNull(map.get(-1));
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals("fifteen", map.get(15));
+		assertEquals(12, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		RobinHoodHashMap<Integer, String> map = new RobinHoodHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(i, Integer.toString(i));
+		}
+		for (int i = 0; i < 100; i += 2) {
+			assertEquals(Integer.toString(i), map.remove(i));
+		}
+		assertNull(map.remove(0));
+		assertEquals(50, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i % 2 == 0 ? null : Integer.toString(i), map.get(i));
+		}
+	}
+
+	@Test
+	void testLoadFactorAndResize() {
+		RobinHoodHashMap<Integer, Integer> map = new RobinHoodHashMap<>(8, 0.5);
+		for (int i = 0; i < 4; i++) {
+			map.put(i, i);
+		}
+		assertEquals(0.5, map.loadFactor());
+		map.put(4, 4);
+		assertEquals(5 / 16.0, map.loadFactor());
+		assertThrows(IllegalArgumentException.class, () -> new RobinHoodHashMap<Integer, Integer>(8, 1.0));
+	}
+
+	@Test
+	void testCollisions() {
+		// keys with equal hash codes all share one home slot
+		RobinHoodHashMap<String, Integer> map = new RobinHoodHashMap<>(64);
+		String[] same = new String[] {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"};
+		map.put(same[0], 0);
+		map.put(same[1], 1);
+		assertEquals(1, map.numCollisions());
+		map.put(same[2], 2);
+		map.put(same[3], 3);
+		map.put(same[4], 4);
+		map.put(same[5], 5);
+		assertEquals(4, map.numCollisions()); // "AaAa" etc. share a different home slot
+		map.remove(same[0]);
+		assertEquals(3, map.numCollisions());
+		assertEquals(1, map.get(same[1]));
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		RobinHoodHashMap<Integer, Integer> map = new RobinHoodHashMap<>(4, 0.9);
+		HashMap<Integer, Integer> expected = new HashMap<>();
+		Random rand = new Random(3);
+
+		for (int ix = 0; ix < 50000; ix++) {
+			Integer k = rand.nextInt(5000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		int count = 0;
+		for (Entry<Integer, Integer> e : map.entrySet()) {
+			assertEquals(expected.get(e.getKey()), e.getValue());
+			count++;
+		}
+		assertEquals(expected.size(), count);
+		assertTrue(map.numCollisions() < map.size());
+		assertTrue(map.averageProbeLength() < 5);
+	}
+}
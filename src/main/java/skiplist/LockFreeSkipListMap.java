@@ -0,0 +1,428 @@
+package skiplist;
+
+import interfaces.Entry;
+import tree.AbstractSortedMap;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free skip list implementation of a sorted map that may be shared by
+ * any number of threads without external locking.
+ *
+ * Each node links to its successors through AtomicMarkableReferences; the mark
+ * bit on a node's own links says that the node is being deleted. put links a
+ * new node bottom-up with compareAndSet, and remove first claims the node by
+ * setting its value to null, then marks its links top-down, after which any
+ * traversal that meets it unlinks it. get never writes and never retries, so
+ * it is wait-free.
+ *
+ * The navigation methods, entrySet and subMap are weakly consistent: they never
+ * fail because of concurrent updates, and they reflect every update that
+ * completed before they started, but may or may not see updates made while
+ * they run. Null keys and null values are not permitted.
+ */
+public class LockFreeSkipListMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V> {
+
+	/** Maximum number of levels; enough for any map that fits in memory. */
+	public static final int MAX_LEVEL = 32;
+
+	// ---------------- nested Node class ----------------
+	private static final class Node<K, V> {
+		final K key;
+		final AtomicReference<V> value; // null once the node has been removed
+		final AtomicMarkableReference<Node<K, V>>[] next;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Node(K key, V value, int height) {
+			this.key = key;
+			this.value = new AtomicReference<>(value);
+			next = (AtomicMarkableReference<Node<K, V>>[]) new AtomicMarkableReference[height];
+			for (int level = 0; level < height; level++)
+				next[level] = new AtomicMarkableReference<>(null, false);
+		}
+	}
+	// ----------- end of nested Node class -----------
+
+	private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL); // key is treated as -infinity
+	private final LongAdder count = new LongAdder();
+
+	/** Constructs an empty map ordered by the keys' natural ordering. */
+	public LockFreeSkipListMap() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public LockFreeSkipListMap(Comparator<K> comp) {
+		super(comp);
+	}
+
+	/**
+	 * Returns the number of entries. With concurrent updates in flight this is
+	 * only an estimate.
+	 */
+	@Override
+	public int size() {
+		return (int) Math.min(Integer.MAX_VALUE, count.sum());
+	}
+
+	// geometric with p = 1/2, between 1 and MAX_LEVEL
+	private static int randomHeight() {
+		int r = ThreadLocalRandom.current().nextInt();
+		return 1 + Integer.numberOfTrailingZeros(r | (1 << (MAX_LEVEL - 1)));
+	}
+
+	/**
+	 * Fills preds and succs with, at every level, the last node whose key is less
+	 * than key and the node following it, unlinking marked nodes on the way.
+	 *
+	 * @return true if succs[0] holds key
+	 */
+	private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+		boolean[] marked = {false};
+		retry:
+		while (true) {
+			Node<K, V> pred = head;
+			for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+				Node<K, V> curr = pred.next[level].getReference();
+				while (curr != null) {
+					Node<K, V> succ = curr.next[level].get(marked);
+					if (marked[0]) {
+						// curr is being deleted: swing pred past it, or start over if pred changed
+						if (!pred.next[level].compareAndSet(curr, succ, false, false))
+							continue retry;
+						curr = succ;
+					} else if (compare(curr.key, key) < 0) {
+						pred = curr;
+						curr = succ;
+					} else {
+						break;
+					}
+				}
+				preds[level] = pred;
+				succs[level] = curr;
+			}
+			return succs[0] != null && compare(succs[0].key, key) == 0;
+		}
+	}
+
+	// marks every link of node, top level first, so that no new node is linked after it
+	private static <K, V> void mark(Node<K, V> node) {
+		boolean[] marked = {false};
+		for (int level = node.next.length - 1; level >= 0; level--) {
+			Node<K, V> succ = node.next[level].get(marked);
+			while (!marked[0]) {
+				node.next[level].compareAndSet(succ, succ, false, true);
+				succ = node.next[level].get(marked);
+			}
+		}
+	}
+
+	/**
+	 * Returns the last node at the bottom level whose key is less than key (or at
+	 * most key when orEqual), or head if there is none; key == null stands for
+	 * +infinity. As in Herlihy and Shavit's wait-free contains, marked nodes are
+	 * stepped over rather than unlinked and are never taken as the predecessor, so
+	 * a search is not led astray by a removed node still linked at an upper level,
+	 * and never follows the frozen links of one at the bottom.
+	 */
+	private Node<K, V> lastBelow(K key, boolean orEqual) {
+		boolean[] marked = {false};
+		Node<K, V> pred = head;
+		for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+			Node<K, V> curr = pred.next[level].getReference();
+			while (curr != null) {
+				Node<K, V> succ = curr.next[level].get(marked);
+				if (marked[0]) {
+					curr = succ;
+				} else if (key == null || below(curr.key, key, orEqual)) {
+					pred = curr;
+					curr = succ;
+				} else {
+					break;
+				}
+			}
+		}
+		return pred;
+	}
+
+	// the first unmarked node at the bottom level that is not below key, walking on from pred
+	// past marked nodes and past any smaller keys linked after pred since lastBelow; null if none
+	private Node<K, V> firstNotBelow(Node<K, V> pred, K key, boolean orEqual) {
+		boolean[] marked = {false};
+		Node<K, V> curr = pred.next[0].getReference();
+		while (curr != null) {
+			Node<K, V> succ = curr.next[0].get(marked);
+			if (!marked[0] && !below(curr.key, key, orEqual))
+				return curr;
+			curr = succ;
+		}
+		return null;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Node<K, V>[] newPath() {
+		return (Node<K, V>[]) new Node[MAX_LEVEL];
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists. Wait-free.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	public V get(K key) {
+		// only the bottom level decides: an upper level may still hold a removed node with this key
+		Node<K, V> curr = firstNotBelow(lastBelow(key, false), key, false);
+		if (curr == null || compare(curr.key, key) != 0)
+			return null;
+		return curr.value.get(); // null if the node has been removed but not yet marked
+	}
+
+	/**
+	 * Associates the given value with the given key, returning the previous value
+	 * or null if the key was not present.
+	 *
+	 * @throws NullPointerException if key or value is null
+	 */
+	@Override
+	public V put(K key, V value) {
+		if (key == null || value == null)
+			throw new NullPointerException("null keys and values are not permitted");
+		Node<K, V>[] preds = newPath();
+		Node<K, V>[] succs = newPath();
+		int height = randomHeight();
+		while (true) {
+			if (find(key, preds, succs)) {
+				Node<K, V> node = succs[0];
+				V old = node.value.get();
+				if (old != null) {
+					if (node.value.compareAndSet(old, value))
+						return old;
+				} else {
+					mark(node); // help the remover so that find can unlink the node
+				}
+				continue;
+			}
+			Node<K, V> node = new Node<>(key, value, height);
+			for (int level = 0; level < height; level++)
+				node.next[level].set(succs[level], false);
+			// linking the bottom level is the linearization point of the insertion
+			if (!preds[0].next[0].compareAndSet(succs[0], node, false, false))
+				continue;
+			count.increment();
+			linkUpperLevels(node, preds, succs);
+			return null;
+		}
+	}
+
+	// links node into levels 1 and up; stops early if the node is removed meanwhile
+	private void linkUpperLevels(Node<K, V> node, Node<K, V>[] preds, Node<K, V>[] succs) {
+		boolean[] marked = {false};
+		for (int level = 1; level < node.next.length; level++) {
+			while (true) {
+				Node<K, V> succ = succs[level];
+				Node<K, V> current = node.next[level].get(marked);
+				if (marked[0])
+					return;
+				if (current != succ && !node.next[level].compareAndSet(current, succ, false, false))
+					continue;
+				if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+					if (node.next[level].isMarked()) {
+						// removed between the check and the link: its remover's find may have
+						// passed this level already, so unlink the node here ourselves
+						find(node.key, preds, succs);
+						return;
+					}
+					break;
+				}
+				find(node.key, preds, succs);
+				if (succs[0] != node)
+					return; // removed (and possibly replaced) while we were linking
+			}
+		}
+	}
+
+	/**
+	 * Removes the entry with the specified key, returning its value or null if
+	 * the key was not present.
+	 */
+	@Override
+	public V remove(K key) {
+		Node<K, V>[] preds = newPath();
+		Node<K, V>[] succs = newPath();
+		while (true) {
+			if (!find(key, preds, succs))
+				return null;
+			Node<K, V> node = succs[0];
+			V old = node.value.get();
+			if (old == null) {
+				// another thread removed it first; finish its unlinking
+				mark(node);
+				find(key, preds, succs);
+				return null;
+			}
+			// clearing the value is the linearization point of the removal
+			if (node.value.compareAndSet(old, null)) {
+				count.decrement();
+				mark(node);
+				find(key, preds, succs);
+				return old;
+			}
+		}
+	}
+
+	// the first node at the bottom level whose key is >= key (or > key when not
+	// inclusive), skipping removed nodes; null if there is none
+	private Node<K, V> successor(K key, boolean inclusive) {
+		Node<K, V> curr = firstNotBelow(lastBelow(key, !inclusive), key, !inclusive);
+		while (curr != null && curr.value.get() == null)
+			curr = curr.next[0].getReference();
+		return curr;
+	}
+
+	// the last live node whose key is <= key (or < key when not inclusive);
+	// key == null stands for +infinity. Returns head if there is none.
+	private Node<K, V> predecessor(K key, boolean inclusive) {
+		while (true) {
+			Node<K, V> pred = lastBelow(key, inclusive);
+			if (pred == head || pred.value.get() != null)
+				return pred;
+			// the candidate was removed: unlink it and look again
+			mark(pred);
+			find(pred.key, newPath(), newPath());
+		}
+	}
+
+	// a < b, or a <= b when orEqual
+	private boolean below(K a, K b, boolean orEqual) {
+		int comp = compare(a, b);
+		return comp < 0 || (orEqual && comp == 0);
+	}
+
+	// whether no marked node is linked at any level; for tests, once updates have stopped
+	boolean isClean() {
+		boolean[] marked = {false};
+		for (int level = 0; level < MAX_LEVEL; level++) {
+			for (Node<K, V> node = head.next[level].getReference(); node != null; ) {
+				Node<K, V> succ = node.next[level].get(marked);
+				if (marked[0])
+					return false;
+				node = succ;
+			}
+		}
+		return true;
+	}
+
+	// a snapshot of node's mapping, or null if node is null or has been removed
+	private Entry<K, V> entry(Node<K, V> node) {
+		if (node == null || node == head)
+			return null;
+		V value = node.value.get();
+		return value == null ? null : new MapEntry<>(node.key, value);
+	}
+
+	// retries while the chosen node is removed between finding it and reading it
+	private Entry<K, V> entryAtOrAfter(K key, boolean inclusive) {
+		while (true) {
+			Node<K, V> node = successor(key, inclusive);
+			Entry<K, V> e = entry(node);
+			if (node == null || e != null)
+				return e;
+		}
+	}
+
+	private Entry<K, V> entryAtOrBefore(K key, boolean inclusive) {
+		while (true) {
+			Node<K, V> node = predecessor(key, inclusive);
+			Entry<K, V> e = entry(node);
+			if (node == head || e != null)
+				return e;
+		}
+	}
+
+	@Override
+	public Entry<K, V> firstEntry() {
+		while (true) {
+			Node<K, V> node = head.next[0].getReference();
+			while (node != null && node.value.get() == null)
+				node = node.next[0].getReference();
+			Entry<K, V> e = entry(node);
+			if (node == null || e != null)
+				return e;
+		}
+	}
+
+	@Override
+	public Entry<K, V> lastEntry() {
+		return entryAtOrBefore(null, true);
+	}
+
+	@Override
+	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+		return entryAtOrAfter(key, true);
+	}
+
+	@Override
+	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+		return entryAtOrBefore(key, true);
+	}
+
+	@Override
+	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+		return entryAtOrBefore(key, false);
+	}
+
+	@Override
+	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+		return entryAtOrAfter(key, false);
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>();
+		for (Node<K, V> node = head.next[0].getReference(); node != null; node = node.next[0].getReference()) {
+			Entry<K, V> e = entry(node);
+			if (e != null)
+				buffer.add(e);
+		}
+		return buffer;
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>();
+		for (Node<K, V> node = successor(fromKey, true); node != null && compare(node.key, toKey) < 0;
+			 node = node.next[0].getReference()) {
+			Entry<K, V> e = entry(node);
+			if (e != null)
+				buffer.add(e);
+		}
+		return buffer;
+	}
+
+	@Override
+	public double loadFactor() {
+		return 0;
+	}
+
+	@Override
+	public int numCollisions() {
+		return 0;
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,170 @@
+package skiplist;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockFreeSkipListMapTest {
+
+	private static LockFreeSkipListMap<Integer, String> sample() {
+		LockFreeSkipListMap<Integer, String> map = new LockFreeSkipListMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testPutGetRemove() {
+		LockFreeSkipListMap<Integer, String> map = sample();
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+		assertEquals(12, map.size());
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		assertEquals("26", map.put(26, "twenty-six"));
+		assertEquals("twenty-six", map.remove(26));
+		assertNull(map.remove(26));
+		assertEquals(11, map.size());
+		assertThrows(NullPointerException.class, () -> map.put(3, null));
+	}
+
+	@Test
+	void testNavigation() {
+		LockFreeSkipListMap<Integer, String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertNull(map.higherEntry(35));
+		assertNull(map.lowerEntry(1));
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(2000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+
+		List<Integer> keys = new ArrayList<>();
+		map.keySet().forEach(keys::add);
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+		for (int k = -1; k <= 2001; k += 7) {
+			Entry<Integer, Integer> e = map.floorEntry(k);
+			assertEquals(expected.floorKey(k), e == null ? null : e.getKey());
+			e = map.lowerEntry(k);
+			assertEquals(expected.lowerKey(k), e == null ? null : e.getKey());
+			e = map.higherEntry(k);
+			assertEquals(expected.higherKey(k), e == null ? null : e.getKey());
+		}
+	}
+
+	@Test
+	void testConcurrentUpdates() throws InterruptedException {
+		LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+		int threads = 8;
+		int range = 1000;
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			workers[t] = new Thread(() -> {
+				SplittableRandom random = new SplittableRandom(id);
+				// every thread churns the shared keys, then inserts its own stripe for good
+				for (int ix = 0; ix < 50000; ix++) {
+					int k = random.nextInt(range);
+					if (random.nextBoolean())
+						map.put(k, k);
+					else
+						map.remove(k);
+				}
+				for (int k = range + id; k < 2 * range; k += threads)
+					map.put(k, k);
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+
+		// the entries seen by a scan are sorted, unique and agree with get and size
+		List<Integer> keys = new ArrayList<>();
+		map.keySet().forEach(keys::add);
+		assertEquals(keys.size(), map.size());
+		for (int i = 1; i < keys.size(); i++)
+			assertTrue(keys.get(i - 1) < keys.get(i));
+		for (int k = 0; k < 2 * range; k++)
+			assertEquals(keys.contains(k) ? Integer.valueOf(k) : null, map.get(k));
+		for (int k = range; k < 2 * range; k++)
+			assertEquals(k, map.ceilingEntry(k).getKey());
+		assertTrue(map.isClean());
+	}
+
+	@Test
+	void testContendedKeysLeaveNoRemovedNodes() throws InterruptedException {
+		// a few keys fought over by every thread, so removals race with upper-level linking
+		LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+		AtomicInteger lostWrites = new AtomicInteger();
+		int threads = 8;
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			workers[t] = new Thread(() -> {
+				SplittableRandom random = new SplittableRandom(id);
+				for (int ix = 0; ix < 100000; ix++) {
+					int k = random.nextInt(4);
+					if (random.nextBoolean())
+						map.put(k, id);
+					else
+						map.remove(k);
+				}
+				// a key only this thread writes must read back what it wrote
+				int own = 100 + id;
+				for (int ix = 0; ix < 1000; ix++) {
+					map.put(own, ix);
+					if (!Integer.valueOf(ix).equals(map.get(own)))
+						lostWrites.incrementAndGet();
+					map.remove(own);
+				}
+			});
+			workers[t].start();
+		}
+		for (Thread worker : workers)
+			worker.join();
+		assertEquals(0, lostWrites.get());
+		assertTrue(map.isClean());
+		List<Integer> keys = new ArrayList<>();
+		map.keySet().forEach(keys::add);
+		for (int k = 0; k < 4; k++)
+			assertEquals(keys.contains(k), map.get(k) != null);
+		for (int k = 0; k < 4; k++) {
+			map.put(k, -k);
+			assertEquals(-k, map.get(k));
+		}
+	}
+}
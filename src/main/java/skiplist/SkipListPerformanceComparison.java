@@ -0,0 +1,111 @@
+package skiplist;
+
+import interfaces.SortedMap;
+import tree.AVLTreeMap;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+public class SkipListPerformanceComparison {
+
+    // Keys are drawn from [0, KEY_RANGE); the maps start half full
+    private static final int KEY_RANGE = 200000;
+    private static final int OPS_PER_THREAD = 1000000;
+
+    public static void main(String[] args) throws Exception {
+        // Thread counts: powers of two up to the number of cores, plus the core count itself
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < cores; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(cores);
+
+        // Create CSV writer
+        FileWriter csvWriter = new FileWriter("skiplist_performance_comparison.csv");
+        // Write header row for the CSV
+        csvWriter.append("Operation,DataStructure,Threads,OpsPerSecond\n");
+
+        // Read-mostly and update-heavy mixes, as percentages of get/put (the rest are removes)
+        int[][] mixes = new int[][]{{90, 5}, {50, 25}};
+
+        for (int[] mix : mixes) {
+            String operation = "Mixed" + mix[0] + "Get";
+            for (int threads : threadCounts) {
+                System.out.println(operation + " with " + threads + " threads");
+                benchmarkThroughput(operation, "LockFreeSkipListMap", new LockFreeSkipListMap<>(), false,
+                        threads, mix, csvWriter);
+                benchmarkThroughput(operation, "SynchronizedAVLTreeMap", new AVLTreeMap<>(), true,
+                        threads, mix, csvWriter);
+            }
+        }
+
+        // Close the CSV writer
+        csvWriter.flush();
+        csvWriter.close();
+    }
+
+    // Run OPS_PER_THREAD random operations on each of the given number of threads, all
+    // released at once, and report the combined operations per second. A map that is
+    // not thread-safe is shared behind one lock, the way callers have to use it.
+    private static void benchmarkThroughput(String operation, String name, SortedMap<Integer, Integer> map,
+                                            boolean locked, int threads, int[] mix, FileWriter csvWriter)
+            throws IOException, InterruptedException {
+        Random rand = new Random(42);
+        for (int i = 0; i < KEY_RANGE / 2; i++) {
+            int k = rand.nextInt(KEY_RANGE);
+            map.put(k, k);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int ix = 0; ix < OPS_PER_THREAD; ix++) {
+                        int k = random.nextInt(KEY_RANGE);
+                        int op = random.nextInt(100);
+                        if (locked) {
+                            synchronized (map) {
+                                apply(map, k, op, mix);
+                            }
+                        } else {
+                            apply(map, k, op, mix);
+                        }
+                    }
+                } catch (InterruptedException | IOException e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            });
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long time = System.nanoTime() - begin;
+
+        long opsPerSecond = (long) threads * OPS_PER_THREAD * 1000000000L / time;
+        csvWriter.append(operation + "," + name + "," + threads + "," + opsPerSecond + "\n");
+        System.out.println(name + ": " + opsPerSecond + " ops/s");
+    }
+
+    private static void apply(SortedMap<Integer, Integer> map, int k, int op, int[] mix) throws IOException {
+        if (op < mix[0]) {
+            map.get(k);
+        } else if (op < mix[0] + mix[1]) {
+            map.put(k, k);
+        } else {
+            map.remove(k);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package tree;
 
 import interfaces.Entry;
 import interfaces.Position;
+import tree.BalanceableBinaryTree.NodeType;
+import utils.DefaultComparator;
 
 import java.io.IOException;
 import java.util.Comparator;
@@ -9,11 +11,16 @@ import java.util.Comparator;
 public class AVLTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
 
 	public AVLTreeMap() {
-		super();
+		this(new DefaultComparator<>(), NodeType.SIZED);
 	}
 
 	public AVLTreeMap(Comparator<K> comp) {
-		super(comp);
+		this(comp, NodeType.SIZED);
+	}
+
+	// for augmented subclasses, whose nodes carry a summary as well as the size
+	protected AVLTreeMap(Comparator<K> comp, NodeType nodeType) {
+		super(comp, nodeType);
 	}
 
 	public static void main(String[] args) throws IOException {
@@ -53,7 +60,13 @@ public class AVLTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
 		Position<Entry<K, V>> right = tree.right(p);
 		int leftHeight = (left.getElement() == null ? -1 : height(left));
 		int rightHeight = (right.getElement() == null ? -1 : height(right));
-		return leftHeight >= rightHeight ? left : right;
+		if (leftHeight != rightHeight)
+			return leftHeight > rightHeight ? left : right;
+		// on a tie (possible after a deletion) prefer the child aligned with p,
+		// so that restructure does a single rotation
+		if (tree.isRoot(p) || p == tree.left(tree.parent(p)))
+			return left;
+		return right;
 	}
 
 	protected void rebalance(Position<Entry<K, V>> p) throws IOException {
@@ -78,6 +91,12 @@ public class AVLTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
 
 	@Override
 	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
-		rebalance(p);
+		rebalance(tree.parent(p)); // p itself is unchanged; heights may shrink from its parent up
+	}
+
+	/** Overrides the TreeMap hook that is called for each node built by bulkLoad. */
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, V>> p) {
+		recomputeHeight(p);
 	}
 }
@@ -2,14 +2,18 @@ package tree;
 
 import interfaces.Entry;
 import org.junit.jupiter.api.Test;
+import utils.MapEntry;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AVLTreeMapTest {
 
@@ -231,4 +235,76 @@ class AVLTreeMapTest {
 		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
 	}
 
+	@Test
+	void testBalancedAfterRandomRemovals() throws IOException {
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		Random rand = new Random(3);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(1000);
+			if (rand.nextBoolean())
+				map.put(k, k);
+			else
+				map.remove(k);
+		}
+		for (var p : map.tree.positions())
+			if (p.getElement() != null)
+				assertTrue(map.isBalanced(p));
+	}
+
+	@Test
+	void testOrderStatistics() throws IOException {
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(5);
+
+		for (int ix = 0; ix < 5000; ix++) {
+			int k = rand.nextInt(1000);
+			if (rand.nextInt(3) == 0) {
+				map.remove(k);
+				expected.remove(k);
+			} else {
+				map.put(k, k);
+				expected.put(k, k);
+			}
+		}
+		List<Integer> keys = new ArrayList<>(expected.keySet());
+		for (int i = 0; i < keys.size(); i++) {
+			assertEquals(keys.get(i), map.select(i).getKey());
+			assertEquals(i, map.rank(keys.get(i)));
+		}
+		for (int k = -1; k <= 1001; k += 13) {
+			assertEquals(expected.headMap(k).size(), map.rank(k));
+			assertEquals(expected.subMap(k, k + 100).size(), map.countRange(k, k + 100));
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> map.select(map.size()));
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		List<Entry<Integer, Integer>> entries = new ArrayList<>();
+		for (int k = 0; k < 5000; k++)
+			entries.add(new MapEntry<>(2 * k, k));
+		AVLTreeMap<Integer, Integer> map = new AVLTreeMap<>();
+		map.bulkLoad(entries);
+		assertEquals(12, map.height(map.tree.root())); // floor(log2 5000), as recorded in the aux field
+		for (var p : map.tree.positions())
+			if (p.getElement() != null)
+				assertTrue(map.isBalanced(p));
+		assertEquals(2500, map.rank(5000));
+		assertEquals(4000, map.select(2000).getKey());
+
+		// the loaded tree keeps rebalancing correctly afterwards
+		Random rand = new Random(1);
+		for (int ix = 0; ix < 5000; ix++) {
+			int k = rand.nextInt(10000);
+			if (rand.nextBoolean())
+				map.put(k, k);
+			else
+				map.remove(k);
+		}
+		for (var p : map.tree.positions())
+			if (p.getElement() != null)
+				assertTrue(map.isBalanced(p));
+	}
 }
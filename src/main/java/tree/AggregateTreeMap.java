@@ -0,0 +1,179 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.NodeType;
+import utils.DefaultComparator;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+
+/**
+ * An AVL tree map in which every node caches the aggregate of the values in
+ * its subtree, combined in key order by a user-supplied associative operator
+ * such as Integer::sum, Math::min or Math::max (counts are available from
+ * countRange). The operator need not be commutative.
+ *
+ * The aggregates live in the summary field of the BalanceableBinaryTree nodes
+ * and are recomputed along the update path after an insertion, deletion or
+ * value replacement, and for the three nodes moved by each restructure.
+ * aggregate(fromKey, toKey) then combines O(log n) cached subtree aggregates
+ * instead of visiting every entry of subMap(fromKey, toKey).
+ *
+ * Null values are treated as the identity of the operator and are skipped.
+ */
+public class AggregateTreeMap<K extends Comparable<K>, V> extends AVLTreeMap<K, V> {
+
+	private final BinaryOperator<V> op;
+
+	/**
+	 * Constructs an empty map using the natural ordering of keys.
+	 *
+	 * @param op associative operator used to combine values
+	 */
+	public AggregateTreeMap(BinaryOperator<V> op) {
+		super(new DefaultComparator<>(), NodeType.SUMMARY);
+		this.op = op;
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param op   associative operator used to combine values
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public AggregateTreeMap(BinaryOperator<V> op, Comparator<K> comp) {
+		super(comp, NodeType.SUMMARY);
+		this.op = op;
+	}
+
+	// combines a and b in that order, treating null as the identity
+	private V combine(V a, V b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		return op.apply(a, b);
+	}
+
+	// aggregate of all values in the subtree rooted at p
+	@SuppressWarnings("unchecked")
+	private V summary(Position<Entry<K, V>> p) {
+		return p.getElement() == null ? null : (V) tree.getSummary(p);
+	}
+
+	private void recomputeSummary(Position<Entry<K, V>> p) {
+		V s = combine(combine(summary(tree.left(p)), p.getElement().getValue()), summary(tree.right(p)));
+		tree.setSummary(p, s);
+	}
+
+	// recomputes the aggregate of p and all its ancestors
+	private void recomputePath(Position<Entry<K, V>> p) {
+		for (; p != null; p = tree.parent(p))
+			recomputeSummary(p);
+	}
+
+	@Override
+	protected Position<Entry<K, V>> restructure(Position<Entry<K, V>> x) throws IOException {
+		Position<Entry<K, V>> b = super.restructure(x);
+		recomputeSummary(tree.left(b));
+		recomputeSummary(tree.right(b));
+		recomputeSummary(b);
+		return b;
+	}
+
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> p) throws IOException {
+		recomputePath(p);
+		super.rebalanceInsert(p);
+	}
+
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
+		recomputePath(tree.parent(p));
+		super.rebalanceDelete(p);
+	}
+
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, V>> p) {
+		super.bulkLoadNode(p);
+		recomputeSummary(p);
+	}
+
+	/** Overrides the TreeMap hook that is called after a value is replaced. */
+	@Override
+	protected void rebalanceAccess(Position<Entry<K, V>> p) throws IOException {
+		recomputePath(p);
+		super.rebalanceAccess(p);
+	}
+
+	/**
+	 * Returns the aggregate of all values in the map.
+	 *
+	 * @return aggregate of all values, or null if the map has no non-null values
+	 */
+	public V aggregate() {
+		return summary(tree.root());
+	}
+
+	/**
+	 * Returns the aggregate of the values whose keys are greater than or equal
+	 * to fromKey and strictly less than toKey, the same range as subMap. Takes
+	 * O(log n) time.
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @return aggregate of the values in the range, or null if there are none
+	 */
+	public V aggregate(K fromKey, K toKey) {
+		// descend to the highest node inside the range, where the two bounds split
+		Position<Entry<K, V>> p = tree.root();
+		while (p.getElement() != null) {
+			K key = p.getElement().getKey();
+			if (compare(key, fromKey) < 0)
+				p = tree.right(p);
+			else if (compare(key, toKey) >= 0)
+				p = tree.left(p);
+			else
+				break;
+		}
+		if (p.getElement() == null)
+			return null;
+
+		// keys >= fromKey in the left subtree, collected right to left
+		V left = null;
+		for (Position<Entry<K, V>> q = tree.left(p); q.getElement() != null; ) {
+			if (compare(q.getElement().getKey(), fromKey) >= 0) {
+				left = combine(combine(q.getElement().getValue(), summary(tree.right(q))), left);
+				q = tree.left(q);
+			} else {
+				q = tree.right(q);
+			}
+		}
+		// keys < toKey in the right subtree, collected left to right
+		V right = null;
+		for (Position<Entry<K, V>> q = tree.right(p); q.getElement() != null; ) {
+			if (compare(q.getElement().getKey(), toKey) < 0) {
+				right = combine(right, combine(summary(tree.left(q)), q.getElement().getValue()));
+				q = tree.right(q);
+			} else {
+				q = tree.left(q);
+			}
+		}
+		return combine(combine(left, p.getElement().getValue()), right);
+	}
+
+	// checks the aggregate of every node against its subtree; for tests
+	boolean isConsistent() {
+		return isConsistent(tree.root());
+	}
+
+	private boolean isConsistent(Position<Entry<K, V>> p) {
+		if (p.getElement() == null)
+			return true;
+		V expected = combine(combine(summary(tree.left(p)), p.getElement().getValue()), summary(tree.right(p)));
+		return Objects.equals(summary(p), expected) && isConsistent(tree.left(p)) && isConsistent(tree.right(p));
+	}
+}
@@ -0,0 +1,93 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+import utils.MapEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AggregateTreeMapTest {
+
+	@Test
+	void testSumMinMax() throws IOException {
+		AggregateTreeMap<Integer, Integer> sum = new AggregateTreeMap<>(Integer::sum);
+		AggregateTreeMap<Integer, Integer> min = new AggregateTreeMap<>(Math::min);
+		AggregateTreeMap<Integer, Integer> max = new AggregateTreeMap<>(Math::max);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+		for (Integer i : arr) {
+			sum.put(i, i * 10);
+			min.put(i, i * 10);
+			max.put(i, i * 10);
+		}
+		assertEquals(2010, sum.aggregate());
+		assertEquals(10 + 20 + 40 + 50 + 120, sum.aggregate(0, 15));
+		assertEquals(50, min.aggregate(5, 100));
+		assertEquals(330, max.aggregate(5, 35));
+		assertNull(sum.aggregate(6, 12));
+		assertNull(sum.aggregate(40, 50));
+
+		sum.put(12, 0); // replacing a value updates the cached aggregates
+		assertEquals(10 + 20 + 40 + 50, sum.aggregate(0, 15));
+		sum.remove(1);
+		assertEquals(20 + 40 + 50, sum.aggregate(0, 15));
+		assertTrue(sum.isConsistent());
+		assertEquals(4, sum.countRange(0, 15));
+	}
+
+	@Test
+	void testNonCommutativeRandomAgainstBruteForce() throws IOException {
+		// string concatenation is associative but not commutative, so this checks the combining order
+		AggregateTreeMap<Integer, String> map = new AggregateTreeMap<>(String::concat);
+		java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 5000; ix++) {
+			int k = rand.nextInt(300);
+			String v = Character.toString('a' + rand.nextInt(26));
+			if (rand.nextInt(3) == 0)
+				assertEquals(expected.remove(k), map.remove(k));
+			else
+				assertEquals(expected.put(k, v), map.put(k, v));
+
+			if (ix % 100 == 0) {
+				assertTrue(map.isConsistent());
+				for (int q = 0; q < 20; q++) {
+					int from = rand.nextInt(320) - 10;
+					int to = from + rand.nextInt(100);
+					StringBuilder sb = new StringBuilder();
+					for (Map.Entry<Integer, String> e : expected.subMap(from, to).entrySet())
+						sb.append(e.getValue());
+					String result = map.aggregate(from, to);
+					assertEquals(sb.toString(), result == null ? "" : result);
+				}
+			}
+		}
+		StringBuilder all = new StringBuilder();
+		for (Entry<Integer, String> e : map.entrySet())
+			all.append(e.getValue());
+		assertEquals(all.toString(), map.aggregate());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		List<Entry<Integer, Integer>> entries = new ArrayList<>();
+		for (int k = 1; k <= 100; k++)
+			entries.add(new MapEntry<>(k, k));
+		AggregateTreeMap<Integer, Integer> sum = new AggregateTreeMap<>(Integer::sum);
+		sum.bulkLoad(entries);
+		assertTrue(sum.isConsistent());
+		assertEquals(5050, sum.aggregate());
+		assertEquals(11 + 12 + 13 + 14, sum.aggregate(11, 15));
+		sum.remove(12);
+		assertEquals(11 + 13 + 14, sum.aggregate(11, 15));
+		assertTrue(sum.isConsistent());
+	}
+}
@@ -0,0 +1,187 @@
+package tree;
+
+import java.util.Arrays;
+
+/**
+ * Index-based AVL node storage shared by the array-backed sorted maps.
+ *
+ * Nodes are addressed by int slots into parallel arrays rather than being
+ * separate heap objects. This class only knows about the shape of the tree
+ * (children and heights); the owning map keeps keys and values in its own
+ * arrays under the same slot numbers and performs the key comparisons.
+ * Removed slots are threaded onto a free list through the left array and are
+ * reused by later insertions, so a map that stays the same size never
+ * allocates.
+ */
+final class ArrayAVLTree {
+
+    /** Slot number used for a missing child (the "null" reference). */
+    static final int NIL = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    int[] left;
+    int[] right;
+    byte[] height; // height of the subtree rooted at a slot; an AVL tree of 2^31 nodes is < 46 high
+
+    int root = NIL;
+    private int size = 0;
+    private int next = 0;      // first slot never handed out
+    private int free = NIL;    // head of the free list, linked through left[]
+
+    ArrayAVLTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ArrayAVLTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new byte[capacity];
+    }
+
+    /** Returns the number of live nodes. */
+    int size() {
+        return size;
+    }
+
+    /** Returns the number of slots currently backed by the arrays. */
+    int capacity() {
+        return left.length;
+    }
+
+    /** Removes every node, keeping the arrays for reuse. */
+    void clear() {
+        root = NIL;
+        size = 0;
+        next = 0;
+        free = NIL;
+    }
+
+    /**
+     * Hands out a slot for a new leaf node. The caller must check
+     * {@link #capacity()} afterwards and grow its key/value arrays to match.
+     *
+     * @return the slot of the new node
+     */
+    int allocate() {
+        int i;
+        if (free != NIL) {
+            i = free;
+            free = left[i];
+        } else {
+            if (next == left.length)
+                grow();
+            i = next++;
+        }
+        left[i] = NIL;
+        right[i] = NIL;
+        height[i] = 1;
+        size++;
+        return i;
+    }
+
+    /** Returns slot i to the free list. The node must already be unlinked. */
+    void release(int i) {
+        left[i] = free;
+        right[i] = NIL;
+        height[i] = 0;
+        free = i;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = left.length + (left.length >> 1) + 1;
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    int height(int i) {
+        return i == NIL ? 0 : height[i];
+    }
+
+    private void recomputeHeight(int i) {
+        height[i] = (byte) (1 + Math.max(height(left[i]), height(right[i])));
+    }
+
+    private int rotateRight(int i) {
+        int l = left[i];
+        left[i] = right[l];
+        right[l] = i;
+        recomputeHeight(i);
+        recomputeHeight(l);
+        return l;
+    }
+
+    private int rotateLeft(int i) {
+        int r = right[i];
+        right[i] = left[r];
+        left[r] = i;
+        recomputeHeight(i);
+        recomputeHeight(r);
+        return r;
+    }
+
+    /**
+     * Recomputes the height of slot i and restores the AVL property there with
+     * a single or double rotation.
+     *
+     * @return the slot now at the root of the subtree
+     */
+    int rebalance(int i) {
+        recomputeHeight(i);
+        int balance = height(left[i]) - height(right[i]);
+        if (balance > 1) {
+            if (height(left[left[i]]) < height(right[left[i]]))
+                left[i] = rotateLeft(left[i]);
+            return rotateRight(i);
+        }
+        if (balance < -1) {
+            if (height(right[right[i]]) < height(left[right[i]]))
+                right[i] = rotateRight(right[i]);
+            return rotateLeft(i);
+        }
+        return i;
+    }
+
+    /** Returns the slot with the least key in the subtree rooted at i. */
+    int min(int i) {
+        while (left[i] != NIL)
+            i = left[i];
+        return i;
+    }
+
+    /** Returns the slot with the greatest key in the subtree rooted at i. */
+    int max(int i) {
+        while (right[i] != NIL)
+            i = right[i];
+        return i;
+    }
+
+    private int detachMin(int i) {
+        if (left[i] == NIL)
+            return right[i];
+        left[i] = detachMin(left[i]);
+        return rebalance(i);
+    }
+
+    /**
+     * Unlinks slot i from the subtree it roots, splicing in its in-order
+     * successor when it has two children. The slot itself is not released.
+     *
+     * @return the slot now at the root of the subtree (or NIL)
+     */
+    int unlink(int i) {
+        int l = left[i];
+        int r = right[i];
+        if (l == NIL)
+            return r;
+        if (r == NIL)
+            return l;
+        int m = min(r);
+        right[m] = detachMin(r);
+        left[m] = l;
+        return rebalance(m);
+    }
+}
@@ -0,0 +1,301 @@
+package tree;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static tree.ArrayAVLTree.NIL;
+
+/**
+ * An AVL sorted map whose nodes are slots in parallel arrays.
+ *
+ * The same interface as {@link AVLTreeMap}, but instead of a BSTNode, a
+ * MapEntry and two sentinel leaves per entry, the tree shape lives in the int
+ * and byte arrays of an {@link ArrayAVLTree} and keys and values in two
+ * Object arrays under the same slot numbers. Descents read consecutive array
+ * cells rather than chasing node objects, and removed slots are recycled
+ * through the free list. Rebalancing happens on the way back up a recursive
+ * descent, so no parent links are stored.
+ */
+public class ArrayAVLTreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V> {
+
+	private final ArrayAVLTree nodes;
+	private Object[] keys;
+	private Object[] values;
+
+	private V replaced; // previous value found by the last put/remove descent
+
+	/** Constructs an empty map. */
+	public ArrayAVLTreeMap() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public ArrayAVLTreeMap(Comparator<K> comp) {
+		super(comp);
+		nodes = new ArrayAVLTree();
+		keys = new Object[nodes.capacity()];
+		values = new Object[nodes.capacity()];
+	}
+
+	/**
+	 * Constructs an empty map with room for the given number of entries before
+	 * its arrays need to grow.
+	 *
+	 * @param initialCapacity expected number of entries
+	 */
+	public ArrayAVLTreeMap(int initialCapacity) {
+		super();
+		nodes = new ArrayAVLTree(initialCapacity);
+		keys = new Object[nodes.capacity()];
+		values = new Object[nodes.capacity()];
+	}
+
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * Returns the slot holding the given key, or -1 if it is absent.
+	 *
+	 * @param key a target key
+	 * @return slot of key, or -1
+	 */
+	protected int treeSearch(K key) {
+		int i = nodes.root;
+		while (i != NIL) {
+			int comp = compare(key, keyAt(i));
+			if (comp == 0)
+				return i;
+			i = comp < 0 ? nodes.left[i] : nodes.right[i];
+		}
+		return NIL;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	public V get(K key) {
+		int i = treeSearch(key);
+		return i == NIL ? null : valueAt(i);
+	}
+
+	/**
+	 * Associates the given value with the given key, returning the previous value
+	 * or null if the key was not present.
+	 */
+	@Override
+	public V put(K key, V value) {
+		replaced = null;
+		nodes.root = insert(nodes.root, key, value);
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	private int insert(int i, K key, V value) {
+		if (i == NIL) {
+			int n = nodes.allocate();
+			if (n >= keys.length) {
+				keys = Arrays.copyOf(keys, nodes.capacity());
+				values = Arrays.copyOf(values, nodes.capacity());
+			}
+			keys[n] = key;
+			values[n] = value;
+			return n;
+		}
+		int comp = compare(key, keyAt(i));
+		if (comp == 0) {
+			replaced = valueAt(i);
+			values[i] = value;
+			return i;
+		}
+		// the child slot is read back only after the call, since an allocation
+		// below may have replaced the node arrays
+		if (comp < 0) {
+			int child = insert(nodes.left[i], key, value);
+			nodes.left[i] = child;
+		} else {
+			int child = insert(nodes.right[i], key, value);
+			nodes.right[i] = child;
+		}
+		return nodes.rebalance(i);
+	}
+
+	/**
+	 * Removes the entry with the specified key, returning its value or null if
+	 * the key was not present.
+	 */
+	@Override
+	public V remove(K key) {
+		replaced = null;
+		nodes.root = delete(nodes.root, key);
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	private int delete(int i, K key) {
+		if (i == NIL)
+			return NIL;
+		int comp = compare(key, keyAt(i));
+		if (comp == 0) {
+			replaced = valueAt(i);
+			int r = nodes.unlink(i);
+			keys[i] = null;
+			values[i] = null;
+			nodes.release(i);
+			return r;
+		}
+		if (comp < 0)
+			nodes.left[i] = delete(nodes.left[i], key);
+		else
+			nodes.right[i] = delete(nodes.right[i], key);
+		return nodes.rebalance(i);
+	}
+
+	/** Removes all entries, keeping the allocated arrays. */
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		nodes.clear();
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyAt(int slot) {
+		return (K) keys[slot];
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int slot) {
+		return (V) values[slot];
+	}
+
+	private int firstSlot() {
+		return nodes.root == NIL ? NIL : nodes.min(nodes.root);
+	}
+
+	private int lastSlot() {
+		return nodes.root == NIL ? NIL : nodes.max(nodes.root);
+	}
+
+	// Returns the slot whose key is nearest to key on the requested side, or NIL.
+	// below selects predecessors rather than successors; inclusive accepts an exact match.
+	private int nearestSlot(K key, boolean below, boolean inclusive) {
+		int best = NIL;
+		int i = nodes.root;
+		while (i != NIL) {
+			int comp = compare(key, keyAt(i));
+			if (comp == 0 && inclusive)
+				return i;
+			if (below ? comp > 0 : comp < 0) {
+				best = i;
+				i = below ? nodes.right[i] : nodes.left[i];
+			} else {
+				i = below ? nodes.left[i] : nodes.right[i];
+			}
+		}
+		return best;
+	}
+
+	private Entry<K, V> entry(int slot) {
+		return slot == NIL ? null : new MapEntry<>(keyAt(slot), valueAt(slot));
+	}
+
+	@Override
+	public Entry<K, V> firstEntry() {
+		return entry(firstSlot());
+	}
+
+	@Override
+	public Entry<K, V> lastEntry() {
+		return entry(lastSlot());
+	}
+
+	@Override
+	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+		return entry(nearestSlot(key, false, true));
+	}
+
+	@Override
+	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+		return entry(nearestSlot(key, true, true));
+	}
+
+	@Override
+	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+		return entry(nearestSlot(key, true, false));
+	}
+
+	@Override
+	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+		return entry(nearestSlot(key, false, false));
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(size());
+		inorder(nodes.root, buffer);
+		return buffer;
+	}
+
+	private void inorder(int i, ArrayList<Entry<K, V>> buffer) {
+		if (i == NIL)
+			return;
+		inorder(nodes.left[i], buffer);
+		buffer.add(entry(i));
+		inorder(nodes.right[i], buffer);
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>();
+		subMapRecurse(fromKey, toKey, nodes.root, buffer);
+		return buffer;
+	}
+
+	// utility to fill subMap buffer recursively (while maintaining order)
+	private void subMapRecurse(K fromKey, K toKey, int i, ArrayList<Entry<K, V>> buffer) {
+		if (i == NIL)
+			return;
+		K key = keyAt(i);
+		if (compare(key, fromKey) >= 0)
+			subMapRecurse(fromKey, toKey, nodes.left[i], buffer);
+		if (compare(key, fromKey) >= 0 && compare(key, toKey) < 0)
+			buffer.add(entry(i));
+		if (compare(key, toKey) < 0)
+			subMapRecurse(fromKey, toKey, nodes.right[i], buffer);
+	}
+
+	@Override
+	public double loadFactor() {
+		return 0;
+	}
+
+	@Override
+	public int numCollisions() {
+		return 0;
+	}
+
+	/** Returns the height of the tree (0 when empty). */
+	public int height() {
+		return nodes.height(nodes.root);
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,97 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArrayAVLTreeMapTest {
+
+	private static ArrayAVLTreeMap<Integer, String> sample() {
+		ArrayAVLTreeMap<Integer, String> map = new ArrayAVLTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testGet() {
+		ArrayAVLTreeMap<Integer, String> map = sample();
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertNull(map.get(-1));
+	}
+
+	@Test
+	void testPutAndRemove() {
+		ArrayAVLTreeMap<Integer, String> map = sample();
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+		assertEquals(12, map.size());
+		assertEquals("26", map.remove(26));
+		assertEquals(11, map.size());
+		assertNull(map.remove(26));
+		map.put(3, "3");
+		assertEquals("[1, 2, 3, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.toString());
+	}
+
+	@Test
+	void testNavigation() {
+		ArrayAVLTreeMap<Integer, String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
+	}
+
+	@Test
+	void testComparator() {
+		ArrayAVLTreeMap<Integer, String> map = new ArrayAVLTreeMap<>(Comparator.<Integer>reverseOrder());
+		for (int i = 0; i < 5; i++) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals("[4, 3, 2, 1, 0]", map.toString());
+		assertEquals(2, map.higherEntry(3).getKey());
+	}
+
+	@Test
+	void testRandomAgainstAVLTreeMap() throws IOException {
+		ArrayAVLTreeMap<Integer, Integer> map = new ArrayAVLTreeMap<>(1);
+		AVLTreeMap<Integer, Integer> expected = new AVLTreeMap<>();
+		Random rand = new Random(2);
+
+		for (int ix = 0; ix < 5000; ix++) {
+			Integer k = rand.nextInt(500);
+			if (rand.nextInt(3) == 0) {
+				map.remove(k);
+				expected.remove(k);
+			} else {
+				assertEquals(expected.get(k), map.put(k, ix));
+				expected.put(k, ix);
+			}
+		}
+		List<Integer> keys = new ArrayList<>();
+		List<Integer> expectedKeys = new ArrayList<>();
+		map.keySet().forEach(keys::add);
+		expected.keySet().forEach(expectedKeys::add);
+		assertEquals(expectedKeys, keys);
+		for (Entry<Integer, Integer> e : expected.entrySet()) {
+			assertEquals(e.getValue(), map.get(e.getKey()));
+		}
+	}
+}
@@ -0,0 +1,543 @@
+package tree;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+/**
+ * An in-memory B+ tree implementation of a sorted map.
+ *
+ * Every node holds up to <code>order</code> keys packed in a sorted array, so a
+ * lookup touches about log_order(n) nodes and does a binary search inside each
+ * instead of following one pointer per comparison. Entries live only in the
+ * leaves, which are linked to their neighbours in key order: ceilingEntry and
+ * its relatives finish with at most one step to an adjacent leaf, and
+ * entrySet and subMap are sequential scans along the leaf chain.
+ *
+ * Inner nodes store separator keys; child i holds the keys less than keys[i]
+ * and child i + 1 those greater than or equal to it. Every node but the root
+ * holds at least order / 2 keys.
+ */
+public class BPlusTreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V> {
+
+	/** Fan-out used by the no-argument constructors. */
+	public static final int DEFAULT_ORDER = 64;
+
+	// ---------------- nested node classes ----------------
+	private static abstract class Node {
+		final Object[] keys;
+		int count;
+
+		// one spare cell lets a node overflow before it is split
+		Node(int order) {
+			keys = new Object[order + 1];
+		}
+	}
+
+	private static final class Leaf extends Node {
+		final Object[] values;
+		Leaf prev;
+		Leaf next;
+
+		Leaf(int order) {
+			super(order);
+			values = new Object[order + 1];
+		}
+	}
+
+	private static final class Inner extends Node {
+		final Node[] children;
+
+		Inner(int order) {
+			super(order);
+			children = new Node[order + 2];
+		}
+	}
+	// ----------- end of nested node classes -----------
+
+	private final int order;      // maximum number of keys in a node
+	private final int minKeys;    // minimum number of keys in a non-root node
+	private Node root;
+	private Leaf head;            // leftmost leaf
+	private int size = 0;
+
+	// results passed back up a put or remove descent
+	private V replaced;
+	private Object splitKey;
+	private Node splitNode;
+
+	/** Constructs an empty map with the default order. */
+	public BPlusTreeMap() {
+		this(DEFAULT_ORDER);
+	}
+
+	/**
+	 * Constructs an empty map with the default order, using the given
+	 * comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public BPlusTreeMap(Comparator<K> comp) {
+		this(DEFAULT_ORDER, comp);
+	}
+
+	/**
+	 * Constructs an empty map whose nodes hold at most the given number of keys.
+	 *
+	 * @param order maximum keys per node (at least 3)
+	 * @throws IllegalArgumentException if order is less than 3
+	 */
+	public BPlusTreeMap(int order) {
+		super();
+		if (order < 3)
+			throw new IllegalArgumentException("order must be at least 3");
+		this.order = order;
+		this.minKeys = order / 2;
+		init();
+	}
+
+	/**
+	 * Constructs an empty map whose nodes hold at most the given number of keys,
+	 * using the given comparator to order keys.
+	 *
+	 * @param order maximum keys per node (at least 3)
+	 * @param comp  comparator defining the order of keys in the map
+	 * @throws IllegalArgumentException if order is less than 3
+	 */
+	public BPlusTreeMap(int order, Comparator<K> comp) {
+		super(comp);
+		if (order < 3)
+			throw new IllegalArgumentException("order must be at least 3");
+		this.order = order;
+		this.minKeys = order / 2;
+		init();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/** Returns the maximum number of keys a node can hold. */
+	public int order() {
+		return order;
+	}
+
+	/** Removes all entries. */
+	public void clear() {
+		init();
+	}
+
+	// empties the map; private so that the constructors do not call an overridable method
+	private void init() {
+		head = new Leaf(order);
+		root = head;
+		size = 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyAt(Node node, int i) {
+		return (K) node.keys[i];
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(Leaf leaf, int i) {
+		return (V) leaf.values[i];
+	}
+
+	// index of the first key in node that is >= key
+	private int lowerBound(Node node, K key) {
+		int lo = 0, hi = node.count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(keyAt(node, mid), key) < 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	// index of the first key in node that is > key
+	private int upperBound(Node node, K key) {
+		int lo = 0, hi = node.count;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(keyAt(node, mid), key) <= 0)
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	// the leaf whose key range covers key
+	private Leaf findLeaf(K key) {
+		Node node = root;
+		while (node instanceof Inner) {
+			Inner inner = (Inner) node;
+			node = inner.children[upperBound(inner, key)];
+		}
+		return (Leaf) node;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	@Override
+	public V get(K key) {
+		Leaf leaf = findLeaf(key);
+		int i = lowerBound(leaf, key);
+		return i < leaf.count && compare(keyAt(leaf, i), key) == 0 ? valueAt(leaf, i) : null;
+	}
+
+	/**
+	 * Associates the given value with the given key, returning the previous value
+	 * or null if the key was not present.
+	 */
+	@Override
+	public V put(K key, V value) {
+		replaced = null;
+		insert(root, key, value);
+		if (splitNode != null) {
+			// the root itself split: grow the tree by one level
+			Inner newRoot = new Inner(order);
+			newRoot.keys[0] = splitKey;
+			newRoot.children[0] = root;
+			newRoot.children[1] = splitNode;
+			newRoot.count = 1;
+			root = newRoot;
+			splitKey = null;
+			splitNode = null;
+		}
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	// inserts below node; an overflowing node is split and its new right
+	// sibling left in splitNode, with the separator for the parent in splitKey
+	private void insert(Node node, K key, V value) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int i = lowerBound(leaf, key);
+			if (i < leaf.count && compare(keyAt(leaf, i), key) == 0) {
+				replaced = valueAt(leaf, i);
+				leaf.values[i] = value;
+				return;
+			}
+			System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.count - i);
+			System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.count - i);
+			leaf.keys[i] = key;
+			leaf.values[i] = value;
+			leaf.count++;
+			size++;
+			if (leaf.count > order)
+				splitLeaf(leaf);
+			return;
+		}
+		Inner inner = (Inner) node;
+		int i = upperBound(inner, key);
+		insert(inner.children[i], key, value);
+		if (splitNode == null)
+			return;
+		System.arraycopy(inner.keys, i, inner.keys, i + 1, inner.count - i);
+		System.arraycopy(inner.children, i + 1, inner.children, i + 2, inner.count - i);
+		inner.keys[i] = splitKey;
+		inner.children[i + 1] = splitNode;
+		inner.count++;
+		splitKey = null;
+		splitNode = null;
+		if (inner.count > order)
+			splitInner(inner);
+	}
+
+	private void splitLeaf(Leaf leaf) {
+		int mid = leaf.count / 2;
+		Leaf right = new Leaf(order);
+		right.count = leaf.count - mid;
+		System.arraycopy(leaf.keys, mid, right.keys, 0, right.count);
+		System.arraycopy(leaf.values, mid, right.values, 0, right.count);
+		clearTail(leaf, mid);
+		right.next = leaf.next;
+		if (right.next != null)
+			right.next.prev = right;
+		right.prev = leaf;
+		leaf.next = right;
+		splitKey = right.keys[0];
+		splitNode = right;
+	}
+
+	private void splitInner(Inner inner) {
+		int mid = inner.count / 2;
+		Inner right = new Inner(order);
+		right.count = inner.count - mid - 1;
+		System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.count);
+		System.arraycopy(inner.children, mid + 1, right.children, 0, right.count + 1);
+		splitKey = inner.keys[mid];
+		splitNode = right;
+		clearTail(inner, mid);
+	}
+
+	// shrinks node to count keys, dropping references held by the cells past them
+	private void clearTail(Node node, int count) {
+		for (int i = count; i < node.count; i++) {
+			node.keys[i] = null;
+			if (node instanceof Leaf)
+				((Leaf) node).values[i] = null;
+			else
+				((Inner) node).children[i + 1] = null;
+		}
+		node.count = count;
+	}
+
+	/**
+	 * Removes the entry with the specified key, returning its value or null if
+	 * the key was not present.
+	 */
+	@Override
+	public V remove(K key) {
+		replaced = null;
+		delete(root, key);
+		if (root instanceof Inner && root.count == 0)
+			root = ((Inner) root).children[0]; // the root's last two children merged
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	private void delete(Node node, K key) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int i = lowerBound(leaf, key);
+			if (i == leaf.count || compare(keyAt(leaf, i), key) != 0)
+				return;
+			replaced = valueAt(leaf, i);
+			System.arraycopy(leaf.keys, i + 1, leaf.keys, i, leaf.count - i - 1);
+			System.arraycopy(leaf.values, i + 1, leaf.values, i, leaf.count - i - 1);
+			leaf.count--;
+			leaf.keys[leaf.count] = null;
+			leaf.values[leaf.count] = null;
+			size--;
+			return;
+		}
+		Inner inner = (Inner) node;
+		int i = upperBound(inner, key);
+		delete(inner.children[i], key);
+		if (inner.children[i].count < minKeys)
+			rebalance(inner, i);
+	}
+
+	// restores the minimum occupancy of parent's child i by borrowing from or
+	// merging with a sibling
+	private void rebalance(Inner parent, int i) {
+		if (i > 0 && parent.children[i - 1].count > minKeys)
+			borrowFromLeft(parent, i);
+		else if (i < parent.count && parent.children[i + 1].count > minKeys)
+			borrowFromRight(parent, i);
+		else if (i > 0)
+			merge(parent, i - 1);
+		else
+			merge(parent, i);
+	}
+
+	private void borrowFromLeft(Inner parent, int i) {
+		Node node = parent.children[i];
+		Node left = parent.children[i - 1];
+		System.arraycopy(node.keys, 0, node.keys, 1, node.count);
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			Leaf from = (Leaf) left;
+			System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+			leaf.keys[0] = from.keys[from.count - 1];
+			leaf.values[0] = from.values[from.count - 1];
+			parent.keys[i - 1] = leaf.keys[0];
+		} else {
+			Inner inner = (Inner) node;
+			Inner from = (Inner) left;
+			System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+			inner.keys[0] = parent.keys[i - 1];
+			inner.children[0] = from.children[from.count];
+			parent.keys[i - 1] = from.keys[from.count - 1];
+		}
+		node.count++;
+		clearTail(left, left.count - 1);
+	}
+
+	private void borrowFromRight(Inner parent, int i) {
+		Node node = parent.children[i];
+		Node right = parent.children[i + 1];
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			Leaf from = (Leaf) right;
+			leaf.keys[leaf.count] = from.keys[0];
+			leaf.values[leaf.count] = from.values[0];
+			System.arraycopy(from.values, 1, from.values, 0, from.count - 1);
+			System.arraycopy(from.keys, 1, from.keys, 0, from.count - 1);
+			parent.keys[i] = from.keys[0];
+		} else {
+			Inner inner = (Inner) node;
+			Inner from = (Inner) right;
+			inner.keys[inner.count] = parent.keys[i];
+			inner.children[inner.count + 1] = from.children[0];
+			parent.keys[i] = from.keys[0];
+			System.arraycopy(from.keys, 1, from.keys, 0, from.count - 1);
+			System.arraycopy(from.children, 1, from.children, 0, from.count);
+		}
+		node.count++;
+		// the last cells of right now duplicate their neighbours; drop them
+		right.keys[right.count - 1] = null;
+		if (right instanceof Leaf)
+			((Leaf) right).values[right.count - 1] = null;
+		else
+			((Inner) right).children[right.count] = null;
+		right.count--;
+	}
+
+	// merges parent's child j + 1 into child j and drops the separator between them
+	private void merge(Inner parent, int j) {
+		Node left = parent.children[j];
+		Node right = parent.children[j + 1];
+		if (left instanceof Leaf) {
+			Leaf l = (Leaf) left;
+			Leaf r = (Leaf) right;
+			System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+			System.arraycopy(r.values, 0, l.values, l.count, r.count);
+			l.count += r.count;
+			l.next = r.next;
+			if (l.next != null)
+				l.next.prev = l;
+		} else {
+			Inner l = (Inner) left;
+			Inner r = (Inner) right;
+			l.keys[l.count] = parent.keys[j];
+			System.arraycopy(r.keys, 0, l.keys, l.count + 1, r.count);
+			System.arraycopy(r.children, 0, l.children, l.count + 1, r.count + 1);
+			l.count += r.count + 1;
+		}
+		System.arraycopy(parent.keys, j + 1, parent.keys, j, parent.count - j - 1);
+		System.arraycopy(parent.children, j + 2, parent.children, j + 1, parent.count - j - 1);
+		parent.count--;
+		parent.keys[parent.count] = null;
+		parent.children[parent.count + 1] = null;
+	}
+
+	private Entry<K, V> entry(Leaf leaf, int i) {
+		return new MapEntry<>(keyAt(leaf, i), valueAt(leaf, i));
+	}
+
+	// entry at index i of leaf, continuing into the next leaf when i is past the end
+	private Entry<K, V> entryFrom(Leaf leaf, int i) {
+		if (i < leaf.count)
+			return entry(leaf, i);
+		return leaf.next == null ? null : entry(leaf.next, 0);
+	}
+
+	// entry at index i of leaf, continuing into the previous leaf when i is negative
+	private Entry<K, V> entryBefore(Leaf leaf, int i) {
+		if (i >= 0)
+			return entry(leaf, i);
+		return leaf.prev == null ? null : entry(leaf.prev, leaf.prev.count - 1);
+	}
+
+	@Override
+	public Entry<K, V> firstEntry() {
+		return size == 0 ? null : entry(head, 0);
+	}
+
+	@Override
+	public Entry<K, V> lastEntry() {
+		if (size == 0)
+			return null;
+		Node node = root;
+		while (node instanceof Inner)
+			node = ((Inner) node).children[node.count];
+		return entry((Leaf) node, node.count - 1);
+	}
+
+	@Override
+	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+		Leaf leaf = findLeaf(key);
+		return entryFrom(leaf, lowerBound(leaf, key));
+	}
+
+	@Override
+	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+		Leaf leaf = findLeaf(key);
+		return entryBefore(leaf, upperBound(leaf, key) - 1);
+	}
+
+	@Override
+	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+		Leaf leaf = findLeaf(key);
+		return entryBefore(leaf, lowerBound(leaf, key) - 1);
+	}
+
+	@Override
+	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+		Leaf leaf = findLeaf(key);
+		return entryFrom(leaf, upperBound(leaf, key));
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> entrySet() {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>(size);
+		for (Leaf leaf = head; leaf != null; leaf = leaf.next)
+			for (int i = 0; i < leaf.count; i++)
+				buffer.add(entry(leaf, i));
+		return buffer;
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+		ArrayList<Entry<K, V>> buffer = new ArrayList<>();
+		Leaf leaf = findLeaf(fromKey);
+		int i = lowerBound(leaf, fromKey);
+		while (leaf != null) {
+			for (; i < leaf.count; i++) {
+				if (compare(keyAt(leaf, i), toKey) >= 0)
+					return buffer;
+				buffer.add(entry(leaf, i));
+			}
+			leaf = leaf.next;
+			i = 0;
+		}
+		return buffer;
+	}
+
+	/**
+	 * Returns the average fraction of leaf cells in use.
+	 *
+	 * @return entries divided by the capacity of all leaves
+	 */
+	@Override
+	public double loadFactor() {
+		int leaves = 0;
+		for (Leaf leaf = head; leaf != null; leaf = leaf.next)
+			leaves++;
+		return (double) size / ((long) leaves * order);
+	}
+
+	@Override
+	public int numCollisions() {
+		return 0;
+	}
+
+	/** Returns the number of levels of the tree (1 when the root is a leaf). */
+	public int height() {
+		int h = 1;
+		for (Node node = root; node instanceof Inner; node = ((Inner) node).children[0])
+			h++;
+		return h;
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,117 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BPlusTreeMapTest {
+
+	private static BPlusTreeMap<Integer, String> sample() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>(3);
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testGet() {
+		BPlusTreeMap<Integer, String> map = sample();
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertNull(map.get(-1));
+		assertTrue(map.height() > 1);
+	}
+
+	@Test
+	void testPutAndRemove() {
+		BPlusTreeMap<Integer, String> map = sample();
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+		assertEquals(12, map.size());
+		assertEquals("26", map.put(26, "twenty-six"));
+		assertEquals(12, map.size());
+		assertEquals("twenty-six", map.remove(26));
+		assertEquals(11, map.size());
+		assertNull(map.remove(26));
+		map.put(3, "3");
+		assertEquals("[1, 2, 3, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.toString());
+	}
+
+	@Test
+	void testNavigation() {
+		BPlusTreeMap<Integer, String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertNull(map.higherEntry(35));
+		assertNull(map.lowerEntry(1));
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
+		assertEquals("[]", map.subMap(36, 40).toString());
+	}
+
+	@Test
+	void testEmptyAndInvalidOrder() {
+		BPlusTreeMap<Integer, String> map = new BPlusTreeMap<>();
+		assertNull(map.firstEntry());
+		assertNull(map.lastEntry());
+		assertNull(map.ceilingEntry(0));
+		assertNull(map.remove(0));
+		assertEquals(0, map.size());
+		assertThrows(IllegalArgumentException.class, () -> new BPlusTreeMap<Integer, String>(2));
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		for (int order : new int[] {3, 4, 16}) {
+			BPlusTreeMap<Integer, Integer> map = new BPlusTreeMap<>(order);
+			java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+			Random rand = new Random(order);
+
+			for (int ix = 0; ix < 20000; ix++) {
+				int k = rand.nextInt(2000);
+				if (rand.nextInt(3) == 0) {
+					assertEquals(expected.remove(k), map.remove(k));
+				} else {
+					assertEquals(expected.put(k, ix), map.put(k, ix));
+				}
+			}
+			assertEquals(expected.size(), map.size());
+
+			List<Integer> keys = new ArrayList<>();
+			map.keySet().forEach(keys::add);
+			assertEquals(new ArrayList<>(expected.keySet()), keys);
+			for (int k = -1; k <= 2001; k += 7) {
+				Entry<Integer, Integer> e = map.floorEntry(k);
+				assertEquals(expected.floorKey(k), e == null ? null : e.getKey());
+				e = map.ceilingEntry(k);
+				assertEquals(expected.ceilingKey(k), e == null ? null : e.getKey());
+				e = map.lowerEntry(k);
+				assertEquals(expected.lowerKey(k), e == null ? null : e.getKey());
+				e = map.higherEntry(k);
+				assertEquals(expected.higherKey(k), e == null ? null : e.getKey());
+			}
+
+			// drain completely so the tree collapses back to a single leaf
+			for (int k : new ArrayList<>(expected.keySet()))
+				assertEquals(expected.remove(k), map.remove(k));
+			assertEquals(0, map.size());
+			assertEquals(1, map.height());
+		}
+	}
+}
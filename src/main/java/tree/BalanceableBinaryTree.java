@@ -7,6 +7,31 @@ import java.io.IOException;
 
 public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 
+    /**
+     * The fields every node of a tree carries besides aux. Plain nodes stay
+     * small; only maps that count subtree sizes or keep a summary pay for them.
+     */
+    public enum NodeType {
+        /** aux only */
+        PLAIN,
+        /** aux and the subtree size */
+        SIZED,
+        /** aux, the subtree size and an object computed over the subtree */
+        SUMMARY,
+        /** aux, the subtree size and a long computed over the subtree */
+        LONG_SUMMARY
+    }
+
+    private final NodeType nodeType;
+
+    public BalanceableBinaryTree() {
+        this(NodeType.PLAIN);
+    }
+
+    public BalanceableBinaryTree(NodeType nodeType) {
+        this.nodeType = nodeType;
+    }
+
     // positional-based methods related to aux field
     public int getAux(Position<Entry<K, V>> p) {
         BSTNode<Entry<K, V>> node = (BSTNode<Entry<K, V>>)p;
@@ -18,11 +43,44 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
         node.setAux(value);
     }
 
+    // positional-based methods related to the subtree size field, for all but PLAIN nodes
+    public int getSize(Position<Entry<K, V>> p) {
+        return ((SizedNode<Entry<K, V>>) p).size;
+    }
+
+    public void setSize(Position<Entry<K, V>> p, int value) {
+        ((SizedNode<Entry<K, V>>) p).size = value;
+    }
+
+    // positional-based methods related to the summary field of SUMMARY nodes
+    public Object getSummary(Position<Entry<K, V>> p) {
+        return ((SummaryNode<Entry<K, V>>) p).summary;
+    }
+
+    public void setSummary(Position<Entry<K, V>> p, Object value) {
+        ((SummaryNode<Entry<K, V>>) p).summary = value;
+    }
+
+    // positional-based methods related to the summary field of LONG_SUMMARY nodes
+    public long getLongSummary(Position<Entry<K, V>> p) {
+        return ((LongSummaryNode<Entry<K, V>>) p).summary;
+    }
+
+    public void setLongSummary(Position<Entry<K, V>> p, long value) {
+        ((LongSummaryNode<Entry<K, V>>) p).summary = value;
+    }
+
+    // recomputes the subtree size of an internal node from its children
+    private void recomputeSize(BSTNode<Entry<K, V>> node) {
+        ((SizedNode<Entry<K, V>>) node).size = 1 + ((SizedNode<Entry<K, V>>) node.getLeft()).size
+                + ((SizedNode<Entry<K, V>>) node.getRight()).size;
+    }
+
     public Position<Entry<K,V>> addRoot(Entry<K,V> e) throws IllegalStateException {
         if (root != null) {
             throw new IllegalStateException("Tree already has a root");
         }
-        root = new BSTNode<>(e,null,null,null);
+        root = createNode(e,null,null,null);
         size++;
         return root;
     }
@@ -40,10 +98,10 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
     public Position<Entry<K,V>> addLeft(Position<Entry<K,V>> p, Entry<K,V> e) throws IllegalArgumentException {
         if(left(p) != null){
             //throw new IllegalArgumentException("Position already has value.");
-            ((BSTNode<Entry<K,V>>) p).setLeft(new BSTNode<Entry<K,V>>(e, (BSTNode<Entry<K,V>>) p,null,null));
+            ((BSTNode<Entry<K,V>>) p).setLeft(createNode(e, (BSTNode<Entry<K,V>>) p,null,null));
             size++;
         }else{
-            ((BSTNode<Entry<K,V>>) p).setLeft(new BSTNode<Entry<K,V>>(e, (BSTNode<Entry<K,V>>) p,null,null));
+            ((BSTNode<Entry<K,V>>) p).setLeft(createNode(e, (BSTNode<Entry<K,V>>) p,null,null));
             size++;
         }
         return left(p);
@@ -62,10 +120,10 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
     public Position<Entry<K,V>> addRight(Position<Entry<K,V>> p, Entry<K,V> e) throws IllegalArgumentException {
         if(right(p) != null){
             //throw new IllegalArgumentException("Position already has value.");
-            ((BSTNode<Entry<K,V>>) p).setRight(new BSTNode<Entry<K,V>>(e, (BSTNode<Entry<K,V>>) p,null,null));
+            ((BSTNode<Entry<K,V>>) p).setRight(createNode(e, (BSTNode<Entry<K,V>>) p,null,null));
             size++;
         }else{
-            ((BSTNode<Entry<K,V>>) p).setRight(new BSTNode<Entry<K,V>>(e, (BSTNode<Entry<K,V>>) p,null,null));
+            ((BSTNode<Entry<K,V>>) p).setRight(createNode(e, (BSTNode<Entry<K,V>>) p,null,null));
             size++;
         }
         return right(p);
@@ -73,7 +131,16 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
 
 
     protected BSTNode<Entry<K, V>> createNode(Entry<K, V> e, BSTNode<Entry<K, V>> parent, BSTNode<Entry<K, V>> left, BSTNode<Entry<K, V>> right) {
-        return new BSTNode<>(e, parent, left, right);
+        switch (nodeType) {
+            case SIZED:
+                return new SizedNode<>(e, parent, left, right);
+            case SUMMARY:
+                return new SummaryNode<>(e, parent, left, right);
+            case LONG_SUMMARY:
+                return new LongSummaryNode<>(e, parent, left, right);
+            default:
+                return new BSTNode<>(e, parent, left, right);
+        }
     }
 
     /**
@@ -133,6 +200,11 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
             z.setRight(x);
         }
         y.setParent(x);
+        if (nodeType != NodeType.PLAIN) {
+            // y is now x's child: fix its subtree size first
+            recomputeSize(y);
+            recomputeSize(x);
+        }
     }
 
     /**
@@ -209,4 +281,31 @@ public class BalanceableBinaryTree<K, V> extends LinkedBinaryTree<Entry<K, V>> {
             return s;
         }
     }
+
+    // a node of a map that counts subtree sizes
+    static class SizedNode<E> extends BSTNode<E> {
+        int size = 0; // entries in this subtree
+
+        SizedNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
+            super(e, parent, leftChild, rightChild);
+        }
+    }
+
+    // a sized node that also holds a value computed over its subtree (e.g. an aggregate)
+    static class SummaryNode<E> extends SizedNode<E> {
+        Object summary;
+
+        SummaryNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
+            super(e, parent, leftChild, rightChild);
+        }
+    }
+
+    // a sized node whose subtree value is a primitive long (e.g. a max endpoint), so it is never boxed
+    static class LongSummaryNode<E> extends SizedNode<E> {
+        long summary;
+
+        LongSummaryNode(E e, Node<E> parent, Node<E> leftChild, Node<E> rightChild) {
+            super(e, parent, leftChild, rightChild);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,385 @@
+package tree;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * An index-addressed sequence stored in an implicit treap.
+ *
+ * Like Treap, every node gets a random priority and the tree is heap-ordered
+ * by priority, which keeps its expected depth logarithmic. Unlike Treap there
+ * are no keys: the position of an element is implied by the in-order
+ * traversal, and every node counts the elements in its subtree so that an
+ * index can be found by descending. All edits are built from two primitives,
+ * split (cut the sequence at an index) and merge (concatenate two sequences),
+ * so insertAt, removeAt, splitAt, concat and reverse all run in O(log n)
+ * expected time. reverse only marks the root of the reversed range; the mark
+ * is pushed one level down whenever a descent passes the node.
+ *
+ * The nodes are plain linked objects rather than BalanceableBinaryTree
+ * positions, because split and merge hand whole subtrees between trees and do
+ * not need the sentinel leaves used by TreeMap.
+ */
+public class ImplicitTreap<E> implements Iterable<E> {
+
+	// ---------------- nested Node class ----------------
+	private static class Node<E> {
+		E element;
+		final int priority;
+		int size = 1;
+		boolean reversed; // children still have to be swapped, and reversed in turn
+		Node<E> left, right;
+
+		Node(E element, int priority) {
+			this.element = element;
+			this.priority = priority;
+		}
+	} // ----------- end of nested Node class -----------
+
+	final Random rand;
+	private Node<E> root;
+
+	// results of the last split
+	private Node<E> low, high;
+
+	/** Constructs an empty sequence. */
+	public ImplicitTreap() {
+		this(new Random());
+	}
+
+	/**
+	 * Constructs an empty sequence whose priorities are drawn from a seeded
+	 * generator, so that the tree shape is reproducible.
+	 *
+	 * @param seed seed of the priority generator
+	 */
+	public ImplicitTreap(int seed) {
+		this(new Random(seed));
+	}
+
+	/** Constructs an empty sequence sharing the given priority generator. */
+	protected ImplicitTreap(Random rand) {
+		this.rand = rand;
+	}
+
+	/**
+	 * Constructs a sequence holding count elements, produced by elementAt(0) to
+	 * elementAt(count - 1), in time linear in their number.
+	 */
+	protected ImplicitTreap(int count, IntFunction<? extends E> elementAt) {
+		this(new Random());
+		root = build(count, elementAt);
+	}
+
+	/**
+	 * Returns a new empty sequence of the same class that shares this sequence's
+	 * priority generator; used by splitAt. Subclasses override it to return
+	 * their own type.
+	 */
+	protected ImplicitTreap<E> newEmpty() {
+		return new ImplicitTreap<>(rand);
+	}
+
+	/** Returns the number of elements in the sequence. */
+	public int size() {
+		return size(root);
+	}
+
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	private static int size(Node<?> t) {
+		return t == null ? 0 : t.size;
+	}
+
+	private static void update(Node<?> t) {
+		t.size = 1 + size(t.left) + size(t.right);
+	}
+
+	// applies a pending reversal of t to its children
+	private static <E> void push(Node<E> t) {
+		if (t.reversed) {
+			Node<E> tmp = t.left;
+			t.left = t.right;
+			t.right = tmp;
+			if (t.left != null)
+				t.left.reversed = !t.left.reversed;
+			if (t.right != null)
+				t.right.reversed = !t.right.reversed;
+			t.reversed = false;
+		}
+	}
+
+	// splits t into low (its first k elements) and high (the rest)
+	private void split(Node<E> t, int k) {
+		if (t == null) {
+			low = high = null;
+			return;
+		}
+		push(t);
+		if (size(t.left) >= k) {
+			split(t.left, k);
+			t.left = high;
+			update(t);
+			high = t;
+		} else {
+			split(t.right, k - size(t.left) - 1);
+			t.right = low;
+			update(t);
+			low = t;
+		}
+	}
+
+	// concatenates the sequences a and b, returning the new root
+	private Node<E> merge(Node<E> a, Node<E> b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		if (a.priority > b.priority) {
+			push(a);
+			a.right = merge(a.right, b);
+			update(a);
+			return a;
+		} else {
+			push(b);
+			b.left = merge(a, b.left);
+			update(b);
+			return b;
+		}
+	}
+
+	private void checkIndex(int i, int n) {
+		if (i < 0 || i >= n)
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+	}
+
+	private Node<E> nodeAt(int i) {
+		checkIndex(i, size());
+		Node<E> t = root;
+		while (true) {
+			push(t);
+			int leftSize = size(t.left);
+			if (i == leftSize)
+				return t;
+			if (i < leftSize) {
+				t = t.left;
+			} else {
+				i -= leftSize + 1;
+				t = t.right;
+			}
+		}
+	}
+
+	/**
+	 * Returns the element at index i.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size())
+	 */
+	public E get(int i) {
+		return nodeAt(i).element;
+	}
+
+	/**
+	 * Replaces the element at index i and returns the previous one.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size())
+	 */
+	public E set(int i, E x) {
+		Node<E> t = nodeAt(i);
+		E old = t.element;
+		t.element = x;
+		return old;
+	}
+
+	/**
+	 * Inserts x so that it becomes the element at index i, shifting the later
+	 * elements up by one.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size()]
+	 */
+	public void insertAt(int i, E x) {
+		checkIndex(i, size() + 1);
+		split(root, i);
+		Node<E> a = low, c = high;
+		root = merge(merge(a, new Node<>(x, rand.nextInt())), c);
+	}
+
+	/** Appends x to the end of the sequence. */
+	public void add(E x) {
+		root = merge(root, new Node<>(x, rand.nextInt()));
+	}
+
+	/**
+	 * Inserts all elements of the list at index i, in order. The inserted
+	 * elements are first built into a treap in time linear in their number.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size()]
+	 */
+	public void insertAll(int i, List<? extends E> list) {
+		insertAll(i, list.size(), list::get);
+	}
+
+	/**
+	 * Inserts count elements, produced by elementAt(0) to elementAt(count - 1),
+	 * at index i.
+	 */
+	protected void insertAll(int i, int count, IntFunction<? extends E> elementAt) {
+		checkIndex(i, size() + 1);
+		Node<E> middle = build(count, elementAt);
+		split(root, i);
+		Node<E> a = low, c = high;
+		root = merge(merge(a, middle), c);
+	}
+
+	// builds a treap holding the elements in order, keeping the right spine on a stack
+	private Node<E> build(int count, IntFunction<? extends E> elementAt) {
+		ArrayDeque<Node<E>> spine = new ArrayDeque<>();
+		for (int j = 0; j < count; j++) {
+			Node<E> t = new Node<>(elementAt.apply(j), rand.nextInt());
+			Node<E> last = null;
+			while (!spine.isEmpty() && spine.peek().priority < t.priority) {
+				last = spine.pop();
+				update(last); // its subtree is complete once it leaves the spine
+			}
+			t.left = last;
+			if (!spine.isEmpty())
+				spine.peek().right = t;
+			spine.push(t);
+		}
+		Node<E> top = null;
+		while (!spine.isEmpty()) {
+			top = spine.pop();
+			update(top);
+		}
+		return top;
+	}
+
+	/**
+	 * Removes and returns the element at index i, shifting the later elements
+	 * down by one.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size())
+	 */
+	public E removeAt(int i) {
+		checkIndex(i, size());
+		split(root, i);
+		Node<E> a = low;
+		split(high, 1);
+		Node<E> removed = low, c = high;
+		root = merge(a, c);
+		low = high = null; // do not keep the removed node reachable
+		return removed.element;
+	}
+
+	/**
+	 * Removes the elements from index from inclusive to index to exclusive.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+	 */
+	public void removeRange(int from, int to) {
+		checkRange(from, to);
+		split(root, to);
+		Node<E> c = high;
+		split(low, from);
+		root = merge(low, c);
+		low = high = null; // do not keep the removed nodes reachable
+	}
+
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > size() || from > to)
+			throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), Size: " + size());
+	}
+
+	/**
+	 * Cuts the sequence at index i: this sequence keeps the elements before i
+	 * and the elements from i on are moved to the returned sequence.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not in [0, size()]
+	 */
+	public ImplicitTreap<E> splitAt(int i) {
+		checkIndex(i, size() + 1);
+		split(root, i);
+		ImplicitTreap<E> rest = newEmpty();
+		root = low;
+		rest.root = high;
+		return rest;
+	}
+
+	/**
+	 * Appends all elements of other to the end of this sequence, leaving other
+	 * empty.
+	 */
+	public void concat(ImplicitTreap<E> other) {
+		if (other == this)
+			throw new IllegalArgumentException("Cannot concatenate a sequence with itself");
+		root = merge(root, other.root);
+		other.root = null;
+	}
+
+	/**
+	 * Reverses the order of the elements from index from inclusive to index to
+	 * exclusive.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within [0, size()]
+	 */
+	public void reverse(int from, int to) {
+		checkRange(from, to);
+		split(root, to);
+		Node<E> c = high;
+		split(low, from);
+		Node<E> a = low, b = high;
+		if (b != null)
+			b.reversed = !b.reversed;
+		root = merge(merge(a, b), c);
+	}
+
+	/** Returns an iterator over the elements in index order. */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private final ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+
+			{
+				pushLeft(root);
+			}
+
+			private void pushLeft(Node<E> t) {
+				while (t != null) {
+					push(t);
+					stack.push(t);
+					t = t.left;
+				}
+			}
+
+			public boolean hasNext() {
+				return !stack.isEmpty();
+			}
+
+			public E next() {
+				if (stack.isEmpty())
+					throw new NoSuchElementException();
+				Node<E> t = stack.pop();
+				pushLeft(t.right);
+				return t.element;
+			}
+		};
+	}
+
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		boolean first = true;
+		for (E e : this) {
+			if (!first)
+				sb.append(", ");
+			first = false;
+			sb.append(e);
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,124 @@
+package tree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImplicitTreapTest {
+
+	private static <E> List<E> toList(ImplicitTreap<E> seq) {
+		List<E> list = new ArrayList<>();
+		for (E e : seq)
+			list.add(e);
+		return list;
+	}
+
+	@Test
+	void testEditing() {
+		ImplicitTreap<Integer> seq = new ImplicitTreap<>(1);
+		for (int i = 0; i < 10; i++)
+			seq.add(i);
+		seq.insertAt(0, -1);
+		seq.insertAt(5, 100);
+		assertEquals("[-1, 0, 1, 2, 3, 100, 4, 5, 6, 7, 8, 9]", seq.toString());
+		assertEquals(100, seq.removeAt(5));
+		assertEquals(-1, seq.removeAt(0));
+		seq.reverse(2, 7);
+		assertEquals("[0, 1, 6, 5, 4, 3, 2, 7, 8, 9]", seq.toString());
+		assertEquals(6, seq.get(2));
+
+		ImplicitTreap<Integer> tail = seq.splitAt(4);
+		assertEquals("[0, 1, 6, 5]", seq.toString());
+		assertEquals("[4, 3, 2, 7, 8, 9]", tail.toString());
+		tail.concat(seq);
+		assertEquals("[4, 3, 2, 7, 8, 9, 0, 1, 6, 5]", tail.toString());
+		assertTrue(seq.isEmpty());
+
+		tail.insertAll(3, Arrays.asList(10, 11, 12));
+		tail.removeRange(0, 2);
+		assertEquals("[2, 10, 11, 12, 7, 8, 9, 0, 1, 6, 5]", tail.toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> tail.get(11));
+		assertThrows(IndexOutOfBoundsException.class, () -> tail.insertAt(12, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> tail.reverse(3, 2));
+	}
+
+	@Test
+	void testRandomAgainstArrayList() {
+		ImplicitTreap<Integer> seq = new ImplicitTreap<>(1);
+		List<Integer> expected = new ArrayList<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int n = expected.size();
+			int i = rand.nextInt(n + 1);
+			int j = i + rand.nextInt(n - i + 1);
+			switch (rand.nextInt(6)) {
+				case 0:
+				case 1:
+					seq.insertAt(i, ix);
+					expected.add(i, ix);
+					break;
+				case 2:
+					if (i < n)
+						assertEquals(expected.remove(i), seq.removeAt(i));
+					break;
+				case 3:
+					seq.reverse(i, j);
+					Collections.reverse(expected.subList(i, j));
+					break;
+				case 4:
+					if (i < n)
+						assertEquals(expected.get(i), seq.get(i));
+					break;
+				default:
+					ImplicitTreap<Integer> rest = seq.splitAt(i);
+					assertEquals(expected.subList(0, i), toList(seq));
+					seq.concat(rest);
+			}
+			assertEquals(expected.size(), seq.size());
+		}
+		assertEquals(expected, toList(seq));
+	}
+
+	@Test
+	void testRope() {
+		Rope rope = new Rope("hello world");
+		rope.insert(5, ",");
+		rope.append("!");
+		assertEquals("hello, world!", rope.toString());
+		assertEquals('w', rope.charAt(7));
+		assertEquals(13, rope.length());
+		assertEquals("world", rope.subSequence(7, 12).toString());
+		assertEquals("", rope.subSequence(13, 13).toString());
+		assertEquals("hello, world!", rope.subSequence(0, 13).toString());
+		assertEquals("hello, world!", rope.toString()); // copying leaves the rope as it was
+
+		Rope tail = rope.splitAt(7);
+		assertEquals("hello, ", rope.toString());
+		assertEquals("world!", tail.toString());
+		rope.delete(5, 7);
+		rope.concat(tail);
+		rope.reverse(0, 5);
+		assertEquals("ollehworld!", rope.toString());
+		assertEquals("hwo", rope.subSequence(4, 7).toString());
+		assertEquals("ollehworld!", rope.toString());
+	}
+
+	@Test
+	void testToStringKeepsEmptyElements() {
+		ImplicitTreap<String> seq = new ImplicitTreap<>(1);
+		seq.add("");
+		seq.add("a");
+		seq.add("");
+		assertEquals("[, a, ]", seq.toString());
+		assertEquals("[]", new ImplicitTreap<String>().toString());
+	}
+}
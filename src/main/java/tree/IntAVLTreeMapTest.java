@@ -0,0 +1,134 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntAVLTreeMapTest {
+
+	private static IntAVLTreeMap<String> sample() {
+		IntAVLTreeMap<String> map = new IntAVLTreeMap<>();
+		int[] arr = new int[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(int i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testGet() {
+		IntAVLTreeMap<String> map = sample();
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertNull(map.get(-1));
+	}
+
+	@Test
+	void testPut() {
+		IntAVLTreeMap<String> map = sample();
+		assertEquals(12, map.size());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.toString());
+		assertEquals("15", map.put(15, "fifteen"));
+		assertEquals("fifteen", map.get(15));
+		assertEquals(12, map.size());
+	}
+
+	@Test
+	void testRemove() {
+		IntAVLTreeMap<String> map = sample();
+		assertEquals("26", map.remove(26));
+		assertNull(map.remove(26));
+		assertEquals(11, map.size());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.toString());
+	}
+
+	@Test
+	void testNavigation() {
+		IntAVLTreeMap<String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertNull(map.higherEntry(35));
+		assertNull(map.lowerEntry(1));
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
+	}
+
+	@Test
+	void testSlots() {
+		IntAVLTreeMap<String> map = sample();
+		int slot = map.ceilingSlot(13);
+		assertEquals(15, map.keyAt(slot));
+		assertEquals("15", map.valueAt(slot));
+		assertEquals(-1, map.higherSlot(35));
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() {
+		IntAVLTreeMap<Integer> map = new IntAVLTreeMap<>(4);
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(2000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, (Integer) ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertTrue(map.height() <= 1.45 * (Math.log(map.size() + 2) / Math.log(2)));
+
+		List<Integer> keys = new ArrayList<>();
+		map.keySet().forEach(keys::add);
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+		for (int k = -1; k <= 2001; k += 7) {
+			Entry<Integer, Integer> e = map.floorEntry(k);
+			assertEquals(expected.floorKey(k), e == null ? null : e.getKey());
+			e = map.higherEntry(k);
+			assertEquals(expected.higherKey(k), e == null ? null : e.getKey());
+		}
+	}
+
+	@Test
+	void testLongVariant() {
+		LongAVLTreeMap<String> map = new LongAVLTreeMap<>();
+		map.put(5_000_000_000L, "big");
+		map.put(-1L, "neg");
+		map.put(7L, "seven");
+		assertEquals("big", map.get(5_000_000_000L));
+		assertEquals(7L, map.ceilingEntry(0L).getKey());
+		assertEquals("[-1, 7, 5000000000]", map.toString());
+		assertEquals("seven", map.remove(7L));
+		assertEquals(2, map.size());
+	}
+
+	@Test
+	void testIntIntVariant() {
+		IntIntAVLTreeMap map = new IntIntAVLTreeMap(4, -1);
+		assertEquals(-1, map.put(3, 30));
+		assertEquals(30, map.put(3, 31));
+		map.put(1, 10);
+		map.put(2, 20);
+		assertEquals(31, map.get(3));
+		assertEquals(-1, map.get(4));
+		assertNull(map.get((Integer) 4));
+		assertEquals(20, map.remove((Integer) 2));
+		assertNull(map.remove((Integer) 2));
+		assertEquals("[1, 3]", map.toString());
+	}
+}
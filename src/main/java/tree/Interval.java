@@ -0,0 +1,63 @@
+package tree;
+
+/**
+ * A closed interval [start, end] of long values, such as a time range.
+ *
+ * Intervals are ordered by start and then by end, which is the key order used
+ * by {@link IntervalTreeMap}.
+ */
+public final class Interval implements Comparable<Interval> {
+
+	private final long start;
+	private final long end;
+
+	/**
+	 * Constructs the interval [start, end].
+	 *
+	 * @param start first value in the interval
+	 * @param end   last value in the interval
+	 * @throws IllegalArgumentException if end is less than start
+	 */
+	public Interval(long start, long end) {
+		if (end < start)
+			throw new IllegalArgumentException("end " + end + " is before start " + start);
+		this.start = start;
+		this.end = end;
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	/** Returns true if this interval and [from, to] share at least one value. */
+	public boolean overlaps(long from, long to) {
+		return start <= to && end >= from;
+	}
+
+	@Override
+	public int compareTo(Interval other) {
+		int comp = Long.compare(start, other.start);
+		return comp != 0 ? comp : Long.compare(end, other.end);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Interval))
+			return false;
+		Interval other = (Interval) o;
+		return start == other.start && end == other.end;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(start) * 31 + Long.hashCode(end);
+	}
+
+	public String toString() {
+		return "[" + start + ", " + end + "]";
+	}
+}
@@ -0,0 +1,175 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.NodeType;
+import utils.DefaultComparator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An interval tree: an AVL tree map keyed by {@link Interval} in which every
+ * node is augmented with the greatest end point in its subtree.
+ *
+ * The augmentation lives in the primitive summary field of LONG_SUMMARY
+ * nodes of the BalanceableBinaryTree, so it is never boxed. It is recomputed
+ * along the update path after an insertion or deletion, and for the three
+ * nodes moved by each restructure, so it costs O(log n) per update on top of
+ * the AVL rebalancing.
+ *
+ * overlapping and stabbing walk the tree in key order and skip every subtree
+ * whose greatest end point is before the query, and stop at the first start
+ * point after it, so they only visit nodes on the paths to reported intervals.
+ * Results are produced lazily by the returned iterator, without building a
+ * list; the map must not be modified while such an iteration is in progress.
+ */
+public class IntervalTreeMap<V> extends AVLTreeMap<Interval, V> {
+
+	/** Constructs an empty interval map. */
+	public IntervalTreeMap() {
+		super(new DefaultComparator<>(), NodeType.LONG_SUMMARY);
+	}
+
+	// greatest end point in the subtree rooted at p
+	private long maxEnd(Position<Entry<Interval, V>> p) {
+		return p.getElement() == null ? Long.MIN_VALUE : tree.getLongSummary(p);
+	}
+
+	private void recomputeMaxEnd(Position<Entry<Interval, V>> p) {
+		long max = Math.max(p.getElement().getKey().getEnd(), Math.max(maxEnd(tree.left(p)), maxEnd(tree.right(p))));
+		tree.setLongSummary(p, max);
+	}
+
+	// recomputes the max end point of p and all its ancestors
+	private void recomputePath(Position<Entry<Interval, V>> p) {
+		for (; p != null; p = tree.parent(p))
+			recomputeMaxEnd(p);
+	}
+
+	@Override
+	protected Position<Entry<Interval, V>> restructure(Position<Entry<Interval, V>> x) throws IOException {
+		Position<Entry<Interval, V>> b = super.restructure(x);
+		// only the three restructured nodes have new subtrees; b's depends on the other two
+		recomputeMaxEnd(tree.left(b));
+		recomputeMaxEnd(tree.right(b));
+		recomputeMaxEnd(b);
+		return b;
+	}
+
+	@Override
+	protected void rebalanceInsert(Position<Entry<Interval, V>> p) throws IOException {
+		recomputePath(p);
+		super.rebalanceInsert(p);
+	}
+
+	@Override
+	protected void rebalanceDelete(Position<Entry<Interval, V>> p) throws IOException {
+		recomputePath(tree.parent(p));
+		super.rebalanceDelete(p);
+	}
+
+	@Override
+	protected void bulkLoadNode(Position<Entry<Interval, V>> p) {
+		super.bulkLoadNode(p);
+		recomputeMaxEnd(p);
+	}
+
+	/**
+	 * Returns the greatest end point of all intervals in the map.
+	 *
+	 * @return greatest end point, or Long.MIN_VALUE if the map is empty
+	 */
+	public long maxEnd() {
+		return maxEnd(tree.root());
+	}
+
+	/**
+	 * Returns the entries whose intervals share at least one value with
+	 * [from, to], in key order. The entries are found as the iteration proceeds.
+	 *
+	 * @param from first value of the query range
+	 * @param to   last value of the query range
+	 * @return lazily evaluated entries overlapping the range
+	 */
+	public Iterable<Entry<Interval, V>> overlapping(long from, long to) {
+		return () -> new OverlapIterator(from, to);
+	}
+
+	/**
+	 * Returns the entries whose intervals contain the given point, in key order.
+	 * The entries are found as the iteration proceeds.
+	 *
+	 * @param point a query value
+	 * @return lazily evaluated entries containing the point
+	 */
+	public Iterable<Entry<Interval, V>> stabbing(long point) {
+		return overlapping(point, point);
+	}
+
+	// ---------------- nested OverlapIterator class ----------------
+	private class OverlapIterator implements Iterator<Entry<Interval, V>> {
+		private final long from;
+		private final long to;
+		private final ArrayDeque<Position<Entry<Interval, V>>> stack = new ArrayDeque<>();
+		private Entry<Interval, V> next;
+
+		OverlapIterator(long from, long to) {
+			this.from = from;
+			this.to = to;
+			pushLeft(tree.root());
+			advance();
+		}
+
+		// descends the left spine of p, skipping subtrees that end before from
+		private void pushLeft(Position<Entry<Interval, V>> p) {
+			while (p.getElement() != null && maxEnd(p) >= from) {
+				stack.push(p);
+				p = tree.left(p);
+			}
+		}
+
+		private void advance() {
+			next = null;
+			while (!stack.isEmpty()) {
+				Position<Entry<Interval, V>> p = stack.pop();
+				Interval interval = p.getElement().getKey();
+				if (interval.getStart() > to) { // every later interval starts after the range
+					stack.clear();
+					return;
+				}
+				pushLeft(tree.right(p));
+				if (interval.getEnd() >= from) {
+					next = p.getElement();
+					return;
+				}
+			}
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Entry<Interval, V> next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			Entry<Interval, V> e = next;
+			advance();
+			return e;
+		}
+	} // ----------- end of nested OverlapIterator class -----------
+
+	// checks the max end point of every node against its subtree; for tests
+	boolean isConsistent() {
+		return isConsistent(tree.root());
+	}
+
+	private boolean isConsistent(Position<Entry<Interval, V>> p) {
+		if (p.getElement() == null)
+			return true;
+		long expected = Math.max(p.getElement().getKey().getEnd(), Math.max(maxEnd(tree.left(p)), maxEnd(tree.right(p))));
+		return maxEnd(p) == expected && isConsistent(tree.left(p)) && isConsistent(tree.right(p));
+	}
+}
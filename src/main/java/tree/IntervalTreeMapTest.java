@@ -0,0 +1,83 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeMapTest {
+
+	private static List<Interval> keys(Iterable<Entry<Interval, String>> entries) {
+		List<Interval> result = new ArrayList<>();
+		for (Entry<Interval, String> e : entries)
+			result.add(e.getKey());
+		return result;
+	}
+
+	@Test
+	void testStabbingAndOverlap() throws IOException {
+		IntervalTreeMap<String> map = new IntervalTreeMap<>();
+		long[][] arr = {{15, 20}, {10, 30}, {17, 19}, {5, 20}, {12, 15}, {30, 40}};
+		for (long[] a : arr)
+			map.put(new Interval(a[0], a[1]), a[0] + "-" + a[1]);
+		assertTrue(map.isConsistent());
+		assertEquals(40, map.maxEnd());
+
+		assertEquals("[[5, 20], [10, 30], [12, 15], [15, 20]]", keys(map.stabbing(15)).toString());
+		assertEquals("[[10, 30], [30, 40]]", keys(map.stabbing(30)).toString());
+		assertEquals("[]", keys(map.stabbing(41)).toString());
+		assertEquals("[]", keys(map.stabbing(4)).toString());
+		assertEquals("[[5, 20], [10, 30], [15, 20], [17, 19]]", keys(map.overlapping(16, 18)).toString());
+
+		map.remove(new Interval(30, 40));
+		assertTrue(map.isConsistent());
+		assertEquals(30, map.maxEnd());
+		assertEquals("[[10, 30]]", keys(map.stabbing(30)).toString());
+	}
+
+	@Test
+	void testInvalidInterval() {
+		assertThrows(IllegalArgumentException.class, () -> new Interval(3, 2));
+		assertTrue(new Interval(2, 2).overlaps(2, 2));
+		assertFalse(new Interval(2, 3).overlaps(4, 5));
+	}
+
+	@Test
+	void testRandomAgainstBruteForce() throws IOException {
+		IntervalTreeMap<String> map = new IntervalTreeMap<>();
+		java.util.TreeMap<Interval, String> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 5000; ix++) {
+			long start = rand.nextInt(1000);
+			Interval interval = new Interval(start, start + rand.nextInt(50));
+			if (rand.nextInt(3) == 0)
+				assertEquals(expected.remove(interval), map.remove(interval));
+			else
+				assertEquals(expected.put(interval, "v" + ix), map.put(interval, "v" + ix));
+
+			if (ix % 100 == 0) {
+				assertTrue(map.isConsistent());
+				for (int q = 0; q < 20; q++) {
+					long from = rand.nextInt(1100) - 50;
+					long to = from + rand.nextInt(30);
+					List<Interval> brute = new ArrayList<>();
+					for (Interval i : expected.keySet())
+						if (i.overlaps(from, to))
+							brute.add(i);
+					assertEquals(brute, keys(map.overlapping(from, to)));
+				}
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertTrue(map.isConsistent());
+	}
+}
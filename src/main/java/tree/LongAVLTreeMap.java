@@ -0,0 +1,355 @@
+package tree;
+
+import interfaces.Entry;
+import utils.MapEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static tree.ArrayAVLTree.NIL;
+
+/**
+ * An AVL sorted map specialised for primitive long keys.
+ *
+ * Keys live in a long[] and values in an Object[] addressed by the slots of an
+ * {@link ArrayAVLTree}, so an entry costs no key box, no MapEntry and no node
+ * object. The primitive methods (get(long), put(long, V), ceilingSlot(long), ...)
+ * never allocate once the arrays have grown to size. The boxed SortedMap
+ * methods are kept for compatibility with the other maps and create a
+ * MapEntry only for the entries they return.
+ */
+public class LongAVLTreeMap<V> extends AbstractSortedMap<Long, V> {
+
+	private final ArrayAVLTree nodes;
+	private long[] keys;
+	private Object[] values;
+
+	private V replaced; // previous value found by the last put/remove descent
+
+	/** Constructs an empty map. */
+	public LongAVLTreeMap() {
+		this(16);
+	}
+
+	/**
+	 * Constructs an empty map with room for the given number of entries before
+	 * its arrays need to grow.
+	 *
+	 * @param initialCapacity expected number of entries
+	 */
+	public LongAVLTreeMap(int initialCapacity) {
+		super();
+		nodes = new ArrayAVLTree(initialCapacity);
+		keys = new long[nodes.capacity()];
+		values = new Object[nodes.capacity()];
+	}
+
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+	// primitive API
+
+	/**
+	 * Returns the slot holding the given key, or -1 if it is absent.
+	 *
+	 * @param key a target key
+	 * @return slot of key, or -1
+	 */
+	protected int search(long key) {
+		int i = nodes.root;
+		while (i != NIL) {
+			long k = keys[i];
+			if (key == k)
+				return i;
+			i = key < k ? nodes.left[i] : nodes.right[i];
+		}
+		return NIL;
+	}
+
+	public boolean containsKey(long key) {
+		return search(key) != NIL;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists.
+	 *
+	 * @param key the key whose associated value is to be returned
+	 * @return the associated value, or null if no such entry exists
+	 */
+	public V get(long key) {
+		int i = search(key);
+		return i == NIL ? null : valueAt(i);
+	}
+
+	/**
+	 * Associates the given value with the given key, returning the previous value
+	 * or null if the key was not present.
+	 */
+	public V put(long key, V value) {
+		replaced = null;
+		nodes.root = insert(nodes.root, key, value);
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	private int insert(int i, long key, V value) {
+		if (i == NIL) {
+			int n = nodes.allocate();
+			if (n >= keys.length) {
+				keys = Arrays.copyOf(keys, nodes.capacity());
+				values = Arrays.copyOf(values, nodes.capacity());
+			}
+			keys[n] = key;
+			values[n] = value;
+			return n;
+		}
+		long k = keys[i];
+		if (key == k) {
+			replaced = valueAt(i);
+			values[i] = value;
+			return i;
+		}
+		// the child slot is read back only after the call, since an allocation
+		// below may have replaced the node arrays
+		if (key < k) {
+			int child = insert(nodes.left[i], key, value);
+			nodes.left[i] = child;
+		} else {
+			int child = insert(nodes.right[i], key, value);
+			nodes.right[i] = child;
+		}
+		return nodes.rebalance(i);
+	}
+
+	/**
+	 * Removes the entry with the specified key, returning its value or null if
+	 * the key was not present.
+	 */
+	public V remove(long key) {
+		replaced = null;
+		nodes.root = delete(nodes.root, key);
+		V old = replaced;
+		replaced = null;
+		return old;
+	}
+
+	private int delete(int i, long key) {
+		if (i == NIL)
+			return NIL;
+		long k = keys[i];
+		if (key == k) {
+			replaced = valueAt(i);
+			int r = nodes.unlink(i);
+			values[i] = null;
+			nodes.release(i);
+			return r;
+		}
+		if (key < k)
+			nodes.left[i] = delete(nodes.left[i], key);
+		else
+			nodes.right[i] = delete(nodes.right[i], key);
+		return nodes.rebalance(i);
+	}
+
+	/** Removes all entries, keeping the allocated arrays. */
+	public void clear() {
+		Arrays.fill(values, null);
+		nodes.clear();
+	}
+
+	/** Returns the key stored at a slot returned by one of the slot methods. */
+	public long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/** Returns the value stored at a slot returned by one of the slot methods. */
+	@SuppressWarnings("unchecked")
+	public V valueAt(int slot) {
+		return (V) values[slot];
+	}
+
+	/** Returns the slot with the least key, or -1 if the map is empty. */
+	public int firstSlot() {
+		return nodes.root == NIL ? NIL : nodes.min(nodes.root);
+	}
+
+	/** Returns the slot with the greatest key, or -1 if the map is empty. */
+	public int lastSlot() {
+		return nodes.root == NIL ? NIL : nodes.max(nodes.root);
+	}
+
+	/** Returns the slot with least key greater than or equal to key, or -1. */
+	public int ceilingSlot(long key) {
+		int best = NIL;
+		int i = nodes.root;
+		while (i != NIL) {
+			long k = keys[i];
+			if (key == k)
+				return i;
+			if (key < k) {
+				best = i;
+				i = nodes.left[i];
+			} else {
+				i = nodes.right[i];
+			}
+		}
+		return best;
+	}
+
+	/** Returns the slot with greatest key less than or equal to key, or -1. */
+	public int floorSlot(long key) {
+		int best = NIL;
+		int i = nodes.root;
+		while (i != NIL) {
+			long k = keys[i];
+			if (key == k)
+				return i;
+			if (key > k) {
+				best = i;
+				i = nodes.right[i];
+			} else {
+				i = nodes.left[i];
+			}
+		}
+		return best;
+	}
+
+	/** Returns the slot with greatest key strictly less than key, or -1. */
+	public int lowerSlot(long key) {
+		int best = NIL;
+		int i = nodes.root;
+		while (i != NIL) {
+			if (keys[i] < key) {
+				best = i;
+				i = nodes.right[i];
+			} else {
+				i = nodes.left[i];
+			}
+		}
+		return best;
+	}
+
+	/** Returns the slot with least key strictly greater than key, or -1. */
+	public int higherSlot(long key) {
+		int best = NIL;
+		int i = nodes.root;
+		while (i != NIL) {
+			if (keys[i] > key) {
+				best = i;
+				i = nodes.left[i];
+			} else {
+				i = nodes.right[i];
+			}
+		}
+		return best;
+	}
+
+	// boxed SortedMap API
+
+	private Entry<Long, V> entry(int slot) {
+		return slot == NIL ? null : new MapEntry<>(keys[slot], valueAt(slot));
+	}
+
+	@Override
+	public V get(Long key) {
+		return get(key.longValue());
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put(key.longValue(), value);
+	}
+
+	@Override
+	public V remove(Long key) {
+		return remove(key.longValue());
+	}
+
+	@Override
+	public Entry<Long, V> firstEntry() {
+		return entry(firstSlot());
+	}
+
+	@Override
+	public Entry<Long, V> lastEntry() {
+		return entry(lastSlot());
+	}
+
+	@Override
+	public Entry<Long, V> ceilingEntry(Long key) throws IllegalArgumentException {
+		return entry(ceilingSlot(key));
+	}
+
+	@Override
+	public Entry<Long, V> floorEntry(Long key) throws IllegalArgumentException {
+		return entry(floorSlot(key));
+	}
+
+	@Override
+	public Entry<Long, V> lowerEntry(Long key) throws IllegalArgumentException {
+		return entry(lowerSlot(key));
+	}
+
+	@Override
+	public Entry<Long, V> higherEntry(Long key) throws IllegalArgumentException {
+		return entry(higherSlot(key));
+	}
+
+	@Override
+	public Iterable<Entry<Long, V>> entrySet() {
+		ArrayList<Entry<Long, V>> buffer = new ArrayList<>(size());
+		inorder(nodes.root, buffer);
+		return buffer;
+	}
+
+	private void inorder(int i, ArrayList<Entry<Long, V>> buffer) {
+		if (i == NIL)
+			return;
+		inorder(nodes.left[i], buffer);
+		buffer.add(entry(i));
+		inorder(nodes.right[i], buffer);
+	}
+
+	@Override
+	public Iterable<Entry<Long, V>> subMap(Long fromKey, Long toKey) throws IllegalArgumentException {
+		ArrayList<Entry<Long, V>> buffer = new ArrayList<>();
+		subMapRecurse(fromKey, toKey, nodes.root, buffer);
+		return buffer;
+	}
+
+	// utility to fill subMap buffer recursively (while maintaining order)
+	private void subMapRecurse(long fromKey, long toKey, int i, ArrayList<Entry<Long, V>> buffer) {
+		if (i == NIL)
+			return;
+		long k = keys[i];
+		if (k >= fromKey)
+			subMapRecurse(fromKey, toKey, nodes.left[i], buffer);
+		if (k >= fromKey && k < toKey)
+			buffer.add(entry(i));
+		if (k < toKey)
+			subMapRecurse(fromKey, toKey, nodes.right[i], buffer);
+	}
+
+	@Override
+	public double loadFactor() {
+		return 0;
+	}
+
+	@Override
+	public int numCollisions() {
+		return 0;
+	}
+
+	/** Returns the height of the tree (0 when empty). */
+	public int height() {
+		return nodes.height(nodes.root);
+	}
+
+	public String toString() {
+		return entrySet().toString();
+	}
+}
@@ -0,0 +1,249 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.BSTNode;
+import tree.BalanceableBinaryTree.NodeType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * A read-only sorted map whose tree shape minimises the expected number of
+ * comparisons of a successful search, given how often each key is read.
+ *
+ * Maps are built from a populated TreeMap (such as an AVLTreeMap) and a
+ * function giving the access count of every key. Up to KNUTH_LIMIT entries,
+ * the exactly optimal tree is found with Knuth's O(n^2) dynamic program; above
+ * it, Mehlhorn's approximation picks as root of every key range the key that
+ * best balances the weight of the two sides, which costs O(n log n) and is
+ * within a small additive constant of the optimum. Keys read equally often
+ * (including never) are split evenly, so they stay at logarithmic depth.
+ *
+ * The map is a TreeMap with counted subtree sizes, so all lookups, navigation
+ * and order statistics work as usual; put and remove are not supported.
+ */
+public class OptimalTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	/** Largest number of entries for which the exact dynamic program is used. */
+	public static final int KNUTH_LIMIT = 1000;
+
+	private final long[] weights; // access count of every entry, in key order
+	private final ToLongFunction<? super K> frequency;
+
+	private OptimalTreeMap(TreeMap<K, V> source, ToLongFunction<? super K> frequency) {
+		super(source.comparator(), NodeType.SIZED);
+		this.frequency = frequency;
+		ArrayList<Entry<K, V>> entries = new ArrayList<>();
+		for (Entry<K, V> e : source.entrySet())
+			entries.add(e);
+		weights = new long[entries.size()];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = frequency.applyAsLong(entries.get(i).getKey());
+			if (weights[i] < 0)
+				throw new IllegalArgumentException("negative frequency for key " + entries.get(i).getKey());
+		}
+		int[][] roots = entries.size() <= KNUTH_LIMIT ? knuthRoots(weights) : null;
+		link(entries, roots);
+	}
+
+	/**
+	 * Builds a read-only map holding the entries of source, shaped for the given
+	 * access counts.
+	 *
+	 * @param source    map whose entries are copied; it is not modified
+	 * @param frequency number of times each key is expected to be read
+	 * @return the weighted map
+	 * @throws IllegalArgumentException if a frequency is negative
+	 */
+	public static <K extends Comparable<K>, V> OptimalTreeMap<K, V> build(TreeMap<K, V> source,
+																		  ToLongFunction<? super K> frequency) {
+		return new OptimalTreeMap<>(source, frequency);
+	}
+
+	// root[i][j] = optimal root of the keys in [i, j), by Knuth's monotone-root dynamic program
+	private static int[][] knuthRoots(long[] w) {
+		int n = w.length;
+		long[] prefix = new long[n + 1];
+		for (int i = 0; i < n; i++)
+			prefix[i + 1] = prefix[i] + w[i];
+		long[][] cost = new long[n + 1][n + 1]; // cost of [i, j) in weighted comparisons
+		// among optimal trees, the smallest sum of unweighted depths, so ties (such as keys
+		// never read) are split evenly; this is the same as adding a tiny weight to every key
+		int[][] depths = new int[n + 1][n + 1];
+		int[][] root = new int[n + 1][n + 1];
+		for (int i = 0; i < n; i++) {
+			cost[i][i + 1] = w[i];
+			depths[i][i + 1] = 1;
+			root[i][i + 1] = i;
+		}
+		for (int len = 2; len <= n; len++) {
+			for (int i = 0; i + len <= n; i++) {
+				int j = i + len;
+				long best = Long.MAX_VALUE;
+				int bestDepths = Integer.MAX_VALUE;
+				int bestRoot = i;
+				// the optimal root only moves right as the range grows
+				for (int r = root[i][j - 1]; r <= root[i + 1][j]; r++) {
+					long c = cost[i][r] + cost[r + 1][j];
+					int d = depths[i][r] + depths[r + 1][j];
+					if (c < best || (c == best && d < bestDepths)) {
+						best = c;
+						bestDepths = d;
+						bestRoot = r;
+					}
+				}
+				cost[i][j] = best + prefix[j] - prefix[i];
+				depths[i][j] = bestDepths + len;
+				root[i][j] = bestRoot;
+			}
+		}
+		return root;
+	}
+
+	// Mehlhorn's rule: the root of [lo, hi) that best balances the weights on its two sides
+	private static int bisectionRoot(long[] prefix, int lo, int hi) {
+		if (prefix[hi] == prefix[lo])
+			return (lo + hi) >>> 1; // no weight to balance: split evenly
+		// the imbalance of root r is prefix[r] + prefix[r + 1] - prefix[lo] - prefix[hi], nondecreasing in r
+		long target = prefix[lo] + prefix[hi];
+		int a = lo, b = hi - 1;
+		while (a < b) {
+			int mid = (a + b) >>> 1;
+			if (prefix[mid] + prefix[mid + 1] < target)
+				a = mid + 1;
+			else
+				b = mid;
+		}
+		if (a > lo && target - (prefix[a - 1] + prefix[a]) < prefix[a] + prefix[a + 1] - target)
+			return a - 1;
+		return a;
+	}
+
+	// links the entries into the chosen shape, iteratively since weighted trees can be deep
+	private void link(ArrayList<Entry<K, V>> entries, int[][] roots) {
+		int n = entries.size();
+		long[] prefix = new long[n + 1];
+		for (int i = 0; i < n; i++)
+			prefix[i + 1] = prefix[i] + weights[i];
+
+		BSTNode<Entry<K, V>> rootNode = tree.createNode(null, null, null, null);
+		ArrayDeque<int[]> ranges = new ArrayDeque<>(); // lo, hi of a subtree still to be built
+		ArrayDeque<BSTNode<Entry<K, V>>> nodes = new ArrayDeque<>(); // the sentinel standing in for it
+		ranges.push(new int[] {0, n});
+		nodes.push(rootNode);
+		while (!ranges.isEmpty()) {
+			int[] range = ranges.pop();
+			BSTNode<Entry<K, V>> node = nodes.pop();
+			int lo = range[0], hi = range[1];
+			if (lo == hi)
+				continue; // stays a sentinel leaf
+			int r = roots != null ? roots[lo][hi] : bisectionRoot(prefix, lo, hi);
+			node.setElement(entries.get(r));
+			tree.setSize(node, hi - lo);
+			BSTNode<Entry<K, V>> left = tree.createNode(null, null, null, null);
+			BSTNode<Entry<K, V>> right = tree.createNode(null, null, null, null);
+			tree.relink(node, left, true);
+			tree.relink(node, right, false);
+			ranges.push(new int[] {lo, r});
+			nodes.push(left);
+			ranges.push(new int[] {r + 1, hi});
+			nodes.push(right);
+		}
+		tree.setRoot(rootNode);
+		tree.size = 2 * n + 1; // entries plus their sentinel leaves
+	}
+
+	/**
+	 * Not supported: the map is read-only.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException("OptimalTreeMap is read-only");
+	}
+
+	/**
+	 * Not supported: the map is read-only.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public V remove(K key) {
+		throw new UnsupportedOperationException("OptimalTreeMap is read-only");
+	}
+
+	/**
+	 * Not supported: the map is read-only.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void bulkLoad(List<? extends Entry<K, V>> sortedEntries) {
+		throw new UnsupportedOperationException("OptimalTreeMap is read-only");
+	}
+
+	/**
+	 * Returns the expected number of key comparisons of a successful search in
+	 * this map, for the access counts it was built with.
+	 */
+	public double expectedSearchCost() {
+		return expectedSearchCost(this, frequency);
+	}
+
+	/**
+	 * Returns the expected number of key comparisons of a successful search in
+	 * the given map, when each key is read as often as frequency says: the sum of
+	 * frequency times (depth + 1) over all keys, divided by the total frequency.
+	 *
+	 * @param map       any map built on the TreeMap layout, such as an AVLTreeMap
+	 * @param frequency number of times each key is expected to be read
+	 * @return expected comparisons per search, or 0 if no key is ever read
+	 */
+	public static <K extends Comparable<K>> double expectedSearchCost(TreeMap<K, ?> map,
+																	  ToLongFunction<? super K> frequency) {
+		return weightedCost(map.tree, frequency);
+	}
+
+	// sums frequency * (depth + 1) over the tree with an explicit stack of (node, depth)
+	private static <K, W> double weightedCost(BalanceableBinaryTree<K, W> tree, ToLongFunction<? super K> frequency) {
+		double total = 0, weighted = 0;
+		ArrayDeque<Position<Entry<K, W>>> stack = new ArrayDeque<>();
+		ArrayDeque<Integer> depths = new ArrayDeque<>();
+		stack.push(tree.root());
+		depths.push(1);
+		while (!stack.isEmpty()) {
+			Position<Entry<K, W>> p = stack.pop();
+			int depth = depths.pop();
+			if (p.getElement() == null)
+				continue;
+			long f = frequency.applyAsLong(p.getElement().getKey());
+			total += f;
+			weighted += (double) f * depth;
+			stack.push(tree.left(p));
+			depths.push(depth + 1);
+			stack.push(tree.right(p));
+			depths.push(depth + 1);
+		}
+		return total == 0 ? 0 : weighted / total;
+	}
+
+	/**
+	 * Returns a one-line report comparing the expected search cost of this map
+	 * with that of the given map under the same access counts, e.g. the
+	 * AVLTreeMap it was built from.
+	 *
+	 * @param current map to compare against
+	 * @return a human-readable cost comparison
+	 */
+	public String costReport(TreeMap<K, ?> current) {
+		double optimal = expectedSearchCost();
+		double before = expectedSearchCost(current, frequency);
+		return String.format("%s over %d keys: %.3f expected comparisons per search vs %.3f for %s (%.1f%% fewer)",
+				size() <= KNUTH_LIMIT ? "optimal (Knuth)" : "weight-balanced (Mehlhorn)", size(), optimal, before,
+				current.getClass().getSimpleName(), before == 0 ? 0 : 100 * (before - optimal) / before);
+	}
+}
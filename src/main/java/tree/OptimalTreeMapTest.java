@@ -0,0 +1,117 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimalTreeMapTest {
+
+	// exhaustive optimum of sum w * depth over the keys [lo, hi)
+	private static long bruteForceCost(long[] w, int lo, int hi) {
+		if (lo >= hi)
+			return 0;
+		long best = Long.MAX_VALUE, total = 0;
+		for (int i = lo; i < hi; i++)
+			total += w[i];
+		for (int r = lo; r < hi; r++)
+			best = Math.min(best, bruteForceCost(w, lo, r) + bruteForceCost(w, r + 1, hi));
+		return best + total;
+	}
+
+	@Test
+	void testKnuthIsOptimal() throws IOException {
+		Random rand = new Random(1);
+		for (int trial = 0; trial < 50; trial++) {
+			int n = 1 + rand.nextInt(9);
+			AVLTreeMap<Integer, String> source = new AVLTreeMap<>();
+			Map<Integer, Long> counts = new HashMap<>();
+			long[] w = new long[n];
+			long total = 0;
+			for (int i = 0; i < n; i++) {
+				source.put(i, "v" + i);
+				w[i] = rand.nextInt(4) == 0 ? 0 : rand.nextInt(100);
+				counts.put(i, w[i]);
+				total += w[i];
+			}
+			OptimalTreeMap<Integer, String> map = OptimalTreeMap.build(source, counts::get);
+			double expected = total == 0 ? 0 : (double) bruteForceCost(w, 0, n) / total;
+			assertEquals(expected, map.expectedSearchCost(), 1e-9);
+			assertTrue(map.expectedSearchCost() <= OptimalTreeMap.expectedSearchCost(source, counts::get) + 1e-9);
+		}
+
+		// keys that are never read stay at logarithmic depth in the exact tree too
+		int n = OptimalTreeMap.KNUTH_LIMIT;
+		AVLTreeMap<Integer, Integer> source = new AVLTreeMap<>();
+		for (int k = 0; k < n; k++)
+			source.put(k, k);
+		OptimalTreeMap<Integer, Integer> cold = OptimalTreeMap.build(source, k -> 0);
+		assertEquals(9, cold.tree.height(cold.tree.root())); // a complete tree: ceil(log2(n + 1)) = 10 levels
+		cold = OptimalTreeMap.build(source, k -> k == 500 ? 1 : 0);
+		assertEquals(500, cold.tree.root().getElement().getKey());
+		assertTrue(cold.tree.height(cold.tree.root()) <= 10);
+		cold = OptimalTreeMap.build(source, k -> k < 10 ? 100 : 0);
+		assertTrue(cold.expectedSearchCost() < 4);
+		assertTrue(cold.tree.height(cold.tree.root()) <= 20);
+	}
+
+	@Test
+	void testLookupsAndReadOnly() throws IOException {
+		AVLTreeMap<Integer, String> source = new AVLTreeMap<>();
+		for (int k = 0; k < 100; k++)
+			source.put(k * 2, "v" + k);
+		OptimalTreeMap<Integer, String> map = OptimalTreeMap.build(source, k -> k == 42 ? 1000 : 1);
+		assertEquals(42, map.tree.root().getElement().getKey());
+		assertEquals(100, map.size());
+		assertEquals("v21", map.get(42));
+		assertNull(map.get(43));
+		assertEquals(44, map.higherEntry(42).getKey());
+		assertEquals(21, map.rank(42));
+		assertEquals(60, map.select(30).getKey());
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, String> e : map.entrySet())
+			keys.add(e.getKey());
+		assertEquals(100, keys.size());
+		for (int i = 0; i < keys.size(); i++)
+			assertEquals(2 * i, keys.get(i));
+		assertEquals(100, source.size()); // the source is untouched
+		assertThrows(UnsupportedOperationException.class, () -> map.put(1, "x"));
+		assertThrows(UnsupportedOperationException.class, () -> map.remove(42));
+		assertThrows(IllegalArgumentException.class, () -> OptimalTreeMap.build(source, k -> -1));
+	}
+
+	@Test
+	void testMehlhornOnSkewedAccesses() throws IOException {
+		int n = 50000;
+		AVLTreeMap<Integer, Integer> source = new AVLTreeMap<>();
+		for (int k = 0; k < n; k++)
+			source.put(k, k);
+		// Zipf-like counts, with the hottest keys scattered over the key space
+		long[] counts = new long[n];
+		for (int rank = 1; rank <= n; rank++)
+			counts[(int) ((rank * 7919L) % n)] = 1_000_000 / rank;
+		OptimalTreeMap<Integer, Integer> map = OptimalTreeMap.build(source, k -> counts[k]);
+		double optimal = map.expectedSearchCost();
+		double avl = OptimalTreeMap.expectedSearchCost(source, k -> counts[k]);
+		assertTrue(optimal < avl - 3, map.costReport(source));
+		assertTrue(map.costReport(source).startsWith("weight-balanced (Mehlhorn) over 50000 keys"));
+		assertTrue(map.tree.height(map.tree.root()) < 60);
+		for (int k = 0; k < n; k += 997)
+			assertEquals(k, map.get(k));
+
+		// keys that are never read still stay at logarithmic depth
+		OptimalTreeMap<Integer, Integer> cold = OptimalTreeMap.build(source, k -> k == 0 ? 1 : 0);
+		assertEquals(1.0, cold.expectedSearchCost(), 1e-9);
+		assertTrue(cold.tree.height(cold.tree.root()) < 20);
+	}
+}
@@ -0,0 +1,250 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import utils.DefaultComparator;
+import tree.BalanceableBinaryTree.NodeType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A treap whose values are caller-supplied priorities, answering priority
+ * search queries over key ranges: the entry of highest priority in a range,
+ * and all entries in a range whose priority exceeds a threshold.
+ *
+ * The shape of the tree is still kept balanced by random priorities, stored in
+ * the aux field of the BalanceableBinaryTree, so caller priorities that are
+ * correlated with the keys (such as deadlines of jobs ordered by start time)
+ * cannot make it degenerate. Instead every node's summary field refers to the
+ * entry of highest caller priority in its subtree. The highest entry of a key
+ * range is then found from the O(log n) subtrees covering the range, and a
+ * threshold query skips every subtree whose best entry is not above the
+ * threshold, visiting O(log n + k log(n/k)) nodes to report k entries.
+ *
+ * "Highest" is defined by a priority comparator, so passing
+ * Comparator.reverseOrder() makes the queries return the smallest values,
+ * e.g. the earliest deadline.
+ */
+public class PrioritySearchTreap<K extends Comparable<K>, P> extends TreeMap<K, P> {
+
+	private final Comparator<P> priorityOrder;
+	private final Random rand = new Random();
+
+	/** Constructs an empty map ordering keys and priorities naturally. */
+	public PrioritySearchTreap() {
+		this(new DefaultComparator<>());
+	}
+
+	/**
+	 * Constructs an empty map ordering keys naturally.
+	 *
+	 * @param priorityOrder order in which greater priorities are higher
+	 */
+	public PrioritySearchTreap(Comparator<P> priorityOrder) {
+		super(new DefaultComparator<>(), NodeType.SUMMARY);
+		this.priorityOrder = priorityOrder;
+	}
+
+	/**
+	 * Constructs an empty map.
+	 *
+	 * @param comp          comparator defining the order of keys in the map
+	 * @param priorityOrder order in which greater priorities are higher
+	 */
+	public PrioritySearchTreap(Comparator<K> comp, Comparator<P> priorityOrder) {
+		super(comp, NodeType.SUMMARY);
+		this.priorityOrder = priorityOrder;
+	}
+
+	// entry of highest priority in the subtree rooted at p, or null for a sentinel
+	@SuppressWarnings("unchecked")
+	private Entry<K, P> best(Position<Entry<K, P>> p) {
+		return p.getElement() == null ? null : (Entry<K, P>) tree.getSummary(p);
+	}
+
+	// the higher of two entries, either of which may be null
+	private Entry<K, P> higher(Entry<K, P> a, Entry<K, P> b) {
+		if (a == null)
+			return b;
+		if (b == null)
+			return a;
+		return priorityOrder.compare(a.getValue(), b.getValue()) >= 0 ? a : b;
+	}
+
+	private void recomputeBest(Position<Entry<K, P>> p) {
+		tree.setSummary(p, higher(p.getElement(), higher(best(tree.left(p)), best(tree.right(p)))));
+	}
+
+	// recomputes the best entry of p and all its ancestors
+	private void recomputePath(Position<Entry<K, P>> p) {
+		for (; p != null; p = tree.parent(p))
+			recomputeBest(p);
+	}
+
+	/** Rotates p above its parent and fixes the best entries of both. */
+	@Override
+	protected void rotate(Position<Entry<K, P>> p) {
+		Position<Entry<K, P>> parent = tree.parent(p);
+		super.rotate(p);
+		recomputeBest(parent); // now the child of p
+		recomputeBest(p);
+	}
+
+	// random balancing priority of p
+	private int weight(Position<Entry<K, P>> p) {
+		return tree.getAux(p);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, P>> p) throws IOException {
+		tree.setAux(p, rand.nextInt());
+		recomputePath(p);
+		while (!tree.isRoot(p) && weight(p) > weight(tree.parent(p)))
+			rotate(p);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, P>> p) throws IOException {
+		recomputePath(tree.parent(p));
+	}
+
+	/** Overrides the TreeMap hook that is called after a priority is replaced. */
+	@Override
+	protected void rebalanceAccess(Position<Entry<K, P>> p) throws IOException {
+		recomputePath(p);
+	}
+
+	/**
+	 * Fills this empty map with the given entries in O(n) time: the entries get
+	 * random weights and are linked as their Cartesian tree, and the sizes and
+	 * best entries are then filled in bottom-up.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	@Override
+	public void bulkLoad(List<? extends Entry<K, P>> sortedEntries) {
+		bulkLoadCartesian(sortedEntries, () -> rand.nextInt());
+	}
+
+	/** Overrides the TreeMap hook that is called for each node built by bulkLoad. */
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, P>> p) {
+		recomputeBest(p);
+	}
+
+	/**
+	 * Removes the entry with the specified key. The node is first rotated down
+	 * below its heavier child until it has a sentinel child, so that the entry
+	 * never moves to another node and the random weights stay heap-ordered.
+	 */
+	@Override
+	public P remove(K key) throws IllegalArgumentException, IOException {
+		Position<Entry<K, P>> p = treeSearch(tree.root(), key);
+		if (p.getElement() == null)
+			return null;
+		while (tree.left(p).getElement() != null && tree.right(p).getElement() != null) {
+			Position<Entry<K, P>> left = tree.left(p), right = tree.right(p);
+			rotate(weight(left) > weight(right) ? left : right);
+		}
+		return super.remove(key);
+	}
+
+	/**
+	 * Returns the entry of highest priority among the keys greater than or equal
+	 * to fromKey and strictly less than toKey, in O(log n) expected time. Ties
+	 * are broken arbitrarily.
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @return entry of highest priority in the range, or null if it is empty
+	 */
+	public Entry<K, P> maxPriorityEntry(K fromKey, K toKey) {
+		// descend to the highest node inside the range, where the two bounds split
+		Position<Entry<K, P>> p = tree.root();
+		while (p.getElement() != null) {
+			K key = p.getElement().getKey();
+			if (compare(key, fromKey) < 0)
+				p = tree.right(p);
+			else if (compare(key, toKey) >= 0)
+				p = tree.left(p);
+			else
+				break;
+		}
+		if (p.getElement() == null)
+			return null;
+
+		Entry<K, P> result = p.getElement();
+		for (Position<Entry<K, P>> q = tree.left(p); q.getElement() != null; ) {
+			if (compare(q.getElement().getKey(), fromKey) >= 0) {
+				result = higher(result, higher(q.getElement(), best(tree.right(q))));
+				q = tree.left(q);
+			} else {
+				q = tree.right(q);
+			}
+		}
+		for (Position<Entry<K, P>> q = tree.right(p); q.getElement() != null; ) {
+			if (compare(q.getElement().getKey(), toKey) < 0) {
+				result = higher(result, higher(best(tree.left(q)), q.getElement()));
+				q = tree.right(q);
+			} else {
+				q = tree.left(q);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns, in key order, the entries with keys greater than or equal to
+	 * fromKey and strictly less than toKey whose priority is higher than the
+	 * given threshold.
+	 *
+	 * @param fromKey   lower bound of the range (inclusive)
+	 * @param toKey     upper bound of the range (exclusive)
+	 * @param threshold priority that reported entries must exceed
+	 * @return entries in the range above the threshold
+	 */
+	public Iterable<Entry<K, P>> entriesAbove(K fromKey, K toKey, P threshold) {
+		ArrayList<Entry<K, P>> buffer = new ArrayList<>();
+		entriesAboveRecurse(fromKey, toKey, threshold, tree.root(), buffer);
+		return buffer;
+	}
+
+	private void entriesAboveRecurse(K fromKey, K toKey, P threshold, Position<Entry<K, P>> p,
+									 ArrayList<Entry<K, P>> buffer) {
+		if (p.getElement() == null || priorityOrder.compare(best(p).getValue(), threshold) <= 0)
+			return; // nothing in this subtree is above the threshold
+		K key = p.getElement().getKey();
+		if (compare(key, fromKey) >= 0)
+			entriesAboveRecurse(fromKey, toKey, threshold, tree.left(p), buffer);
+		if (compare(key, fromKey) >= 0 && compare(key, toKey) < 0
+				&& priorityOrder.compare(p.getElement().getValue(), threshold) > 0)
+			buffer.add(p.getElement());
+		if (compare(key, toKey) < 0)
+			entriesAboveRecurse(fromKey, toKey, threshold, tree.right(p), buffer);
+	}
+
+	// checks the weight heap order and every best entry; for tests
+	boolean isValid() {
+		return isValid(tree.root());
+	}
+
+	private boolean isValid(Position<Entry<K, P>> p) {
+		if (p.getElement() == null)
+			return true;
+		Position<Entry<K, P>> left = tree.left(p), right = tree.right(p);
+		if ((left.getElement() != null && weight(left) > weight(p))
+				|| (right.getElement() != null && weight(right) > weight(p)))
+			return false;
+		Entry<K, P> expected = higher(p.getElement(), higher(best(left), best(right)));
+		return priorityOrder.compare(best(p).getValue(), expected.getValue()) == 0
+				&& isValid(left) && isValid(right);
+	}
+}
@@ -0,0 +1,118 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrioritySearchTreapTest {
+
+	private static List<Integer> keys(Iterable<Entry<Integer, Integer>> entries) {
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : entries)
+			keys.add(e.getKey());
+		return keys;
+	}
+
+	@Test
+	void testQueries() throws IOException {
+		PrioritySearchTreap<Integer, Integer> map = new PrioritySearchTreap<>();
+		int[][] arr = {{1, 5}, {3, 9}, {4, 2}, {7, 7}, {9, 1}, {12, 8}, {15, 3}};
+		for (int[] a : arr)
+			map.put(a[0], a[1]);
+		assertEquals(3, map.maxPriorityEntry(0, 100).getKey());
+		assertEquals(12, map.maxPriorityEntry(4, 15).getKey());
+		assertEquals(7, map.maxPriorityEntry(4, 12).getKey());
+		assertNull(map.maxPriorityEntry(5, 7));
+		assertEquals("[3, 7, 12]", keys(map.entriesAbove(0, 100, 5)).toString());
+		assertEquals("[7]", keys(map.entriesAbove(4, 12, 5)).toString());
+
+		map.put(12, 0); // lowering a priority updates the subtree maxima
+		assertEquals(7, map.maxPriorityEntry(4, 15).getKey());
+		map.remove(3);
+		assertEquals(7, map.maxPriorityEntry(0, 100).getKey());
+		assertTrue(map.isValid());
+	}
+
+	@Test
+	void testEarliestDeadline() throws IOException {
+		// keys are start times, priorities deadlines: the reversed order finds the earliest deadline
+		PrioritySearchTreap<Integer, Integer> map = new PrioritySearchTreap<>(Comparator.<Integer>reverseOrder());
+		for (int start = 0; start < 10000; start++)
+			map.put(start, start + 100); // deadlines correlated with starts
+		assertEquals(2000, map.maxPriorityEntry(2000, 3000).getKey());
+		assertEquals(5, keys(map.entriesAbove(2000, 3000, 2105)).size());
+		assertTrue(map.tree.height(map.tree.root()) < 60);
+		assertTrue(map.isValid());
+	}
+
+	@Test
+	void testRandomAgainstBruteForce() throws IOException {
+		PrioritySearchTreap<Integer, Integer> map = new PrioritySearchTreap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 10000; ix++) {
+			int k = rand.nextInt(1000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				int priority = rand.nextInt(1000);
+				assertEquals(expected.put(k, priority), map.put(k, priority));
+			}
+			if (ix % 100 == 0) {
+				assertTrue(map.isValid());
+				int from = rand.nextInt(1000), to = from + rand.nextInt(300);
+				int threshold = rand.nextInt(1000);
+				Integer best = null;
+				List<Integer> above = new ArrayList<>();
+				for (Map.Entry<Integer, Integer> e : expected.subMap(from, to).entrySet()) {
+					if (best == null || e.getValue() > best)
+						best = e.getValue();
+					if (e.getValue() > threshold)
+						above.add(e.getKey());
+				}
+				Entry<Integer, Integer> max = map.maxPriorityEntry(from, to);
+				assertEquals(best, max == null ? null : max.getValue());
+				assertEquals(above, keys(map.entriesAbove(from, to, threshold)));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		Random rand = new Random(1);
+		List<Entry<Integer, Integer>> entries = new ArrayList<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		for (int k = 0; k < 5000; k++) {
+			entries.add(new utils.MapEntry<>(k, k + 100)); // priorities correlated with keys
+			expected.put(k, k + 100);
+		}
+		PrioritySearchTreap<Integer, Integer> map = new PrioritySearchTreap<>();
+		map.bulkLoad(entries);
+		assertEquals(5000, map.size());
+		assertTrue(map.isValid());
+		assertTrue(map.tree.height(map.tree.root()) < 60);
+		assertEquals(1234, map.select(1234).getKey());
+		assertEquals(2999, map.maxPriorityEntry(2000, 3000).getKey());
+		assertEquals(List.of(2996, 2997, 2998, 2999), keys(map.entriesAbove(2000, 3000, 3095)));
+
+		map.put(2500, 10000);
+		map.remove(2999);
+		assertEquals(2500, map.maxPriorityEntry(2000, 3000).getKey());
+		assertEquals(2998, map.maxPriorityEntry(2501, 3000).getKey());
+		assertTrue(map.isValid());
+		assertThrows(IllegalStateException.class, () -> map.bulkLoad(entries));
+	}
+}
@@ -0,0 +1,185 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An implementation of a sorted map using a red-black tree.
+ *
+ * The colour of each node is kept in the aux field of the BalanceableBinaryTree
+ * (0 for black, 1 for red), so the sentinel leaves are black without any extra
+ * work. An insertion recolours up the tree and does at most one restructure;
+ * a deletion does at most two rotations and one restructure. Unlike AVLTreeMap,
+ * neither walks back to the root unless recolouring propagates that far.
+ */
+public class RBTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	private static final int BLACK = 0;
+	private static final int RED = 1;
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public RBTreeMap() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public RBTreeMap(Comparator<K> comp) {
+		super(comp);
+	}
+
+	// positional utilities for node colours
+	protected boolean isBlack(Position<Entry<K, V>> p) {
+		return tree.getAux(p) == BLACK;
+	}
+
+	protected boolean isRed(Position<Entry<K, V>> p) {
+		return tree.getAux(p) == RED;
+	}
+
+	private void makeBlack(Position<Entry<K, V>> p) {
+		tree.setAux(p, BLACK);
+	}
+
+	private void makeRed(Position<Entry<K, V>> p) {
+		tree.setAux(p, RED);
+	}
+
+	private void setColor(Position<Entry<K, V>> p, boolean toRed) {
+		tree.setAux(p, toRed ? RED : BLACK);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> p) throws IOException {
+		if (!tree.isRoot(p)) {
+			makeRed(p); // the new internal node is initially coloured red
+			resolveRed(p); // but this may cause a double-red problem
+		}
+	}
+
+	/** Remedies potential double-red violation above red position p. */
+	private void resolveRed(Position<Entry<K, V>> p) throws IOException {
+		Position<Entry<K, V>> parent = tree.parent(p);
+		if (isRed(parent)) { // double-red problem exists
+			Position<Entry<K, V>> uncle = tree.sibling(parent);
+			if (isBlack(uncle)) { // Case 1: misshapen 4-node
+				Position<Entry<K, V>> middle = restructure(p); // do trinode restructuring
+				makeBlack(middle);
+				makeRed(tree.left(middle));
+				makeRed(tree.right(middle));
+			} else { // Case 2: overfull 5-node
+				makeBlack(parent); // perform recoloring
+				makeBlack(uncle);
+				Position<Entry<K, V>> grand = tree.parent(parent);
+				if (!tree.isRoot(grand)) {
+					makeRed(grand); // grandparent becomes red
+					resolveRed(grand); // recur at red grandparent
+				}
+			}
+		}
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
+		if (isRed(p)) // deleted parent was black
+			makeBlack(p); // so this restores black depth
+		else if (!tree.isRoot(p)) {
+			Position<Entry<K, V>> sib = tree.sibling(p);
+			// a black deficit exists exactly when the sibling's subtree is two black levels deep
+			if (sib.getElement() != null && (isBlack(sib) || tree.left(sib).getElement() != null))
+				remedyDoubleBlack(p); // sib's subtree has nonzero black height
+		}
+	}
+
+	/** Remedies a presumed double-black violation at the given (nonroot) position. */
+	private void remedyDoubleBlack(Position<Entry<K, V>> p) throws IOException {
+		Position<Entry<K, V>> z = tree.parent(p);
+		Position<Entry<K, V>> y = tree.sibling(p);
+		if (isBlack(y)) {
+			if (isRed(tree.left(y)) || isRed(tree.right(y))) { // Case 1: trinode restructuring
+				Position<Entry<K, V>> x = (isRed(tree.left(y)) ? tree.left(y) : tree.right(y));
+				Position<Entry<K, V>> middle = restructure(x);
+				setColor(middle, isRed(z)); // root of restructured subtree gets z's old color
+				makeBlack(tree.left(middle));
+				makeBlack(tree.right(middle));
+			} else { // Case 2: recoloring
+				makeRed(y);
+				if (isRed(z))
+					makeBlack(z); // problem is resolved
+				else if (!tree.isRoot(z))
+					remedyDoubleBlack(z); // propagate the problem
+			}
+		} else { // Case 3: reorient 3-node
+			rotate(y);
+			makeBlack(y);
+			makeRed(z);
+			remedyDoubleBlack(p); // restart the process at p
+		}
+	}
+
+	/**
+	 * Fills this empty map with the given entries in linear time. The tree built
+	 * by TreeMap.bulkLoad has every level full except possibly the deepest one,
+	 * so colouring the nodes on that level red, and all others black, gives
+	 * every path the same number of black nodes.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	@Override
+	public void bulkLoad(List<? extends Entry<K, V>> sortedEntries) {
+		super.bulkLoad(sortedEntries);
+		int deepest = 31 - Integer.numberOfLeadingZeros(size()); // floor(log2 n), the depth of the deepest level
+		if (deepest > 0) // a lone root stays black
+			colorLevel(tree.root(), 0, deepest);
+	}
+
+	// makes the nodes at the given depth of the subtree rooted at p red
+	private void colorLevel(Position<Entry<K, V>> p, int depth, int deepest) {
+		if (p.getElement() == null)
+			return;
+		if (depth == deepest) {
+			makeRed(p);
+		} else {
+			colorLevel(tree.left(p), depth + 1, deepest);
+			colorLevel(tree.right(p), depth + 1, deepest);
+		}
+	}
+
+	/**
+	 * Checks the red-black properties of the whole tree: a black root, no red
+	 * node with a red child, and the same number of black nodes on every path
+	 * from the root to a leaf.
+	 *
+	 * @return the black height of the tree, or -1 if a property is violated
+	 */
+	protected int blackHeight() {
+		if (isRed(tree.root()))
+			return -1;
+		return blackHeight(tree.root());
+	}
+
+	private int blackHeight(Position<Entry<K, V>> p) {
+		if (p.getElement() == null)
+			return isBlack(p) ? 1 : -1;
+		Position<Entry<K, V>> left = tree.left(p);
+		Position<Entry<K, V>> right = tree.right(p);
+		if (isRed(p) && (isRed(left) || isRed(right)))
+			return -1;
+		int lh = blackHeight(left);
+		int rh = blackHeight(right);
+		if (lh < 0 || lh != rh)
+			return -1;
+		return lh + (isBlack(p) ? 1 : 0);
+	}
+}
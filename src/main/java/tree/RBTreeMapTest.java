@@ -0,0 +1,105 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+import utils.MapEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RBTreeMapTest {
+
+	private static RBTreeMap<Integer, String> sample() throws IOException {
+		RBTreeMap<Integer, String> map = new RBTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testGet() throws IOException {
+		RBTreeMap<Integer, String> map = sample();
+		assertEquals("15", map.get(15));
+		assertEquals("24", map.get(24));
+		assertNull(map.get(-1));
+	}
+
+	@Test
+	void testPutAndRemove() throws IOException {
+		RBTreeMap<Integer, String> map = sample();
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.tree.inorder().toString());
+		assertTrue(map.blackHeight() > 0);
+		assertEquals(12, map.size());
+		assertEquals("26", map.remove(26));
+		assertNull(map.remove(26));
+		assertEquals(11, map.size());
+		assertTrue(map.blackHeight() > 0);
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.tree.inorder().toString());
+	}
+
+	@Test
+	void testSortedInsertionStaysBalanced() throws IOException {
+		RBTreeMap<Integer, Integer> map = new RBTreeMap<>();
+		for (int i = 0; i < 1023; i++)
+			map.put(i, i);
+		assertTrue(map.blackHeight() > 0);
+		// a red-black tree is at most twice as high as a perfectly balanced one
+		assertTrue(map.tree.height(map.tree.root()) <= 2 * 11);
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() throws IOException {
+		RBTreeMap<Integer, Integer> map = new RBTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(500);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+			if (ix % 100 == 0)
+				assertTrue(map.blackHeight() > 0, "red-black property violated after step " + ix);
+		}
+		assertEquals(expected.size(), map.size());
+
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : map.entrySet())
+			keys.add(e.getKey());
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+
+		for (int k : new ArrayList<>(expected.keySet()))
+			assertEquals(expected.remove(k), map.remove(k));
+		assertEquals(0, map.size());
+		assertEquals(1, map.blackHeight());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		for (int n : new int[] {0, 1, 2, 3, 7, 8, 1000}) {
+			List<Entry<Integer, Integer>> entries = new ArrayList<>();
+			for (int k = 0; k < n; k++)
+				entries.add(new MapEntry<>(k, k));
+			RBTreeMap<Integer, Integer> map = new RBTreeMap<>();
+			map.bulkLoad(entries);
+			assertEquals(n, map.size());
+			assertTrue(map.blackHeight() > 0, "red-black property violated for n = " + n);
+			for (int k = n; k < n + 100; k++)
+				map.put(k, k);
+			for (int k = 0; k < n + 100; k += 3)
+				map.remove(k);
+			assertTrue(map.blackHeight() > 0, "red-black property violated after updates for n = " + n);
+		}
+	}
+}
@@ -0,0 +1,457 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import utils.MapEntry;
+import tree.BalanceableBinaryTree.NodeType;
+import utils.DefaultComparator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A treap mapping keys to long values that supports adding a delta to every
+ * value in a key range, and sum/min/max queries over a key range, each in
+ * O(log n) expected time.
+ *
+ * Unlike Treap, whose values are the priorities, the random priority of each
+ * node is kept in the aux field of the BalanceableBinaryTree so that values are
+ * free for the caller. The summary field of every node holds the sum, minimum
+ * and maximum of its subtree together with a lazy tag: a delta that has already
+ * been applied to the node and its aggregates but not yet to its children.
+ * Tags are pushed one level down whenever a node is passed on the way to
+ * another, so a range update only touches the nodes on the two boundary paths
+ * of the range and the roots of the subtrees hanging between them.
+ */
+public class RangeAddTreap<K extends Comparable<K>> extends TreeMap<K, Long> {
+
+	// per-node state kept in the summary field
+	private static final class Aggregate {
+		long sum;
+		long min;
+		long max;
+		long lazy; // delta still to be added to everything below this node
+	}
+
+	private final Random rand;
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public RangeAddTreap() {
+		super(new DefaultComparator<>(), NodeType.SUMMARY);
+		rand = new Random();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public RangeAddTreap(Comparator<K> comp) {
+		super(comp, NodeType.SUMMARY);
+		rand = new Random();
+	}
+
+	/**
+	 * Constructs an empty map whose priorities are drawn from a seeded generator,
+	 * so that the tree shape is reproducible.
+	 *
+	 * @param seed seed of the priority generator
+	 */
+	public RangeAddTreap(int seed) {
+		super(new DefaultComparator<>(), NodeType.SUMMARY);
+		rand = new Random(seed);
+	}
+
+	private Aggregate aggregate(Position<Entry<K, Long>> p) {
+		return (Aggregate) tree.getSummary(p);
+	}
+
+	private int priority(Position<Entry<K, Long>> p) {
+		return tree.getAux(p);
+	}
+
+	// adds delta to the value of p alone; its aggregates must be fixed by the caller
+	private void addToNode(Position<Entry<K, Long>> p, long delta) {
+		Entry<K, Long> e = p.getElement();
+		tree.set(p, new MapEntry<>(e.getKey(), e.getValue() + delta));
+	}
+
+	// adds delta to every value in the subtree rooted at p, lazily below p itself
+	private void apply(Position<Entry<K, Long>> p, long delta) {
+		if (p.getElement() == null)
+			return;
+		addToNode(p, delta);
+		Aggregate a = aggregate(p);
+		a.sum += delta * tree.getSize(p);
+		a.min += delta;
+		a.max += delta;
+		a.lazy += delta;
+	}
+
+	// moves the lazy tag of p down to its children
+	private void push(Position<Entry<K, Long>> p) {
+		if (p.getElement() == null)
+			return;
+		Aggregate a = aggregate(p);
+		if (a.lazy != 0) {
+			apply(tree.left(p), a.lazy);
+			apply(tree.right(p), a.lazy);
+			a.lazy = 0;
+		}
+	}
+
+	// recomputes the aggregates of p from its value and its children's aggregates
+	private void recompute(Position<Entry<K, Long>> p) {
+		Aggregate a = aggregate(p);
+		long value = p.getElement().getValue();
+		a.sum = value;
+		a.min = value;
+		a.max = value;
+		include(a, tree.left(p));
+		include(a, tree.right(p));
+	}
+
+	// adds the aggregates of the subtree rooted at c into a
+	private void include(Aggregate a, Position<Entry<K, Long>> c) {
+		if (c.getElement() == null)
+			return;
+		Aggregate ca = aggregate(c);
+		a.sum += ca.sum;
+		a.min = Math.min(a.min, ca.min);
+		a.max = Math.max(a.max, ca.max);
+	}
+
+	// recomputes the aggregates of p and all its ancestors
+	private void recomputePath(Position<Entry<K, Long>> p) {
+		for (; p != null; p = tree.parent(p))
+			recompute(p);
+	}
+
+	// descents used by TreeMap push the tags they pass, so every entry they return is up to date
+
+	@Override
+	protected Position<Entry<K, Long>> treeSearch(Position<Entry<K, Long>> p, K key) {
+		while (p.getElement() != null) {
+			push(p);
+			int comp = compare(key, p.getElement().getKey());
+			if (comp == 0)
+				return p;
+			p = comp < 0 ? tree.left(p) : tree.right(p);
+		}
+		return p;
+	}
+
+	@Override
+	protected Position<Entry<K, Long>> treeMin(Position<Entry<K, Long>> p) {
+		push(p);
+		while (tree.left(p).getElement() != null) {
+			p = tree.left(p);
+			push(p);
+		}
+		return p;
+	}
+
+	@Override
+	protected Position<Entry<K, Long>> treeMax(Position<Entry<K, Long>> p) {
+		push(p);
+		while (tree.right(p).getElement() != null) {
+			p = tree.right(p);
+			push(p);
+		}
+		return p;
+	}
+
+	/** Pushes the tags of both nodes first, then fixes their aggregates after the rotation. */
+	@Override
+	protected void rotate(Position<Entry<K, Long>> p) {
+		Position<Entry<K, Long>> parent = tree.parent(p);
+		push(parent);
+		push(p);
+		super.rotate(p);
+		recompute(parent); // now the child of p
+		recompute(p);
+	}
+
+	/**
+	 * Associates the given value with the given key.
+	 *
+	 * @throws IllegalArgumentException if value is null
+	 */
+	@Override
+	public Long put(K key, Long value) throws IllegalArgumentException, IOException {
+		if (value == null)
+			throw new IllegalArgumentException("null values cannot be aggregated");
+		return super.put(key, value);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, Long>> p) throws IOException {
+		tree.setAux(p, rand.nextInt());
+		tree.setSummary(p, new Aggregate());
+		recomputePath(p);
+		// rotate up until the priorities are heap-ordered again
+		while (!tree.isRoot(p) && priority(p) > priority(tree.parent(p)))
+			rotate(p);
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, Long>> p) throws IOException {
+		// removing a node with at most one child keeps the heap order; only aggregates change
+		recomputePath(tree.parent(p));
+	}
+
+	/**
+	 * Fills this empty map with the given entries in O(n) time: the entries get
+	 * random priorities and are linked as their Cartesian tree, and the sizes and
+	 * aggregates are then filled in bottom-up.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing or
+	 *                                  a value is null
+	 */
+	@Override
+	public void bulkLoad(List<? extends Entry<K, Long>> sortedEntries) {
+		for (Entry<K, Long> e : sortedEntries)
+			if (e.getValue() == null)
+				throw new IllegalArgumentException("null values cannot be aggregated");
+		bulkLoadCartesian(sortedEntries, () -> rand.nextInt());
+	}
+
+	/** Overrides the TreeMap hook that is called for each node built by bulkLoad. */
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, Long>> p) {
+		tree.setSummary(p, new Aggregate());
+		recompute(p);
+	}
+
+	/** Overrides the TreeMap hook that is called after a value is replaced. */
+	@Override
+	protected void rebalanceAccess(Position<Entry<K, Long>> p) throws IOException {
+		recomputePath(p);
+	}
+
+	// descends to the highest node with a key in [fromKey, toKey), pushing tags on the way
+	private Position<Entry<K, Long>> splitNode(K fromKey, K toKey) {
+		Position<Entry<K, Long>> p = tree.root();
+		while (p.getElement() != null) {
+			push(p);
+			K key = p.getElement().getKey();
+			if (compare(key, fromKey) < 0)
+				p = tree.right(p);
+			else if (compare(key, toKey) >= 0)
+				p = tree.left(p);
+			else
+				break;
+		}
+		return p;
+	}
+
+	/**
+	 * Adds delta to the value of every entry whose key is greater than or equal
+	 * to fromKey and strictly less than toKey, in O(log n) expected time.
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @param delta   amount added to each value in the range
+	 */
+	public void addToRange(K fromKey, K toKey, long delta) {
+		Position<Entry<K, Long>> split = splitNode(fromKey, toKey);
+		if (split.getElement() == null)
+			return;
+		addToNode(split, delta);
+
+		// along the left boundary, each node in range takes its whole right subtree with it
+		Position<Entry<K, Long>> last = split;
+		for (Position<Entry<K, Long>> q = tree.left(split); q.getElement() != null; ) {
+			push(q);
+			last = q;
+			if (compare(q.getElement().getKey(), fromKey) >= 0) {
+				addToNode(q, delta);
+				apply(tree.right(q), delta);
+				q = tree.left(q);
+			} else {
+				q = tree.right(q);
+			}
+		}
+		recomputePath(last);
+
+		last = split;
+		for (Position<Entry<K, Long>> q = tree.right(split); q.getElement() != null; ) {
+			push(q);
+			last = q;
+			if (compare(q.getElement().getKey(), toKey) < 0) {
+				addToNode(q, delta);
+				apply(tree.left(q), delta);
+				q = tree.right(q);
+			} else {
+				q = tree.left(q);
+			}
+		}
+		recomputePath(last);
+	}
+
+	// aggregates of the values with keys in [fromKey, toKey), or null if there are none
+	private Aggregate query(K fromKey, K toKey) {
+		Position<Entry<K, Long>> split = splitNode(fromKey, toKey);
+		if (split.getElement() == null)
+			return null;
+		Aggregate result = new Aggregate();
+		long value = split.getElement().getValue();
+		result.sum = value;
+		result.min = value;
+		result.max = value;
+
+		for (Position<Entry<K, Long>> q = tree.left(split); q.getElement() != null; ) {
+			push(q);
+			if (compare(q.getElement().getKey(), fromKey) >= 0) {
+				includeValue(result, q);
+				include(result, tree.right(q));
+				q = tree.left(q);
+			} else {
+				q = tree.right(q);
+			}
+		}
+		for (Position<Entry<K, Long>> q = tree.right(split); q.getElement() != null; ) {
+			push(q);
+			if (compare(q.getElement().getKey(), toKey) < 0) {
+				includeValue(result, q);
+				include(result, tree.left(q));
+				q = tree.right(q);
+			} else {
+				q = tree.left(q);
+			}
+		}
+		return result;
+	}
+
+	private void includeValue(Aggregate a, Position<Entry<K, Long>> p) {
+		long value = p.getElement().getValue();
+		a.sum += value;
+		a.min = Math.min(a.min, value);
+		a.max = Math.max(a.max, value);
+	}
+
+	/**
+	 * Returns the sum of the values whose keys are in [fromKey, toKey).
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @return sum of the values in the range, 0 if there are none
+	 */
+	public long sum(K fromKey, K toKey) {
+		Aggregate a = query(fromKey, toKey);
+		return a == null ? 0 : a.sum;
+	}
+
+	/**
+	 * Returns the least value whose key is in [fromKey, toKey).
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @return least value in the range, or null if there are none
+	 */
+	public Long min(K fromKey, K toKey) {
+		Aggregate a = query(fromKey, toKey);
+		return a == null ? null : a.min;
+	}
+
+	/**
+	 * Returns the greatest value whose key is in [fromKey, toKey).
+	 *
+	 * @param fromKey lower bound of the range (inclusive)
+	 * @param toKey   upper bound of the range (exclusive)
+	 * @return greatest value in the range, or null if there are none
+	 */
+	public Long max(K fromKey, K toKey) {
+		Aggregate a = query(fromKey, toKey);
+		return a == null ? null : a.max;
+	}
+
+	// iteration and selection read entries without descending through TreeMap's searches
+
+	@Override
+	public Iterable<Entry<K, Long>> entrySet() {
+		pushAll(tree.root());
+		return super.entrySet();
+	}
+
+	@Override
+	public Iterable<Entry<K, Long>> subMap(K fromKey, K toKey) {
+		ArrayList<Entry<K, Long>> buffer = new ArrayList<>();
+		subMapRecurse(fromKey, toKey, tree.root(), buffer);
+		return buffer;
+	}
+
+	private void subMapRecurse(K fromKey, K toKey, Position<Entry<K, Long>> p, ArrayList<Entry<K, Long>> buffer) {
+		if (p.getElement() == null)
+			return;
+		push(p);
+		K key = p.getElement().getKey();
+		if (compare(key, fromKey) >= 0)
+			subMapRecurse(fromKey, toKey, tree.left(p), buffer);
+		if (compare(key, fromKey) >= 0 && compare(key, toKey) < 0)
+			buffer.add(p.getElement());
+		if (compare(key, toKey) < 0)
+			subMapRecurse(fromKey, toKey, tree.right(p), buffer);
+	}
+
+	@Override
+	public Entry<K, Long> select(int i) {
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+		Position<Entry<K, Long>> p = tree.root();
+		while (true) {
+			push(p);
+			int leftSize = tree.getSize(tree.left(p));
+			if (i == leftSize)
+				return p.getElement();
+			if (i < leftSize) {
+				p = tree.left(p);
+			} else {
+				i -= leftSize + 1;
+				p = tree.right(p);
+			}
+		}
+	}
+
+	// pushes every pending tag in the subtree rooted at p down to the sentinels
+	private void pushAll(Position<Entry<K, Long>> p) {
+		ArrayDeque<Position<Entry<K, Long>>> stack = new ArrayDeque<>();
+		stack.push(p);
+		while (!stack.isEmpty()) {
+			Position<Entry<K, Long>> q = stack.pop();
+			if (q.getElement() != null) {
+				push(q);
+				stack.push(tree.left(q));
+				stack.push(tree.right(q));
+			}
+		}
+	}
+
+	// checks heap order of priorities and, once all tags are pushed, every aggregate; for tests
+	boolean isValid() {
+		pushAll(tree.root());
+		return isValid(tree.root());
+	}
+
+	private boolean isValid(Position<Entry<K, Long>> p) {
+		if (p.getElement() == null)
+			return true;
+		Position<Entry<K, Long>> left = tree.left(p);
+		Position<Entry<K, Long>> right = tree.right(p);
+		if ((left.getElement() != null && priority(left) > priority(p))
+				|| (right.getElement() != null && priority(right) > priority(p)))
+			return false;
+		Aggregate a = aggregate(p);
+		long sum = a.sum, min = a.min, max = a.max;
+		recompute(p);
+		return sum == a.sum && min == a.min && max == a.max && isValid(tree.left(p)) && isValid(tree.right(p));
+	}
+}
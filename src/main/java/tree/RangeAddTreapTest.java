@@ -0,0 +1,131 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeAddTreapTest {
+
+	@Test
+	void testAddToRange() throws IOException {
+		RangeAddTreap<Integer> map = new RangeAddTreap<>(1);
+		for (int i = 0; i < 10; i++)
+			map.put(i, (long) i);
+		map.addToRange(3, 7, 100);
+		assertEquals(2L, map.get(2));
+		assertEquals(103L, map.get(3));
+		assertEquals(106L, map.get(6));
+		assertEquals(7L, map.get(7));
+		assertEquals(3 + 4 + 5 + 6 + 400, map.sum(3, 7));
+		assertEquals(2 + 103 + 104, map.sum(2, 5));
+		assertEquals(7L, map.min(3, 10));
+		assertEquals(103L, map.min(3, 7));
+		assertEquals(106L, map.max(0, 7));
+		assertNull(map.max(20, 30));
+		assertEquals(0, map.sum(20, 30));
+
+		map.addToRange(0, 100, -1);
+		assertEquals(102L, map.select(3).getValue());
+		assertEquals(104L, map.higherEntry(4).getValue());
+		assertEquals(8L, map.lastEntry().getValue());
+		assertTrue(map.isValid());
+		assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+	}
+
+	@Test
+	void testRandomAgainstBruteForce() throws IOException {
+		RangeAddTreap<Integer> map = new RangeAddTreap<>(1);
+		java.util.TreeMap<Integer, Long> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(500);
+			int from = rand.nextInt(520) - 10;
+			int to = from + rand.nextInt(200);
+			switch (rand.nextInt(5)) {
+				case 0:
+					assertEquals(expected.remove(k), map.remove(k));
+					break;
+				case 1:
+					long v = rand.nextInt(1000) - 500;
+					assertEquals(expected.put(k, v), map.put(k, v));
+					break;
+				case 2:
+					long delta = rand.nextInt(21) - 10;
+					map.addToRange(from, to, delta);
+					expected.subMap(from, to).replaceAll((key, value) -> value + delta);
+					break;
+				case 3:
+					assertEquals(expected.get(k), map.get(k));
+					break;
+				default:
+					long sum = 0;
+					Long min = null, max = null;
+					for (long value : expected.subMap(from, to).values()) {
+						sum += value;
+						min = min == null ? value : Math.min(min, value);
+						max = max == null ? value : Math.max(max, value);
+					}
+					assertEquals(sum, map.sum(from, to));
+					assertEquals(min, map.min(from, to));
+					assertEquals(max, map.max(from, to));
+			}
+		}
+
+		List<Long> values = new ArrayList<>();
+		for (Entry<Integer, Long> e : map.entrySet())
+			values.add(e.getValue());
+		assertEquals(new ArrayList<>(expected.values()), values);
+		List<Long> sub = new ArrayList<>();
+		for (Entry<Integer, Long> e : map.subMap(100, 200))
+			sub.add(e.getValue());
+		assertEquals(new ArrayList<>(expected.subMap(100, 200).values()), sub);
+		assertTrue(map.isValid());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		Random rand = new Random(1);
+		List<Entry<Integer, Long>> entries = new ArrayList<>();
+		java.util.TreeMap<Integer, Long> expected = new java.util.TreeMap<>();
+		for (int k = 0; k < 5000; k++) {
+			long v = rand.nextInt(1000) - 500;
+			entries.add(new utils.MapEntry<>(3 * k, v));
+			expected.put(3 * k, v);
+		}
+		RangeAddTreap<Integer> map = new RangeAddTreap<>(1);
+		map.bulkLoad(entries);
+		assertEquals(5000, map.size());
+		assertTrue(map.isValid());
+		assertTrue(map.tree.height(map.tree.root()) < 60);
+		assertEquals(300, map.select(100).getKey());
+		assertEquals(100, map.rank(300));
+
+		map.addToRange(600, 9000, 7);
+		expected.subMap(600, 9000).replaceAll((key, value) -> value + 7);
+		map.put(1, 1000L);
+		expected.put(1, 1000L);
+		map.remove(3000);
+		expected.remove(3000);
+		long sum = 0;
+		for (long value : expected.subMap(0, 12000).values())
+			sum += value;
+		assertEquals(sum, map.sum(0, 12000));
+		assertEquals(expected.subMap(500, 700).values().stream().min(Long::compare).get(), map.min(500, 700));
+		assertTrue(map.isValid());
+
+		assertThrows(IllegalStateException.class, () -> map.bulkLoad(entries));
+		List<Entry<Integer, Long>> withNull = new ArrayList<>();
+		withNull.add(new utils.MapEntry<>(1, null));
+		assertThrows(IllegalArgumentException.class, () -> new RangeAddTreap<Integer>().bulkLoad(withNull));
+	}
+}
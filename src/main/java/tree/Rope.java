@@ -0,0 +1,106 @@
+package tree;
+
+import java.util.Random;
+
+/**
+ * A mutable text stored as a sequence of Characters in an implicit treap, one
+ * element per node, so that inserting or deleting text in the middle of a long
+ * document costs O(log n + m) expected time for m edited characters instead of
+ * shifting the whole tail as a StringBuilder does. Cutting and joining
+ * documents (splitAt and concat) and reversing a span take O(log n) expected
+ * time.
+ *
+ * This is not a char-specialised rope: there are no char[] chunks, and every
+ * character costs a treap node of about 40 bytes (with compressed references),
+ * plus a 16-byte Character object for characters above U+007F, which
+ * Character.valueOf does not cache. That is 20 to 50 times the memory of a
+ * String, so the class suits edit-heavy texts of moderate length rather than
+ * large read-mostly documents.
+ */
+public class Rope extends ImplicitTreap<Character> implements CharSequence {
+
+	/** Constructs an empty rope. */
+	public Rope() {
+		super();
+	}
+
+	/** Constructs a rope holding the given text, in time linear in its length. */
+	public Rope(CharSequence text) {
+		super(text.length(), text::charAt);
+	}
+
+	private Rope(Random rand) {
+		super(rand);
+	}
+
+	@Override
+	protected Rope newEmpty() {
+		return new Rope(rand);
+	}
+
+	@Override
+	public int length() {
+		return size();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return get(index);
+	}
+
+	/**
+	 * Inserts text so that its first character lands at the given index.
+	 *
+	 * @throws IndexOutOfBoundsException if index is not in [0, length()]
+	 */
+	public void insert(int index, CharSequence text) {
+		insertAll(index, text.length(), text::charAt);
+	}
+
+	/** Appends text to the end of the rope. */
+	public void append(CharSequence text) {
+		insert(length(), text);
+	}
+
+	/**
+	 * Deletes the characters from index start inclusive to index end exclusive.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within [0, length()]
+	 */
+	public void delete(int start, int end) {
+		removeRange(start, end);
+	}
+
+	@Override
+	public Rope splitAt(int index) {
+		return (Rope) super.splitAt(index);
+	}
+
+	/**
+	 * Returns a new rope holding a copy of the characters in [start, end), in
+	 * O(log n + m) expected time: the range is cut out, copied in one pass and
+	 * joined back in.
+	 */
+	@Override
+	public Rope subSequence(int start, int end) {
+		if (start < 0 || end > length() || start > end)
+			throw new IndexOutOfBoundsException("Range: [" + start + ", " + end + "), Length: " + length());
+		Rope tail = splitAt(end);
+		Rope middle = splitAt(start);
+		StringBuilder sb = new StringBuilder(end - start);
+		for (char c : middle)
+			sb.append(c);
+		concat(middle);
+		concat(tail);
+		return new Rope(sb);
+	}
+
+	/** Returns the text of the rope. */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder(length());
+		for (char c : this)
+			sb.append(c);
+		return sb.toString();
+	}
+}
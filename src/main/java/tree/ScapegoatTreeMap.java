@@ -0,0 +1,197 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.BSTNode;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An implementation of a sorted map using a scapegoat tree.
+ *
+ * Nodes carry no balance information at all: the aux field is unused. After
+ * an insertion that lands deeper than log_{1/alpha}(n), the insertion path is
+ * walked back up to the lowest ancestor whose subtree is no longer
+ * alpha-weight-balanced (the scapegoat), and that subtree is rebuilt into a
+ * perfectly balanced shape in time linear in its size. When deletions have
+ * shrunk the map below alpha times its size at the last full rebuild, the
+ * whole tree is rebuilt. Searches therefore run on a tree of height at most
+ * log_{1/alpha}(n) + 1 with no balancing overhead, and the rebuilding cost is
+ * O(log n) amortized per update.
+ *
+ * Alpha trades lookup depth against rebuilding work: values near 0.5 keep the
+ * tree nearly perfect but rebuild often, values near 1 rarely rebuild.
+ */
+public class ScapegoatTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	/** Balance parameter used by the no-argument constructors. */
+	public static final double DEFAULT_ALPHA = 0.7;
+
+	private final double alpha;
+	private int maxSize = 0; // largest size since the last full rebuild
+
+	/** Constructs an empty map with the default alpha. */
+	public ScapegoatTreeMap() {
+		this(DEFAULT_ALPHA);
+	}
+
+	/**
+	 * Constructs an empty map with the given balance parameter.
+	 *
+	 * @param alpha weight-balance parameter, strictly between 0.5 and 1
+	 * @throws IllegalArgumentException if alpha is out of range
+	 */
+	public ScapegoatTreeMap(double alpha) {
+		super();
+		this.alpha = checkAlpha(alpha);
+	}
+
+	/**
+	 * Constructs an empty map with the given balance parameter, using the given
+	 * comparator to order keys.
+	 *
+	 * @param alpha weight-balance parameter, strictly between 0.5 and 1
+	 * @param comp  comparator defining the order of keys in the map
+	 * @throws IllegalArgumentException if alpha is out of range
+	 */
+	public ScapegoatTreeMap(double alpha, Comparator<K> comp) {
+		super(comp);
+		this.alpha = checkAlpha(alpha);
+	}
+
+	private static double checkAlpha(double alpha) {
+		if (!(alpha > 0.5 && alpha < 1))
+			throw new IllegalArgumentException("alpha must be strictly between 0.5 and 1");
+		return alpha;
+	}
+
+	/** Returns the weight-balance parameter of this map. */
+	public double alpha() {
+		return alpha;
+	}
+
+	// greatest depth allowed for a tree of n entries
+	private int depthBound(int n) {
+		return (int) Math.floor(Math.log(n) / Math.log(1 / alpha));
+	}
+
+	// number of entries in the subtree rooted at p
+	private int subtreeSize(Position<Entry<K, V>> p) {
+		int count = 0;
+		ArrayDeque<Position<Entry<K, V>>> stack = new ArrayDeque<>();
+		stack.push(p);
+		while (!stack.isEmpty()) {
+			Position<Entry<K, V>> q = stack.pop();
+			if (q.getElement() != null) {
+				count++;
+				stack.push(tree.left(q));
+				stack.push(tree.right(q));
+			}
+		}
+		return count;
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> p) throws IOException {
+		int n = size();
+		maxSize = Math.max(maxSize, n);
+		int depth = 0;
+		for (Position<Entry<K, V>> q = p; !tree.isRoot(q); q = tree.parent(q))
+			depth++;
+		if (depth <= depthBound(maxSize))
+			return;
+		// the path is too long, so some ancestor is alpha-weight-unbalanced
+		Position<Entry<K, V>> child = p;
+		int childSize = 1;
+		while (!tree.isRoot(child)) {
+			Position<Entry<K, V>> parent = tree.parent(child);
+			int parentSize = 1 + childSize + subtreeSize(tree.sibling(child));
+			if (childSize > alpha * parentSize) {
+				rebuild(parent);
+				return;
+			}
+			child = parent;
+			childSize = parentSize;
+		}
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
+		int n = size();
+		if (n < alpha * maxSize) {
+			if (tree.root().getElement() != null)
+				rebuild(tree.root());
+			maxSize = n;
+		}
+	}
+
+	/**
+	 * Fills this empty map with the given entries in linear time, as a perfectly
+	 * balanced tree that counts as freshly rebuilt.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	@Override
+	public void bulkLoad(List<? extends Entry<K, V>> sortedEntries) {
+		super.bulkLoad(sortedEntries);
+		maxSize = size();
+	}
+
+	/**
+	 * Rebuilds the subtree rooted at p into a perfectly balanced shape, reusing
+	 * its nodes. Takes time linear in the size of the subtree.
+	 *
+	 * @param p root of the subtree to rebuild
+	 */
+	protected void rebuild(Position<Entry<K, V>> p) {
+		BSTNode<Entry<K, V>> parent = (BSTNode<Entry<K, V>>) tree.parent(p);
+		boolean isLeft = parent != null && p == tree.left(parent);
+
+		// flatten the subtree into its internal nodes and sentinel leaves, both in order
+		ArrayList<BSTNode<Entry<K, V>>> nodes = new ArrayList<>();
+		ArrayList<BSTNode<Entry<K, V>>> leaves = new ArrayList<>();
+		ArrayDeque<Position<Entry<K, V>>> stack = new ArrayDeque<>();
+		Position<Entry<K, V>> q = p;
+		while (true) {
+			if (q.getElement() != null) {
+				stack.push(q);
+				q = tree.left(q);
+				continue;
+			}
+			leaves.add((BSTNode<Entry<K, V>>) q);
+			if (stack.isEmpty())
+				break;
+			q = stack.pop();
+			nodes.add((BSTNode<Entry<K, V>>) q);
+			q = tree.right(q);
+		}
+
+		BSTNode<Entry<K, V>> root = build(nodes, leaves, 0, nodes.size() - 1);
+		if (parent == null) {
+			root.setParent(null);
+			tree.setRoot(root);
+		} else {
+			tree.relink(parent, root, isLeft);
+		}
+	}
+
+	// links nodes[lo..hi] into a balanced subtree whose sentinels are leaves[lo..hi+1]
+	private BSTNode<Entry<K, V>> build(ArrayList<BSTNode<Entry<K, V>>> nodes,
+									   ArrayList<BSTNode<Entry<K, V>>> leaves, int lo, int hi) {
+		if (lo > hi)
+			return leaves.get(lo);
+		int mid = (lo + hi) >>> 1;
+		BSTNode<Entry<K, V>> node = nodes.get(mid);
+		tree.relink(node, build(nodes, leaves, lo, mid - 1), true);
+		tree.relink(node, build(nodes, leaves, mid + 1, hi), false);
+		return node;
+	}
+}
@@ -0,0 +1,89 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScapegoatTreeMapTest {
+
+	private static int heightBound(ScapegoatTreeMap<?, ?> map) {
+		return (int) Math.floor(Math.log(map.size()) / Math.log(1 / map.alpha())) + 1;
+	}
+
+	@Test
+	void testPutGetRemove() throws IOException {
+		ScapegoatTreeMap<Integer, String> map = new ScapegoatTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", map.tree.inorder().toString());
+		assertEquals("26", map.remove(26));
+		assertNull(map.remove(26));
+		assertEquals(11, map.size());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.tree.inorder().toString());
+	}
+
+	@Test
+	void testSortedInsertionStaysShallow() throws IOException {
+		for (double alpha : new double[] {0.55, 0.7, 0.9}) {
+			ScapegoatTreeMap<Integer, Integer> map = new ScapegoatTreeMap<>(alpha);
+			for (int i = 0; i < 10000; i++)
+				map.put(i, i);
+			// the root's height counts edges down to a sentinel leaf
+			assertTrue(map.tree.height(map.tree.root()) - 1 <= heightBound(map));
+			assertEquals(5000, map.get(5000));
+		}
+	}
+
+	@Test
+	void testInvalidAlpha() {
+		assertThrows(IllegalArgumentException.class, () -> new ScapegoatTreeMap<Integer, Integer>(0.5));
+		assertThrows(IllegalArgumentException.class, () -> new ScapegoatTreeMap<Integer, Integer>(1.0));
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() throws IOException {
+		ScapegoatTreeMap<Integer, Integer> map = new ScapegoatTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(2000);
+			if (rand.nextInt(3) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertTrue(map.tree.height(map.tree.root()) - 1 <= heightBound(map) + 1);
+
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : map.entrySet())
+			keys.add(e.getKey());
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+		for (int k = -1; k <= 2001; k += 7) {
+			Entry<Integer, Integer> e = map.floorEntry(k);
+			assertEquals(expected.floorKey(k), e == null ? null : e.getKey());
+			e = map.higherEntry(k);
+			assertEquals(expected.higherKey(k), e == null ? null : e.getKey());
+		}
+
+		for (int k : new ArrayList<>(expected.keySet()))
+			assertEquals(expected.remove(k), map.remove(k));
+		assertEquals(0, map.size());
+	}
+}
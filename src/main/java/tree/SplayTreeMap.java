@@ -0,0 +1,185 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.BSTNode;
+
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * An implementation of a sorted map using a splay tree.
+ *
+ * Every get, put, remove and navigation call splays the node it reaches to the
+ * root, so keys that are accessed often stay within a few levels of the root
+ * and a sequence of m operations costs O(m log n) in total. Splaying is done
+ * top-down: a single pass from the root splits the search path into a left
+ * and a right tree and reassembles them under the target, with no recursion
+ * and no second walk back up. When the key is absent, the last internal node
+ * on its search path (its predecessor or successor) becomes the root.
+ */
+public class SplayTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public SplayTreeMap() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public SplayTreeMap(Comparator<K> comp) {
+		super(comp);
+	}
+
+	private BSTNode<Entry<K, V>> node(Position<Entry<K, V>> p) {
+		return (BSTNode<Entry<K, V>>) p;
+	}
+
+	private boolean isExternal(BSTNode<Entry<K, V>> n) {
+		return n.getElement() == null;
+	}
+
+	/**
+	 * Splays the node holding key, or the last internal node on key's search
+	 * path, to the root of the tree.
+	 *
+	 * @param key a target key
+	 */
+	protected void splay(K key) {
+		BSTNode<Entry<K, V>> t = node(tree.root());
+		if (isExternal(t))
+			return;
+		// header.right collects the left tree (keys < key), header.left the right tree
+		BSTNode<Entry<K, V>> header = new BSTNode<>(null, null, null, null);
+		BSTNode<Entry<K, V>> leftMax = header;
+		BSTNode<Entry<K, V>> rightMin = header;
+		while (true) {
+			int comp = compare(key, t.getElement().getKey());
+			if (comp < 0) {
+				BSTNode<Entry<K, V>> l = node(t.getLeft());
+				if (isExternal(l))
+					break;
+				if (compare(key, l.getElement().getKey()) < 0) { // zig-zig: rotate right
+					tree.relink(t, node(l.getRight()), true);
+					tree.relink(l, t, false);
+					t = l;
+					if (isExternal(node(t.getLeft())))
+						break;
+				}
+				tree.relink(rightMin, t, true); // link t into the right tree
+				rightMin = t;
+				t = node(t.getLeft());
+			} else if (comp > 0) {
+				BSTNode<Entry<K, V>> r = node(t.getRight());
+				if (isExternal(r))
+					break;
+				if (compare(key, r.getElement().getKey()) > 0) { // zag-zag: rotate left
+					tree.relink(t, node(r.getLeft()), false);
+					tree.relink(r, t, true);
+					t = r;
+					if (isExternal(node(t.getRight())))
+						break;
+				}
+				tree.relink(leftMax, t, false); // link t into the left tree
+				leftMax = t;
+				t = node(t.getRight());
+			} else {
+				break;
+			}
+		}
+		// reassemble: t's subtrees go to the inner edges of the left and right trees
+		tree.relink(leftMax, node(t.getLeft()), false);
+		tree.relink(rightMin, node(t.getRight()), true);
+		tree.relink(t, node(header.getRight()), true);
+		tree.relink(t, node(header.getLeft()), false);
+		t.setParent(null);
+		tree.setRoot(t);
+	}
+
+	// returns the root's entry if it holds key, after splaying key to the root
+	private Entry<K, V> splayEntry(K key) {
+		splay(key);
+		Entry<K, V> e = tree.root().getElement();
+		return e != null && compare(key, e.getKey()) == 0 ? e : null;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if no such entry
+	 * exists. The key (or its nearest neighbour) is splayed to the root.
+	 */
+	@Override
+	public V get(K key) throws IllegalArgumentException, IOException {
+		Entry<K, V> e = splayEntry(key);
+		return e == null ? null : e.getValue();
+	}
+
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> p) throws IOException {
+		splay(p.getElement().getKey());
+	}
+
+	@Override
+	protected void rebalanceAccess(Position<Entry<K, V>> p) throws IOException {
+		if (p.getElement() != null)
+			splay(p.getElement().getKey());
+	}
+
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
+		// splay the parent of the removed node; p has taken the removed node's place
+		Position<Entry<K, V>> parent = tree.parent(p);
+		if (parent != null)
+			splay(parent.getElement().getKey());
+	}
+
+	// navigation splays the search key first, so the answer is at or next to the root
+
+	@Override
+	public Entry<K, V> firstEntry() {
+		Entry<K, V> e = super.firstEntry();
+		if (e != null)
+			splay(e.getKey());
+		return e;
+	}
+
+	@Override
+	public Entry<K, V> lastEntry() {
+		Entry<K, V> e = super.lastEntry();
+		if (e != null)
+			splay(e.getKey());
+		return e;
+	}
+
+	@Override
+	public Entry<K, V> ceilingEntry(K key) throws IllegalArgumentException {
+		splay(key);
+		return super.ceilingEntry(key);
+	}
+
+	@Override
+	public Entry<K, V> floorEntry(K key) throws IllegalArgumentException {
+		splay(key);
+		return super.floorEntry(key);
+	}
+
+	@Override
+	public Entry<K, V> lowerEntry(K key) throws IllegalArgumentException {
+		splay(key);
+		return super.lowerEntry(key);
+	}
+
+	@Override
+	public Entry<K, V> higherEntry(K key) throws IllegalArgumentException {
+		splay(key);
+		return super.higherEntry(key);
+	}
+
+	@Override
+	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
+		splay(fromKey);
+		return super.subMap(fromKey, toKey);
+	}
+}
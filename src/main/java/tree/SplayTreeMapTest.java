@@ -0,0 +1,117 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SplayTreeMapTest {
+
+	private static SplayTreeMap<Integer, String> sample() throws IOException {
+		SplayTreeMap<Integer, String> map = new SplayTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	private static Integer rootKey(SplayTreeMap<Integer, ?> map) {
+		return map.tree.root().getElement().getKey();
+	}
+
+	@Test
+	void testAccessSplaysToRoot() throws IOException {
+		SplayTreeMap<Integer, String> map = sample();
+		assertEquals(5, rootKey(map)); // last inserted
+		assertEquals("15", map.get(15));
+		assertEquals(15, rootKey(map));
+		assertNull(map.get(13));
+		int root = rootKey(map);
+		assertTrue(root == 12 || root == 15); // a neighbour of the missing key
+		map.put(24, "twenty-four");
+		assertEquals(24, rootKey(map));
+		assertEquals(35, map.lastEntry().getKey());
+		assertEquals(35, rootKey(map));
+	}
+
+	@Test
+	void testNavigation() throws IOException {
+		SplayTreeMap<Integer, String> map = sample();
+		assertEquals(1, map.firstEntry().getKey());
+		assertEquals(12, map.ceilingEntry(11).getKey());
+		assertEquals(2, map.ceilingEntry(2).getKey());
+		assertEquals(5, map.floorEntry(11).getKey());
+		assertEquals(5, map.floorEntry(5).getKey());
+		assertEquals(23, map.lowerEntry(24).getKey());
+		assertEquals(26, map.lowerEntry(31).getKey());
+		assertEquals(12, map.higherEntry(11).getKey());
+		assertNull(map.higherEntry(35));
+		assertNull(map.lowerEntry(1));
+		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
+	}
+
+	@Test
+	void testSortedInsertionDoesNotRecurse() throws IOException {
+		// sorted insertion builds a single path, which recursive code would overflow on
+		SplayTreeMap<Integer, Integer> map = new SplayTreeMap<>();
+		for (int i = 0; i < 200000; i++)
+			map.put(i, i);
+		int count = 0;
+		for (Entry<Integer, Integer> e : map.subMap(0, 200000)) // splaying 0 only halves the path
+			assertEquals(count++, e.getKey());
+		assertEquals(200000, count);
+		assertEquals(0, map.get(0));
+		assertEquals(200000, map.size());
+		count = 0;
+		for (Entry<Integer, Integer> e : map.entrySet())
+			assertEquals(count++, e.getKey());
+		count = 1000;
+		for (Entry<Integer, Integer> e : map.subMap(1000, 1010))
+			assertEquals(count++, e.getKey());
+		assertEquals(1010, count);
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() throws IOException {
+		SplayTreeMap<Integer, Integer> map = new SplayTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(500);
+			int op = rand.nextInt(4);
+			if (op == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else if (op == 1) {
+				assertEquals(expected.get(k), map.get(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : map.entrySet())
+			keys.add(e.getKey());
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+		for (int k = -1; k <= 501; k += 3) {
+			Entry<Integer, Integer> e = map.floorEntry(k);
+			assertEquals(expected.floorKey(k), e == null ? null : e.getKey());
+			e = map.ceilingEntry(k);
+			assertEquals(expected.ceilingKey(k), e == null ? null : e.getKey());
+			e = map.lowerEntry(k);
+			assertEquals(expected.lowerKey(k), e == null ? null : e.getKey());
+			e = map.higherEntry(k);
+			assertEquals(expected.higherKey(k), e == null ? null : e.getKey());
+		}
+	}
+}
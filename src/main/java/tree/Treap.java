@@ -5,27 +5,31 @@ import interfaces.Entry;
 import org.junit.jupiter.api.Test;
 import tree.BalanceableBinaryTree.*;
 import utils.MapEntry;
+import utils.DefaultComparator;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class Treap<K extends Comparable<K>> extends TreeMap<K, Integer> {
     Random rand;
 
     public Treap() {
-        super();
+        super(new DefaultComparator<>(), NodeType.SIZED);
         rand = new Random();
     }
 
     public Treap(Comparator<K> comp) {
-        super(comp);
+        super(comp, NodeType.SIZED);
         rand = new Random();
     }
 
     public Treap(int a) {
+        super(new DefaultComparator<>(), NodeType.SIZED);
         rand = new Random(a);
     }
 
@@ -42,6 +46,358 @@ public class Treap<K extends Comparable<K>> extends TreeMap<K, Integer> {
         }
     }
 
+    /**
+     * Removes the entry with the specified key. The node is first rotated down
+     * below its higher-priority child until it has a sentinel child, so that
+     * entries, and so priorities, never move to another node and the heap order
+     * is kept.
+     */
+    @Override
+    public Integer remove(K key) throws IllegalArgumentException, IOException {
+        Position<Entry<K, Integer>> p = treeSearch(tree.root(), key);
+        if (p.getElement() == null)
+            return null;
+        while (tree.left(p).getElement() != null && tree.right(p).getElement() != null) {
+            Position<Entry<K, Integer>> left = tree.left(p), right = tree.right(p);
+            rotate(left.getElement().getValue() > right.getElement().getValue() ? left : right);
+        }
+        return super.remove(key);
+    }
+
+    // adaptive mode: sampled reads may raise the priority of the key read
+
+    private double sampleRate = 0; // fraction of successful gets that try to promote their key
+
+    /**
+     * Turns frequency-adaptive priorities on or off. In adaptive mode, each
+     * successful get is sampled with the given probability; a sampled read draws
+     * a fresh random priority and, if it beats the key's current one, keeps it
+     * and rotates the node up. A key's priority is then the maximum of
+     * 1 + (sampled reads) uniform draws, so keys read often drift toward the
+     * root with expected depth O(log(n / reads)), while every priority is still
+     * random and cold keys keep their expected O(log n) depth. Unlike splaying,
+     * most reads write nothing.
+     *
+     * @param sampleRate probability in [0, 1] that a read tries a promotion;
+     *                   0 turns adaptive mode off
+     * @throws IllegalArgumentException if sampleRate is outside [0, 1]
+     */
+    public void setAdaptive(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1))
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Returns the priority of the given key, or null if it is absent. In
+     * adaptive mode this may first raise the priority (see setAdaptive).
+     */
+    @Override
+    public Integer get(K key) throws IllegalArgumentException, IOException {
+        Position<Entry<K, Integer>> p = treeSearch(tree.root(), key);
+        if (p.getElement() == null)
+            return null;
+        if (sampleRate > 0 && rand.nextDouble() < sampleRate) {
+            int candidate = rand.nextInt();
+            if (candidate > p.getElement().getValue()) {
+                tree.set(p, new MapEntry<>(p.getElement().getKey(), candidate));
+                rebalanceInsert(p); // rotates p up while it outranks its parent
+            }
+        }
+        return p.getElement().getValue();
+    }
+
+    // split and join: whole subtrees are relinked, so both run in expected O(log n)
+
+    // result of a three-way split; the parts are disjoint subtrees, so splits may run concurrently
+    private static final class Split<K> {
+        BSTNode<Entry<K, Integer>> low;   // keys less than the split key
+        BSTNode<Entry<K, Integer>> match; // node holding the split key, or null
+        BSTNode<Entry<K, Integer>> high;  // keys greater than the split key
+    }
+
+    private static <K> int priority(BSTNode<Entry<K, Integer>> node) {
+        return node.getElement().getValue();
+    }
+
+    private BSTNode<Entry<K, Integer>> left(BSTNode<Entry<K, Integer>> node) {
+        return (BSTNode<Entry<K, Integer>>) tree.left(node);
+    }
+
+    private BSTNode<Entry<K, Integer>> right(BSTNode<Entry<K, Integer>> node) {
+        return (BSTNode<Entry<K, Integer>>) tree.right(node);
+    }
+
+    private void updateSize(BSTNode<Entry<K, Integer>> node) {
+        tree.setSize(node, 1 + tree.getSize(tree.left(node)) + tree.getSize(tree.right(node)));
+    }
+
+    private BSTNode<Entry<K, Integer>> sentinel() {
+        return tree.createNode(null, null, null, null);
+    }
+
+    // splits the subtree rooted at node around key; the match keeps its old children, which are stale
+    private Split<K> split(BSTNode<Entry<K, Integer>> node, K key) {
+        Split<K> s;
+        if (node.getElement() == null) {
+            s = new Split<>();
+            s.low = node;
+            s.high = sentinel(); // each half needs its own sentinel
+            return s;
+        }
+        int comp = compare(node.getElement().getKey(), key);
+        if (comp == 0) {
+            s = new Split<>();
+            s.low = left(node);
+            s.match = node;
+            s.high = right(node);
+        } else if (comp < 0) {
+            s = split(right(node), key);
+            tree.relink(node, s.low, false);
+            updateSize(node);
+            s.low = node;
+        } else {
+            s = split(left(node), key);
+            tree.relink(node, s.high, true);
+            updateSize(node);
+            s.high = node;
+        }
+        return s;
+    }
+
+    // gives node the subtrees low and high as its children
+    private BSTNode<Entry<K, Integer>> link(BSTNode<Entry<K, Integer>> low, BSTNode<Entry<K, Integer>> node,
+                                           BSTNode<Entry<K, Integer>> high) {
+        tree.relink(node, low, true);
+        tree.relink(node, high, false);
+        updateSize(node);
+        return node;
+    }
+
+    // joins two subtrees, every key in a being less than every key in b, and returns the new root
+    private BSTNode<Entry<K, Integer>> merge(BSTNode<Entry<K, Integer>> a, BSTNode<Entry<K, Integer>> b) {
+        if (a.getElement() == null)
+            return b;
+        if (b.getElement() == null)
+            return a;
+        if (priority(a) > priority(b)) {
+            tree.relink(a, merge(right(a), b), false);
+            updateSize(a);
+            return a;
+        } else {
+            tree.relink(b, merge(a, left(b)), true);
+            updateSize(b);
+            return b;
+        }
+    }
+
+    // makes node the root of this treap and recounts the tree's positions
+    private void setRoot(BSTNode<Entry<K, Integer>> node) {
+        node.setParent(null);
+        tree.setRoot(node);
+        tree.size = 2 * tree.getSize(node) + 1; // entries plus their sentinel leaves
+    }
+
+    private BSTNode<Entry<K, Integer>> root() {
+        return (BSTNode<Entry<K, Integer>>) tree.root();
+    }
+
+    /**
+     * Splits this treap at the given key: entries with smaller keys stay in this
+     * treap and the others are moved to the returned treap, which uses the same
+     * comparator. Runs in expected O(log n) time.
+     *
+     * @param key the key at which to split; it need not be present
+     * @return a treap holding the entries with keys greater than or equal to key
+     */
+    public Treap<K> split(K key) {
+        Split<K> s = split(root(), key);
+        if (s.match != null) // ancestors moved into high may outrank it, so it is merged in as the smallest key
+            s.high = merge(link(sentinel(), s.match, sentinel()), s.high);
+        Treap<K> result = new Treap<>(comparator());
+        setRoot(s.low);
+        result.setRoot(s.high);
+        return result;
+    }
+
+    /**
+     * Moves all entries of right into left and returns left, leaving right empty.
+     * Every key of left must be less than every key of right. Runs in expected
+     * O(log n) time.
+     *
+     * @param left  treap holding the smaller keys
+     * @param right treap holding the greater keys
+     * @return left, now holding the entries of both
+     * @throws IllegalArgumentException if the key ranges of the treaps overlap
+     */
+    public static <K extends Comparable<K>> Treap<K> join(Treap<K> left, Treap<K> right) {
+        if (left == right)
+            throw new IllegalArgumentException("Cannot join a treap with itself");
+        if (!left.isEmpty() && !right.isEmpty()
+                && left.compare(left.lastEntry().getKey(), right.firstEntry().getKey()) >= 0)
+            throw new IllegalArgumentException("Keys of the left treap must precede those of the right treap");
+        left.setRoot(left.merge(left.root(), right.root()));
+        right.makeEmpty();
+        return left;
+    }
+
+    // drops every entry, leaving a fresh sentinel leaf as in an empty TreeMap
+    private void makeEmpty() {
+        tree.setRoot(null);
+        tree.size = 0;
+        tree.addRoot(null);
+    }
+
+    // set operations: each recursive step splits one treap by the root key of the other
+
+    // combined size below which the two halves of a set operation are not forked
+    private static final int SEQUENTIAL_CUTOFF = 4096;
+
+    private enum SetOp { UNION, INTERSECTION, DIFFERENCE }
+
+    private BSTNode<Entry<K, Integer>> combine(SetOp op, BSTNode<Entry<K, Integer>> a, BSTNode<Entry<K, Integer>> b) {
+        if (a.getElement() == null)
+            return op == SetOp.UNION ? b : a;
+        if (b.getElement() == null)
+            return op == SetOp.INTERSECTION ? b : a;
+        if (op != SetOp.DIFFERENCE && priority(a) < priority(b)) { // symmetric: keep the higher priority on top
+            BSTNode<Entry<K, Integer>> tmp = a;
+            a = b;
+            b = tmp;
+        }
+        boolean fork = tree.getSize(a) + tree.getSize(b) > SEQUENTIAL_CUTOFF;
+        Split<K> s = split(b, a.getElement().getKey());
+        BSTNode<Entry<K, Integer>> aLeft = left(a), aRight = right(a);
+        BSTNode<Entry<K, Integer>> low, high;
+        if (fork) {
+            ForkJoinTask<BSTNode<Entry<K, Integer>>> lowTask = ForkJoinTask.adapt(() -> combine(op, aLeft, s.low)).fork();
+            high = combine(op, aRight, s.high);
+            low = lowTask.join();
+        } else {
+            low = combine(op, aLeft, s.low);
+            high = combine(op, aRight, s.high);
+        }
+        boolean keep = op == SetOp.UNION || (op == SetOp.INTERSECTION) == (s.match != null);
+        return keep ? link(low, a, high) : merge(low, high);
+    }
+
+    private static <K extends Comparable<K>> Treap<K> setOperation(SetOp op, Treap<K> a, Treap<K> b, ForkJoinPool pool) {
+        if (a == b)
+            throw new IllegalArgumentException("Cannot combine a treap with itself");
+        a.setRoot(pool.invoke(ForkJoinTask.adapt(() -> a.combine(op, a.root(), b.root()))));
+        b.makeEmpty();
+        return a;
+    }
+
+    /**
+     * Moves the entries of b into a, keeping one entry for each key present in
+     * both, and returns a; b is left empty. The treaps are combined by splitting
+     * rather than by inserting, in O(m log(n/m + 1)) expected work for sizes
+     * m &lt;= n, and the two halves of every large split are combined in
+     * parallel on the common ForkJoinPool. Both treaps must use the same order.
+     *
+     * @return a, now holding the union
+     */
+    public static <K extends Comparable<K>> Treap<K> union(Treap<K> a, Treap<K> b) {
+        return union(a, b, ForkJoinPool.commonPool());
+    }
+
+    /** Like {@link #union(Treap, Treap)}, running on the given pool. */
+    public static <K extends Comparable<K>> Treap<K> union(Treap<K> a, Treap<K> b, ForkJoinPool pool) {
+        return setOperation(SetOp.UNION, a, b, pool);
+    }
+
+    /**
+     * Keeps in a only the keys that are also in b and returns a; b is left
+     * empty. Same cost and parallelism as {@link #union(Treap, Treap)}.
+     *
+     * @return a, now holding the intersection
+     */
+    public static <K extends Comparable<K>> Treap<K> intersection(Treap<K> a, Treap<K> b) {
+        return intersection(a, b, ForkJoinPool.commonPool());
+    }
+
+    /** Like {@link #intersection(Treap, Treap)}, running on the given pool. */
+    public static <K extends Comparable<K>> Treap<K> intersection(Treap<K> a, Treap<K> b, ForkJoinPool pool) {
+        return setOperation(SetOp.INTERSECTION, a, b, pool);
+    }
+
+    /**
+     * Removes from a every key that is in b and returns a; b is left empty.
+     * Same cost and parallelism as {@link #union(Treap, Treap)}.
+     *
+     * @return a, now holding the difference
+     */
+    public static <K extends Comparable<K>> Treap<K> difference(Treap<K> a, Treap<K> b) {
+        return difference(a, b, ForkJoinPool.commonPool());
+    }
+
+    /** Like {@link #difference(Treap, Treap)}, running on the given pool. */
+    public static <K extends Comparable<K>> Treap<K> difference(Treap<K> a, Treap<K> b, ForkJoinPool pool) {
+        return setOperation(SetOp.DIFFERENCE, a, b, pool);
+    }
+
+    /**
+     * Removes every entry with a key in the range from <code>fromKey</code>
+     * inclusive to <code>toKey</code> exclusive. The range is cut out with two
+     * splits and a join, so this takes expected O(log n) time however many
+     * entries are removed.
+     *
+     * @return the number of entries removed
+     */
+    public int removeRange(K fromKey, K toKey) {
+        return extractRange(fromKey, toKey).size();
+    }
+
+    /**
+     * Removes the entries with keys in the range from <code>fromKey</code>
+     * inclusive to <code>toKey</code> exclusive and returns them as a treap.
+     * Takes expected O(log n) time; iterating over the result costs its size.
+     *
+     * @return a treap holding the removed entries
+     */
+    public Treap<K> extractRange(K fromKey, K toKey) {
+        if (compare(fromKey, toKey) >= 0)
+            return new Treap<>(comparator());
+        Treap<K> middle = split(fromKey);
+        Treap<K> upper = middle.split(toKey);
+        join(this, upper);
+        return middle;
+    }
+
+    // bulk loading: TreeMap's Cartesian tree builder, weighted by the priority held in each entry
+
+    /**
+     * Fills this empty treap with the given entries, whose values are their
+     * priorities, in O(n) time. Each new entry pops the lower-priority nodes off
+     * the right spine, takes them as its left subtree and becomes the right child
+     * of the remaining spine top, so the result is exactly the treap that
+     * inserting the entries one by one would give, without any rotation.
+     *
+     * @param sortedEntries entries in strictly increasing key order
+     * @throws IllegalStateException    if the treap is not empty
+     * @throws IllegalArgumentException if the keys are not strictly increasing
+     */
+    @Override
+    public void bulkLoad(List<? extends Entry<K, Integer>> sortedEntries) {
+        bulkLoadCartesian(sortedEntries, p -> p.getElement().getValue());
+    }
+
+    /**
+     * Fills this empty treap with the given keys and random priorities in O(n)
+     * time, as bulkLoad does.
+     *
+     * @param sortedKeys keys in strictly increasing order
+     * @throws IllegalStateException    if the treap is not empty
+     * @throws IllegalArgumentException if the keys are not strictly increasing
+     */
+    public void bulkLoadKeys(List<K> sortedKeys) {
+        List<Entry<K, Integer>> entries = new ArrayList<>(sortedKeys.size());
+        for (K key : sortedKeys)
+            entries.add(new MapEntry<>(key, rand.nextInt()));
+        bulkLoad(entries);
+    }
+
     public Iterable<Position<Entry<K, Integer>>> treapSort(ArrayList<K> arr) throws IllegalArgumentException, IOException {
         Treap<K> map = new Treap<>();
 
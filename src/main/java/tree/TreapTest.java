@@ -12,6 +12,7 @@ import java.util.Random;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TreapTest {
 
@@ -69,4 +70,225 @@ public class TreapTest {
         //assertEquals(Arrays.toString(arr2), Arrays.toString(map.treapSort(arr).toArray()));
     }
 
+    @Test
+    public void testOrderStatistics() throws IOException {
+        Treap<Integer> map = new Treap<>(1);
+        Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+        for(Integer i : arr) {
+            map.put(i);
+        }
+        map.remove(24);
+
+        Integer[] sorted = new Integer[] {1,2,4,5,12,15,21,23,26,33,35};
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], map.select(i).getKey());
+            assertEquals(i, map.rank(sorted[i]));
+        }
+        assertEquals(8, map.rank(24));
+        assertEquals(4, map.countRange(5, 22));
+        assertEquals(0, map.countRange(36, 40));
+    }
+
+    private static String keys(Treap<Integer> map) {
+        ArrayList<Integer> keys = new ArrayList<>();
+        for (Entry<Integer, Integer> e : map.entrySet())
+            keys.add(e.getKey());
+        return keys.toString();
+    }
+
+    @Test
+    public void testSplitAndJoin() throws IOException {
+        Treap<Integer> map = new Treap<>(1);
+        Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+        for(Integer i : arr) {
+            map.put(i);
+        }
+
+        Treap<Integer> upper = map.split(21); // a present key
+        assertEquals("[1, 2, 4, 5, 12, 15]", keys(map));
+        assertEquals("[21, 23, 24, 26, 33, 35]", keys(upper));
+        assertEquals(6, map.size());
+        assertEquals(6, upper.size());
+        assertEquals(3, upper.rank(26));
+
+        upper.put(40);
+        map.put(3);
+        Treap.join(map, upper);
+        assertEquals("[1, 2, 3, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35, 40]", keys(map));
+        assertEquals(14, map.size());
+        assertTrue(upper.isEmpty());
+        upper.put(7);
+        assertEquals("[7]", keys(upper));
+
+        Treap<Integer> window = map.extractRange(4, 24);
+        assertEquals("[4, 5, 12, 15, 21, 23]", keys(window));
+        assertEquals("[1, 2, 3, 24, 26, 33, 35, 40]", keys(map));
+        assertEquals(3, map.removeRange(25, 36));
+        assertEquals("[1, 2, 3, 24, 40]", keys(map));
+        assertEquals(24, map.select(3).getKey().intValue());
+        assertEquals(0, map.removeRange(10, 20));
+        assertTreap(new java.util.TreeSet<>(Arrays.asList(1, 2, 3, 24, 40)), map);
+
+        // splitting at present keys must keep the heap order on both sides
+        Random rand = new Random(1);
+        Treap<Integer> big = new Treap<>(1);
+        java.util.TreeSet<Integer> expected = new java.util.TreeSet<>();
+        for (int k = 0; k < 4096; k++) {
+            big.put(k);
+            expected.add(k);
+        }
+        for (int ix = 0; ix < 2000; ix++) {
+            Treap<Integer> high = big.split(rand.nextInt(4096));
+            assertTreap(new java.util.TreeSet<>(expected.headSet(high.isEmpty() ? 4096 : high.firstEntry().getKey())), big);
+            Treap.join(big, high);
+        }
+        assertTreap(expected, big);
+        assertTrue(big.tree.height(big.tree.root()) < 60);
+    }
+
+    private static Treap<Integer> randomTreap(java.util.TreeSet<Integer> keys, int count, int bound, Random rand) throws IOException {
+        Treap<Integer> map = new Treap<>(rand.nextInt());
+        while (keys.size() < count) {
+            int k = rand.nextInt(bound);
+            if (keys.add(k))
+                map.put(k);
+        }
+        return map;
+    }
+
+    private static void assertTreap(java.util.TreeSet<Integer> expected, Treap<Integer> map) {
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.toString(), keys(map));
+        if (!expected.isEmpty())
+            assertEquals(expected.last(), map.select(expected.size() - 1).getKey());
+        for (Position<Entry<Integer, Integer>> p : map.tree.inorder()) {
+            Position<Entry<Integer, Integer>> parent = map.tree.parent(p);
+            if (parent != null)
+                assertTrue(parent.getElement().getValue() >= p.getElement().getValue());
+        }
+    }
+
+    @Test
+    public void testSetOperations() throws IOException {
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        Random rand = new Random(1);
+        for (int[] sizes : new int[][] {{0, 100}, {50, 50}, {20000, 5000}, {3000, 40000}}) {
+            for (int op = 0; op < 3; op++) {
+                java.util.TreeSet<Integer> a = new java.util.TreeSet<>(), b = new java.util.TreeSet<>();
+                Treap<Integer> ta = randomTreap(a, sizes[0], 100000, rand);
+                Treap<Integer> tb = randomTreap(b, sizes[1], 100000, rand);
+                Treap<Integer> result;
+                if (op == 0) {
+                    a.addAll(b);
+                    result = Treap.union(ta, tb, pool);
+                } else if (op == 1) {
+                    a.retainAll(b);
+                    result = Treap.intersection(ta, tb, pool);
+                } else {
+                    a.removeAll(b);
+                    result = Treap.difference(ta, tb);
+                }
+                assertTrue(result == ta);
+                assertTreap(a, result);
+                assertTrue(tb.isEmpty());
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRemoveKeepsHeapOrder() throws IOException {
+        Random rand = new Random(1);
+        Treap<Integer> map = new Treap<>(1);
+        java.util.TreeSet<Integer> expected = new java.util.TreeSet<>();
+        for (int ix = 0; ix < 5000; ix++) {
+            int k = rand.nextInt(1000);
+            if (rand.nextBoolean()) {
+                if (expected.add(k))
+                    map.put(k);
+            } else {
+                assertEquals(expected.remove(k), map.remove(k) != null);
+            }
+        }
+        assertTreap(expected, map);
+    }
+
+    @Test
+    public void testAdaptivePromotesHotKeys() throws IOException {
+        Treap<Integer> map = new Treap<>(1);
+        java.util.TreeSet<Integer> expected = new java.util.TreeSet<>();
+        for (int k = 0; k < 10000; k++) {
+            map.put(k);
+            expected.add(k);
+        }
+        map.setAdaptive(0.5);
+        for (int ix = 0; ix < 2000; ix++)
+            map.get(1234);
+        Position<Entry<Integer, Integer>> p = map.treeSearch(map.tree.root(), 1234);
+        assertTrue(map.tree.depth(p) <= 8); // the average depth at this size is about 2 ln n = 18
+        assertEquals(null, map.get(-1));
+        assertTreap(expected, map);
+        assertThrows(IllegalArgumentException.class, () -> map.setAdaptive(1.5));
+    }
+
+    @Test
+    public void testBulkLoad() throws IOException {
+        Random rand = new Random(1);
+        java.util.TreeSet<Integer> expected = new java.util.TreeSet<>();
+        while (expected.size() < 5000)
+            expected.add(rand.nextInt(100000));
+
+        // the Cartesian build gives the same tree as inserting with the same priorities
+        ArrayList<Entry<Integer, Integer>> entries = new ArrayList<>();
+        Treap<Integer> inserted = new Treap<>(1);
+        for (Integer k : expected) {
+            entries.add(new utils.MapEntry<>(k, rand.nextInt()));
+            inserted.put(k, entries.get(entries.size() - 1).getValue());
+        }
+        Treap<Integer> map = new Treap<>(1);
+        map.bulkLoad(entries);
+        assertTreap(expected, map);
+        assertEquals(inserted.tree.root().getElement().getKey(), map.tree.root().getElement().getKey());
+        assertEquals(inserted.tree.height(inserted.tree.root()), map.tree.height(map.tree.root()));
+
+        Treap<Integer> keysOnly = new Treap<>(1);
+        keysOnly.bulkLoadKeys(new ArrayList<>(expected));
+        assertTreap(expected, keysOnly);
+        keysOnly.put(-1);
+        keysOnly.remove(expected.first());
+        expected.add(-1);
+        expected.remove(expected.higher(-1));
+        assertTreap(expected, keysOnly);
+
+        assertThrows(IllegalStateException.class, () -> keysOnly.bulkLoadKeys(Arrays.asList(1, 2)));
+        assertThrows(IllegalArgumentException.class, () -> new Treap<Integer>().bulkLoadKeys(Arrays.asList(2, 2)));
+    }
+
+    @Test
+    public void testRemoveRangeRandom() throws IOException {
+        Random rand = new Random(1);
+        Treap<Integer> map = new Treap<>(1);
+        java.util.TreeSet<Integer> expected = new java.util.TreeSet<>();
+
+        for (int ix = 0; ix < 2000; ix++) {
+            int k = rand.nextInt(10000);
+            if (rand.nextInt(20) == 0) {
+                int to = k + rand.nextInt(500);
+                int removed = expected.subSet(k, to).size();
+                expected.subSet(k, to).clear();
+                assertEquals(removed, map.removeRange(k, to));
+            } else if (expected.add(k)) {
+                map.put(k);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertTreap(expected, map);
+        assertEquals(expected.toString(), keys(map));
+        int i = 0;
+        for (Integer k : expected)
+            assertEquals(k, map.select(i++).getKey());
+    }
+
 }
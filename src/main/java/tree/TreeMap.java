@@ -1,5 +1,6 @@
 package tree;
 
+import utils.DefaultComparator;
 import utils.MapEntry;
 
 import interfaces.Entry;
@@ -7,8 +8,12 @@ import interfaces.Position;
 import tree.BalanceableBinaryTree.*;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
 
 /**
  * An implementation of a sorted map using a binary search tree.
@@ -16,12 +21,18 @@ import java.util.Comparator;
 
 public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V> {
 
-	public BalanceableBinaryTree<K, V> tree = new BalanceableBinaryTree<>();
+	public BalanceableBinaryTree<K, V> tree;
+
+	/**
+	 * Whether every node's subtree size is kept up to date, which enables rank,
+	 * select and countRange. True when the nodes are not PLAIN, which subclasses
+	 * whose rebalancing only uses rotate and restructure may ask for.
+	 */
+	protected final boolean countSizes;
 
 	/** Constructs an empty map using the natural ordering of keys. */
 	public TreeMap() {
-		super(); // the AbstractSortedMap constructor
-		tree.addRoot(null); // create a sentinel leaf as root
+		this(new DefaultComparator<>(), NodeType.PLAIN);
 	}
 
 	/**
@@ -30,7 +41,19 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 	 * @param comp comparator defining the order of keys in the map
 	 */
 	public TreeMap(Comparator<K> comp) {
+		this(comp, NodeType.PLAIN);
+	}
+
+	/**
+	 * Constructs an empty map whose nodes carry the fields of the given type.
+	 *
+	 * @param comp     comparator defining the order of keys in the map
+	 * @param nodeType fields of every node; any but PLAIN turns on countSizes
+	 */
+	protected TreeMap(Comparator<K> comp, NodeType nodeType) {
 		super(comp); // the AbstractSortedMap constructor
+		tree = new BalanceableBinaryTree<>(nodeType);
+		countSizes = nodeType != NodeType.PLAIN;
 		tree.addRoot(null); // create a sentinel leaf as root
 	}
 
@@ -60,10 +83,12 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 
 	/**
 	 * Rebalances the tree after a child of specified position has been removed.
-	 * This version of the method does not do anything, but it can be overridden by
-	 * subclasses.
+	 * The size of the map has already been decreased, so size() is the final
+	 * size. This version of the method does not do anything, but it can be
+	 * overridden by subclasses.
 	 *
-	 * @param p the position of the sibling of the removed leaf
+	 * @param p the position of the sibling of the removed leaf, which has taken
+	 *          the place of the removed node
 	 */
 	protected void rebalanceDelete(Position<Entry<K, V>> p) throws IOException {
 		// LEAVE EMPTY
@@ -89,6 +114,9 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 		// Create two new external leaves as children
 		tree.addLeft(p, null);
 		tree.addRight(p, null);
+		if (countSizes)
+			for (Position<Entry<K, V>> q = p; q != null; q = tree.parent(q))
+				tree.setSize(q, tree.getSize(q) + 1);
 		// Rebalance if necessary (can call rebalanceInsert, even though default is empty)
 		try {
 			rebalanceInsert(p);
@@ -106,17 +134,14 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 	 * @return Position holding key, or last node reached during search
 	 */
     protected Position<Entry<K, V>> treeSearch(Position<Entry<K, V>> p, K key) {
-		if (p.getElement() == null) { // external node
-			return p;
-		}
-		int comp = compare(key, p.getElement().getKey());
-		if (comp == 0) {
-			return p; // found exact match
-		} else if (comp < 0) {
-			return treeSearch(tree.left(p), key);
-		} else {
-			return treeSearch(tree.right(p), key);
+		// iterative, so that degenerate (e.g. freshly splayed) trees cannot overflow the stack
+		while (p.getElement() != null) { // stop at an external node
+			int comp = compare(key, p.getElement().getKey());
+			if (comp == 0)
+				return p; // found exact match
+			p = comp < 0 ? tree.left(p) : tree.right(p);
 		}
+		return p;
 	}
 
 	/**
@@ -226,6 +251,7 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 		if (parent == null) {
 			// p is the root; make sibling the new root.
 			tree.setRoot(sibling);
+			((BSTNode<Entry<K, V>>) sibling).setParent(null);
 		} else {
 			if (p == tree.left(parent))
 				tree.relink((BSTNode<Entry<K, V>>)tree.parent(p), (BSTNode<Entry<K, V>>)sibling, true);
@@ -234,12 +260,214 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 		}
 		// p becomes external
 		tree.set(p, null);
-		// Optionally, rebalance after deletion.
-		rebalanceDelete(parent);
-		tree.size--;
+		if (countSizes)
+			for (Position<Entry<K, V>> q = parent; q != null; q = tree.parent(q))
+				tree.setSize(q, tree.getSize(q) - 1);
+		tree.size -= 2; // p and its leaf child are both gone
+		// Optionally, rebalance after deletion, starting from the promoted sibling.
+		rebalanceDelete(sibling);
 		return old;
 	}
 
+	// bulk loading from sorted entries
+
+	/**
+	 * Fills this empty map with the given entries in time linear in their
+	 * number. Instead of inserting the entries one by one, the middle entry of
+	 * every range becomes the root of its subtree, so the tree is perfectly
+	 * balanced and nothing is rotated. Subclasses set up their balance
+	 * information in bulkLoadNode, or override this method when a node's
+	 * children are not enough to do so.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	public void bulkLoad(List<? extends Entry<K, V>> sortedEntries) {
+		checkBulkLoad(sortedEntries);
+		BSTNode<Entry<K, V>> root = bulkLoad(sortedEntries, 0, sortedEntries.size() - 1);
+		root.setParent(null);
+		tree.setRoot(root);
+		tree.size = 2 * sortedEntries.size() + 1; // entries plus their sentinel leaves
+	}
+
+	/**
+	 * Checks that this map is empty and that the entries to load are in strictly
+	 * increasing key order.
+	 */
+	protected void checkBulkLoad(List<? extends Entry<K, V>> sortedEntries) {
+		if (!isEmpty())
+			throw new IllegalStateException("bulkLoad requires an empty map");
+		for (int i = 1; i < sortedEntries.size(); i++)
+			if (compare(sortedEntries.get(i - 1).getKey(), sortedEntries.get(i).getKey()) >= 0)
+				throw new IllegalArgumentException("Keys are not strictly increasing at index " + i);
+	}
+
+	// builds a balanced subtree of the entries in [lo, hi]; the recursion is only O(log n) deep
+	private BSTNode<Entry<K, V>> bulkLoad(List<? extends Entry<K, V>> entries, int lo, int hi) {
+		if (lo > hi)
+			return tree.createNode(null, null, null, null);
+		int mid = (lo + hi) >>> 1;
+		Entry<K, V> e = entries.get(mid);
+		BSTNode<Entry<K, V>> node = tree.createNode(new MapEntry<>(e.getKey(), e.getValue()), null, null, null);
+		tree.relink(node, bulkLoad(entries, lo, mid - 1), true);
+		tree.relink(node, bulkLoad(entries, mid + 1, hi), false);
+		if (countSizes)
+			tree.setSize(node, hi - lo + 1);
+		bulkLoadNode(node);
+		return node;
+	}
+
+	/**
+	 * Fills this empty map, as bulkLoad does, with a treap shape: every entry is
+	 * given the next of the supplied random weights, stored in aux, and the tree
+	 * is the Cartesian tree of the weights. Treap-like subclasses override
+	 * bulkLoad with it.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @param weights       source of the random weights, heap-ordered with the
+	 *                      greatest at the root
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	protected void bulkLoadCartesian(List<? extends Entry<K, V>> sortedEntries, IntSupplier weights) {
+		bulkLoadCartesian(sortedEntries, p -> {
+			int w = weights.getAsInt();
+			tree.setAux(p, w);
+			return w;
+		});
+	}
+
+	/**
+	 * Fills this empty map, as bulkLoad does, with the Cartesian tree of the
+	 * given node weights. The weight function is applied once to each new node,
+	 * in key order, and may read a weight the node already holds (such as a
+	 * priority kept in the entry) or assign one. The nodes are pushed in key
+	 * order onto the right spine, and each node leaves the spine once, so this
+	 * is O(n) with no rotation.
+	 *
+	 * @param sortedEntries entries in strictly increasing key order
+	 * @param weight        weight of a new node, heap-ordered with the greatest
+	 *                      at the root
+	 * @throws IllegalStateException    if the map is not empty
+	 * @throws IllegalArgumentException if the keys are not strictly increasing
+	 */
+	protected void bulkLoadCartesian(List<? extends Entry<K, V>> sortedEntries,
+									 ToIntFunction<Position<Entry<K, V>>> weight) {
+		checkBulkLoad(sortedEntries);
+		if (sortedEntries.isEmpty())
+			return;
+		ArrayDeque<BSTNode<Entry<K, V>>> spine = new ArrayDeque<>();
+		int[] spineWeights = new int[sortedEntries.size()]; // weights of the spine nodes, bottom first
+		for (Entry<K, V> e : sortedEntries) {
+			BSTNode<Entry<K, V>> node = tree.createNode(new MapEntry<>(e.getKey(), e.getValue()), null, null, null);
+			int w = weight.applyAsInt(node);
+			BSTNode<Entry<K, V>> last = null;
+			while (!spine.isEmpty() && spineWeights[spine.size() - 1] < w)
+				last = finishSpineNode(spine.pop());
+			tree.relink(node, last != null ? last : tree.createNode(null, null, null, null), true);
+			if (!spine.isEmpty())
+				tree.relink(spine.peek(), node, false);
+			spineWeights[spine.size()] = w;
+			spine.push(node);
+		}
+		BSTNode<Entry<K, V>> root = null;
+		while (!spine.isEmpty())
+			root = finishSpineNode(spine.pop());
+		tree.setRoot(root);
+		tree.size = 2 * sortedEntries.size() + 1; // entries plus their sentinel leaves
+	}
+
+	// completes a node leaving the right spine: its right child is final, or a sentinel if it has none yet
+	private BSTNode<Entry<K, V>> finishSpineNode(BSTNode<Entry<K, V>> node) {
+		if (tree.right(node) == null)
+			tree.relink(node, tree.createNode(null, null, null, null), false);
+		if (countSizes)
+			tree.setSize(node, 1 + tree.getSize(tree.left(node)) + tree.getSize(tree.right(node)));
+		bulkLoadNode(node);
+		return node;
+	}
+
+	/**
+	 * Sets up the balance information of a node built by bulkLoad, after that of
+	 * its children. This version of the method does not do anything, but it can
+	 * be overridden by subclasses.
+	 *
+	 * @param p the position which was just built
+	 */
+	protected void bulkLoadNode(Position<Entry<K, V>> p) {
+		// LEAVE EMPTY
+	}
+
+	// order statistics, available when subtree sizes are counted
+
+	private void checkCountSizes() {
+		if (!countSizes)
+			throw new UnsupportedOperationException(getClass().getSimpleName() + " does not count subtree sizes");
+	}
+
+	/**
+	 * Returns the number of keys strictly less than the given key.
+	 *
+	 * @param key a key, which need not be present
+	 * @return number of keys less than key
+	 * @throws UnsupportedOperationException if this map does not count subtree sizes
+	 */
+	public int rank(K key) {
+		checkCountSizes();
+		int rank = 0;
+		Position<Entry<K, V>> p = tree.root();
+		while (p.getElement() != null) {
+			int comp = compare(key, p.getElement().getKey());
+			if (comp <= 0) {
+				if (comp == 0)
+					return rank + tree.getSize(tree.left(p));
+				p = tree.left(p);
+			} else {
+				rank += tree.getSize(tree.left(p)) + 1;
+				p = tree.right(p);
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the entry with the i-th smallest key, counting from 0.
+	 *
+	 * @param i index of the entry in key order
+	 * @return the entry of rank i
+	 * @throws IndexOutOfBoundsException     if i is negative or not less than size()
+	 * @throws UnsupportedOperationException if this map does not count subtree sizes
+	 */
+	public Entry<K, V> select(int i) {
+		checkCountSizes();
+		if (i < 0 || i >= size())
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size());
+		Position<Entry<K, V>> p = tree.root();
+		while (true) {
+			int leftSize = tree.getSize(tree.left(p));
+			if (i == leftSize)
+				return p.getElement();
+			if (i < leftSize) {
+				p = tree.left(p);
+			} else {
+				i -= leftSize + 1;
+				p = tree.right(p);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of keys in the range from <code>fromKey</code>
+	 * inclusive to <code>toKey</code> exclusive, without visiting them.
+	 *
+	 * @return number of keys in the range
+	 * @throws UnsupportedOperationException if this map does not count subtree sizes
+	 */
+	public int countRange(K fromKey, K toKey) {
+		return Math.max(0, rank(toKey) - rank(fromKey));
+	}
+
 	// additional behaviors of the SortedMap interface
 
 	/**
@@ -397,13 +625,19 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 		return buffer;
 	}
 
+	// iterative inorder traversal with an explicit stack of pending ancestors
 	private void inorderTraversal(Position<Entry<K, V>> p, ArrayList<Entry<K, V>> buffer) {
-		if (p == null) return;
-		if (p.getElement() == null)
-			return; // external node; do not add
-		inorderTraversal(tree.left(p), buffer);
-		buffer.add(p.getElement());
-		inorderTraversal(tree.right(p), buffer);
+		ArrayDeque<Position<Entry<K, V>>> stack = new ArrayDeque<>();
+		while (p != null && (p.getElement() != null || !stack.isEmpty())) {
+			if (p.getElement() != null) {
+				stack.push(p);
+				p = tree.left(p);
+			} else {
+				p = stack.pop();
+				buffer.add(p.getElement());
+				p = tree.right(p);
+			}
+		}
 	}
 
 
@@ -434,21 +668,30 @@ public class TreeMap<K extends Comparable<K>, V> extends AbstractSortedMap<K, V>
 	@Override
 	public Iterable<Entry<K, V>> subMap(K fromKey, K toKey) throws IllegalArgumentException {
 		ArrayList<Entry<K, V>> buffer = new ArrayList<>();
-		subMapRecurse(fromKey, toKey, tree.root(), buffer);
+		subMapTraversal(fromKey, toKey, tree.root(), buffer);
 		return buffer;
 	}
 
-	// utility to fill subMap buffer recursively (while maintaining order)
-	private void subMapRecurse(K fromKey, K toKey, Position<Entry<K, V>> p, ArrayList<Entry<K, V>> buffer) {
-		if (p == null || p.getElement() == null)  // external node
-			return;
-		K key = p.getElement().getKey();
-		if (compare(key, fromKey) >= 0)
-			subMapRecurse(fromKey, toKey, tree.left(p), buffer);
-		if (compare(key, fromKey) >= 0 && compare(key, toKey) < 0)
+	// fills the subMap buffer in order with an explicit stack, skipping subtrees outside the range
+	private void subMapTraversal(K fromKey, K toKey, Position<Entry<K, V>> p, ArrayList<Entry<K, V>> buffer) {
+		ArrayDeque<Position<Entry<K, V>>> stack = new ArrayDeque<>();
+		while (true) {
+			while (p != null && p.getElement() != null) {
+				if (compare(p.getElement().getKey(), fromKey) >= 0) {
+					stack.push(p);
+					p = tree.left(p);
+				} else {
+					p = tree.right(p); // p and its left subtree are below the range
+				}
+			}
+			if (stack.isEmpty())
+				return;
+			p = stack.pop();
+			if (compare(p.getElement().getKey(), toKey) >= 0)
+				return; // every pending ancestor is larger still
 			buffer.add(p.getElement());
-		if (compare(key, toKey) < 0)
-			subMapRecurse(fromKey, toKey, tree.right(p), buffer);
+			p = tree.right(p);
+		}
 	}
 	
 	protected void rotate(Position<Entry<K, V>> p) {
@@ -2,10 +2,16 @@ package tree;
 
 import interfaces.Entry;
 import org.junit.jupiter.api.Test;
+import utils.MapEntry;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TreeMapTest {
 
@@ -71,6 +77,24 @@ class TreeMapTest {
 
 	}
 
+	@Test
+	void testRemoveAll() throws IOException {
+		TreeMap<Integer, String> map = new TreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		for(Integer i : arr) {
+			map.remove(i);
+		}
+		assertEquals(0, map.size());
+		assertEquals(null, map.firstEntry());
+		map.put(7, "seven");
+		assertEquals(1, map.size());
+		assertEquals("seven", map.get(7));
+	}
+
 	@Test
 	void testFirstEntry() throws IOException {
 		//TreeMap<Integer, String> map = new TreeMap<>();
@@ -196,4 +220,29 @@ class TreeMapTest {
 		assertEquals("[12, 15, 21, 23, 24, 26, 33]", map.subMap(12, 34).toString());
 	}
 
+	@Test
+	void testBulkLoad() throws IOException {
+		List<Entry<Integer, String>> entries = new ArrayList<>();
+		for (int k = 0; k < 1000; k++)
+			entries.add(new MapEntry<>(k * 3, "v" + k));
+		TreeMap<Integer, String> map = new TreeMap<>();
+		map.bulkLoad(entries);
+		assertEquals(1000, map.size());
+		assertEquals(2001, map.tree.size());
+		assertEquals(9, map.tree.height(map.tree.root())); // floor(log2 1000)
+		assertEquals("v7", map.get(21));
+		assertNull(map.get(22));
+		assertEquals(24, map.higherEntry(21).getKey());
+		map.put(22, "x");
+		map.remove(21);
+		assertEquals("x", map.get(22));
+		assertEquals(1000, map.size());
+
+		assertThrows(IllegalStateException.class, () -> map.bulkLoad(entries));
+		List<Entry<Integer, String>> unsorted = List.of(new MapEntry<>(2, "a"), new MapEntry<>(1, "b"));
+		assertThrows(IllegalArgumentException.class, () -> new TreeMap<Integer, String>().bulkLoad(unsorted));
+		TreeMap<Integer, String> empty = new TreeMap<>();
+		empty.bulkLoad(new ArrayList<>());
+		assertTrue(empty.isEmpty());
+	}
 }
@@ -4,6 +4,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
 import interfaces.Entry;
+import interfaces.SortedMap;
 
 public class TreePerformanceComparison {
 
@@ -21,6 +22,7 @@ public class TreePerformanceComparison {
         Treap<Integer> treap = new Treap<>();
         AVLTreeMap<Integer, Integer> AVLTreeMap = new AVLTreeMap<>();
         TreeMap<Integer, Integer> treeMap = new TreeMap<>();
+        RBTreeMap<Integer, Integer> rbTreeMap = new RBTreeMap<>();
 
         // Create CSV writer
         FileWriter csvWriter = new FileWriter("tree_performance_comparison.csv");
@@ -33,22 +35,52 @@ public class TreePerformanceComparison {
             System.out.println("Size: " + size);
 
             // Insert random data
-            benchmarkInsertion(treap, AVLTreeMap, treeMap, randomIntList, size, true, csvWriter);
-            benchmarkInsertion(treap, AVLTreeMap, treeMap, sortedIntList, size, false, csvWriter);
+            benchmarkInsertion(treap, AVLTreeMap, treeMap, rbTreeMap, randomIntList, size, true, csvWriter);
+            benchmarkInsertion(treap, AVLTreeMap, treeMap, rbTreeMap, sortedIntList, size, false, csvWriter);
 
             // Search tests (Successful and Unsuccessful)
             benchmarkSearch(treap, AVLTreeMap, treeMap, randomIntList, size, csvWriter);
             benchmarkSearch(treap, AVLTreeMap, treeMap, sortedIntList, size, csvWriter);
 
             // Deletion tests
-            benchmarkDeletion(treap, AVLTreeMap, treeMap, randomIntList, size, csvWriter);
-            benchmarkDeletion(treap, AVLTreeMap, treeMap, sortedIntList, size, csvWriter);
+            benchmarkDeletion(treap, AVLTreeMap, treeMap, rbTreeMap, randomIntList, size, csvWriter);
+            benchmarkDeletion(treap, AVLTreeMap, treeMap, rbTreeMap, sortedIntList, size, csvWriter);
 
             // In-order Traversal tests
             benchmarkInOrderTraversal(treap, AVLTreeMap, treeMap, randomIntList, size, csvWriter);
             benchmarkInOrderTraversal(treap, AVLTreeMap, treeMap, sortedIntList, size, csvWriter);
         }
 
+        // Node-based vs array-based AVL maps: memory footprint and lookup cost
+        for (int size : new int[]{10000, 100000, 1000000}) {
+            benchmarkPrimitiveMaps(size, csvWriter);
+        }
+
+        // Delete-heavy churn on the rebalancing trees
+        for (int size : new int[]{10000, 100000, 1000000}) {
+            benchmarkChurn(size, csvWriter);
+        }
+
+        // Self-adjusting vs balanced trees under skewed (Zipfian) reads
+        for (int size : new int[]{10000, 100000, 1000000}) {
+            benchmarkZipfianReads(size, csvWriter);
+        }
+
+        // Join-based treap union on 1..N cores vs inserting one treap into the other key by key
+        for (int size : new int[]{100000, 1000000}) {
+            benchmarkTreapUnion(size, csvWriter);
+        }
+
+        // Sorted loading: put one by one vs bulkLoad
+        for (int size : new int[]{100000, 1000000}) {
+            benchmarkBulkLoad(size, csvWriter);
+        }
+
+        // Binary trees vs the B+ tree on large maps; 10^8 entries needs a heap of tens of GB
+        for (int size : new int[]{1000000, 10000000}) {
+            benchmarkLargeSortedMaps(size, csvWriter);
+        }
+
         // Close the CSV writer
         csvWriter.flush();
         csvWriter.close();
@@ -56,7 +88,8 @@ public class TreePerformanceComparison {
 
     // Benchmark the insertion time for single and batch insertion
     private static void benchmarkInsertion(Treap<Integer> treap, AVLTreeMap<Integer, Integer> AVLTreeMap,
-                                           TreeMap<Integer, Integer> treeMap, ArrayList<Integer> data, int size, boolean isRandom,
+                                           TreeMap<Integer, Integer> treeMap, RBTreeMap<Integer, Integer> rbTreeMap,
+                                           ArrayList<Integer> data, int size, boolean isRandom,
                                            FileWriter csvWriter) throws IOException {
         System.out.println("Insertion for " + (isRandom ? "Random" : "Sorted") + " Data of size " + size);
 
@@ -93,10 +126,22 @@ public class TreePerformanceComparison {
             }
         });
 
+        // Insert into RBTreeMap
+        long rbTreeMapTime = benchmark(() -> {
+            for (int ix = 0; ix < size; ix++) {
+                try {
+                    rbTreeMap.put(data.get(ix), data.get(ix));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
         // Write to CSV
         csvWriter.append("Insertion," + "Treap," + size + "," + treapTime + "\n");
         csvWriter.append("Insertion," + "AVLTreeMap," + size + "," + AVLTreeMapTime + "\n");
         csvWriter.append("Insertion," + "TreeMap," + size + "," + treeMapTime + "\n");
+        csvWriter.append("Insertion," + "RBTreeMap," + size + "," + rbTreeMapTime + "\n");
     }
 
     // Benchmark the search time for both successful and unsuccessful searches
@@ -165,7 +210,8 @@ public class TreePerformanceComparison {
 
     // Benchmark the deletion time
     private static void benchmarkDeletion(Treap<Integer> treap, AVLTreeMap<Integer, Integer> AVLTreeMap,
-                                          TreeMap<Integer, Integer> treeMap, ArrayList<Integer> data, int size, FileWriter csvWriter) throws IOException {
+                                          TreeMap<Integer, Integer> treeMap, RBTreeMap<Integer, Integer> rbTreeMap,
+                                          ArrayList<Integer> data, int size, FileWriter csvWriter) throws IOException {
         System.out.println("Deletion for Data of size " + size);
 
         // Delete from Treap
@@ -201,10 +247,22 @@ public class TreePerformanceComparison {
             }
         });
 
+        // Delete from RBTreeMap
+        long rbTreeMapDelTime = benchmark(() -> {
+            for (int ix = 0; ix < size; ix++) {
+                try {
+                    rbTreeMap.remove(data.get(ix));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
         // Write to CSV
         csvWriter.append("Deletion," + "Treap," + size + "," + treapDelTime + "\n");
         csvWriter.append("Deletion," + "AVLTreeMap," + size + "," + AVLTreeMapDelTime + "\n");
         csvWriter.append("Deletion," + "TreeMap," + size + "," + treeMapDelTime + "\n");
+        csvWriter.append("Deletion," + "RBTreeMap," + size + "," + rbTreeMapDelTime + "\n");
     }
 
     // Benchmark the in-order traversal time
@@ -262,6 +320,364 @@ public class TreePerformanceComparison {
         System.out.println("TreeMap In-order Traversal Time: " + treeMapTraversalTime + " ns");
     }
 
+    // Benchmark bytes per entry and ns per put/get of the node-based AVLTreeMap against the array-based maps
+    private static void benchmarkPrimitiveMaps(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Primitive maps for Data of size " + size);
+        int[] keys = new Random(size).ints(size).toArray();
+
+        long before = usedMemory();
+        AVLTreeMap<Integer, Integer> boxed = new AVLTreeMap<>();
+        long boxedPutTime = benchmark(() -> {
+            for (int k : keys) {
+                try {
+                    boxed.put(k, k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        long boxedBytes = usedMemory() - before;
+        long boxedGetTime = benchmark(() -> {
+            for (int k : keys) {
+                try {
+                    boxed.get(k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        before = usedMemory();
+        IntAVLTreeMap<Integer> intMap = new IntAVLTreeMap<>(size);
+        long intPutTime = benchmark(() -> {
+            for (int k : keys) {
+                intMap.put(k, Integer.valueOf(k));
+            }
+        });
+        long intBytes = usedMemory() - before;
+        long intGetTime = benchmark(() -> {
+            for (int k : keys) {
+                intMap.get(k);
+            }
+        });
+
+        before = usedMemory();
+        IntIntAVLTreeMap intIntMap = new IntIntAVLTreeMap(size, 0);
+        long intIntPutTime = benchmark(() -> {
+            for (int k : keys) {
+                intIntMap.put(k, k);
+            }
+        });
+        long intIntBytes = usedMemory() - before;
+        long intIntGetTime = benchmark(() -> {
+            for (int k : keys) {
+                intIntMap.get(k);
+            }
+        });
+
+        before = usedMemory();
+        ArrayAVLTreeMap<Integer, Integer> arrayMap = new ArrayAVLTreeMap<>(size);
+        long arrayPutTime = benchmark(() -> {
+            for (int k : keys) {
+                arrayMap.put(k, k);
+            }
+        });
+        long arrayBytes = usedMemory() - before;
+        long arrayGetTime = benchmark(() -> {
+            for (int k : keys) {
+                arrayMap.get(k);
+            }
+        });
+
+        int n = boxed.size();
+        csvWriter.append("BytesPerEntry," + "AVLTreeMap," + size + "," + boxedBytes / n + "\n");
+        csvWriter.append("BytesPerEntry," + "ArrayAVLTreeMap," + size + "," + arrayBytes / n + "\n");
+        csvWriter.append("BytesPerEntry," + "IntAVLTreeMap," + size + "," + intBytes / n + "\n");
+        csvWriter.append("BytesPerEntry," + "IntIntAVLTreeMap," + size + "," + intIntBytes / n + "\n");
+        csvWriter.append("PutPerOp," + "AVLTreeMap," + size + "," + boxedPutTime / size + "\n");
+        csvWriter.append("PutPerOp," + "ArrayAVLTreeMap," + size + "," + arrayPutTime / size + "\n");
+        csvWriter.append("PutPerOp," + "IntAVLTreeMap," + size + "," + intPutTime / size + "\n");
+        csvWriter.append("PutPerOp," + "IntIntAVLTreeMap," + size + "," + intIntPutTime / size + "\n");
+        csvWriter.append("GetPerOp," + "AVLTreeMap," + size + "," + boxedGetTime / size + "\n");
+        csvWriter.append("GetPerOp," + "ArrayAVLTreeMap," + size + "," + arrayGetTime / size + "\n");
+        csvWriter.append("GetPerOp," + "IntAVLTreeMap," + size + "," + intGetTime / size + "\n");
+        csvWriter.append("GetPerOp," + "IntIntAVLTreeMap," + size + "," + intIntGetTime / size + "\n");
+
+        System.out.println("AVLTreeMap: " + boxedBytes / n + " B/entry, " + boxedGetTime / size + " ns/get");
+        System.out.println("ArrayAVLTreeMap: " + arrayBytes / n + " B/entry, " + arrayGetTime / size + " ns/get");
+        System.out.println("IntAVLTreeMap: " + intBytes / n + " B/entry, " + intGetTime / size + " ns/get");
+        System.out.println("IntIntAVLTreeMap: " + intIntBytes / n + " B/entry, " + intIntGetTime / size + " ns/get");
+    }
+
+    // Benchmark put, get, ceilingEntry, short subMap scans and a full in-order scan on large maps
+    private static void benchmarkLargeSortedMaps(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Large sorted maps for Data of size " + size);
+        int[] keys = new Random(size).ints(size).toArray();
+        int[] probes = new Random(size + 1).ints(1000000).toArray();
+
+        benchmarkLargeSortedMap("AVLTreeMap", new AVLTreeMap<>(), keys, probes, csvWriter);
+        benchmarkLargeSortedMap("ArrayAVLTreeMap", new ArrayAVLTreeMap<>(size), keys, probes, csvWriter);
+        benchmarkLargeSortedMap("BPlusTreeMap", new BPlusTreeMap<>(), keys, probes, csvWriter);
+    }
+
+    private static void benchmarkLargeSortedMap(String name, SortedMap<Integer, Integer> map, int[] keys,
+                                                int[] probes, FileWriter csvWriter) throws IOException {
+        long putTime = benchmark(() -> {
+            for (int k : keys) {
+                try {
+                    map.put(k, k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        long getTime = benchmark(() -> {
+            for (int ix = 0; ix < probes.length; ix++) {
+                try {
+                    map.get(keys[ix % keys.length]);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        long ceilingTime = benchmark(() -> {
+            for (int k : probes) {
+                map.ceilingEntry(k);
+            }
+        });
+        // ranges that hold about 100 entries each
+        long width = 100L * (1L << 32) / keys.length;
+        long subMapTime = benchmark(() -> {
+            for (int ix = 0; ix < 10000; ix++) {
+                int from = probes[ix];
+                int to = (int) Math.min(Integer.MAX_VALUE, from + width);
+                for (Entry<Integer, Integer> entry : map.subMap(from, to)) {
+                    Integer key = entry.getKey();
+                }
+            }
+        });
+        long traversalTime = benchmark(() -> {
+            for (Entry<Integer, Integer> entry : map.entrySet()) {
+                Integer key = entry.getKey();
+            }
+        });
+
+        int size = keys.length;
+        csvWriter.append("PutPerOp," + name + "," + size + "," + putTime / size + "\n");
+        csvWriter.append("GetPerOp," + name + "," + size + "," + getTime / probes.length + "\n");
+        csvWriter.append("CeilingPerOp," + name + "," + size + "," + ceilingTime / probes.length + "\n");
+        csvWriter.append("SubMap100PerOp," + name + "," + size + "," + subMapTime / 10000 + "\n");
+        csvWriter.append("InOrderTraversal," + name + "," + size + "," + traversalTime + "\n");
+
+        System.out.println(name + ": " + getTime / probes.length + " ns/get, " + ceilingTime / probes.length
+                + " ns/ceiling, " + subMapTime / 10000 + " ns/subMap, " + traversalTime / 1000000 + " ms/scan");
+    }
+
+    // Benchmark a steady-state churn: each step removes a random present key and inserts a fresh one
+    private static void benchmarkChurn(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Churn for Data of size " + size);
+        benchmarkChurn("AVLTreeMap", new AVLTreeMap<>(), size, csvWriter);
+        benchmarkChurn("RBTreeMap", new RBTreeMap<>(), size, csvWriter);
+        benchmarkChurn("WAVLTreeMap", new WAVLTreeMap<>(), size, csvWriter);
+        benchmarkChurn("ZipTreeMap", new ZipTreeMap<>(), size, csvWriter);
+    }
+
+    private static void benchmarkChurn(String name, TreeMap<Integer, Integer> map, int size,
+                                       FileWriter csvWriter) throws IOException {
+        Random rand = new Random(size);
+        int[] live = new int[size];
+        for (int i = 0; i < size; i++) {
+            live[i] = rand.nextInt();
+            map.put(live[i], i);
+        }
+        int steps = 2 * size;
+        long churnTime = benchmark(() -> {
+            for (int ix = 0; ix < steps; ix++) {
+                int slot = rand.nextInt(size);
+                try {
+                    map.remove(live[slot]);
+                    live[slot] = rand.nextInt();
+                    map.put(live[slot], ix);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        csvWriter.append("ChurnPerStep," + name + "," + size + "," + churnTime / steps + "\n");
+        System.out.println(name + ": " + churnTime / steps + " ns per remove+insert, height "
+                + map.tree.height(map.tree.root()));
+    }
+
+    // Benchmark the union of two treaps of the given size, per thread count, against key-by-key insertion
+    private static void benchmarkTreapUnion(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Treap union for Data of size " + size);
+        int[] keysA = new Random(size).ints(size).toArray();
+        int[] keysB = new Random(size + 1).ints(size).toArray();
+
+        Treap<Integer> a = treapOf(keysA);
+        Treap<Integer> b = treapOf(keysB);
+        long insertTime = benchmark(() -> {
+            for (int k : keysB) {
+                try {
+                    a.put(k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        csvWriter.append("Union,Treap-insert," + size + "," + insertTime + "\n");
+        System.out.println("insert one by one: " + insertTime / 1000000 + " ms");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+            Treap<Integer> x = treapOf(keysA);
+            Treap<Integer> y = treapOf(keysB);
+            long unionTime = benchmark(() -> Treap.union(x, y, pool));
+            pool.shutdown();
+            csvWriter.append("Union,Treap-join-" + threads + "-threads," + size + "," + unionTime + "\n");
+            System.out.println("join-based union, " + threads + " threads: " + unionTime / 1000000 + " ms");
+        }
+    }
+
+    private static Treap<Integer> treapOf(int[] keys) throws IOException {
+        Treap<Integer> treap = new Treap<>();
+        for (int k : keys) {
+            treap.put(k);
+        }
+        return treap;
+    }
+
+    // Benchmark loading sorted keys with put one by one against bulkLoad, on AVLTreeMap and Treap
+    private static void benchmarkBulkLoad(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Sorted load for Data of size " + size);
+        ArrayList<Integer> keys = new ArrayList<>();
+        ArrayList<Entry<Integer, Integer>> entries = new ArrayList<>();
+        for (int k = 0; k < size; k++) {
+            keys.add(2 * k);
+            entries.add(new utils.MapEntry<>(2 * k, k));
+        }
+
+        AVLTreeMap<Integer, Integer> avlPut = new AVLTreeMap<>();
+        long avlPutTime = benchmark(() -> {
+            for (Integer k : keys) {
+                try {
+                    avlPut.put(k, k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        long avlBulkTime = benchmark(() -> new AVLTreeMap<Integer, Integer>().bulkLoad(entries));
+        Treap<Integer> treapPut = new Treap<>();
+        long treapPutTime = benchmark(() -> {
+            for (Integer k : keys) {
+                try {
+                    treapPut.put(k);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+        long treapBulkTime = benchmark(() -> new Treap<Integer>().bulkLoadKeys(keys));
+
+        csvWriter.append("SortedLoad,AVLTreeMap-put," + size + "," + avlPutTime + "\n");
+        csvWriter.append("SortedLoad,AVLTreeMap-bulkLoad," + size + "," + avlBulkTime + "\n");
+        csvWriter.append("SortedLoad,Treap-put," + size + "," + treapPutTime + "\n");
+        csvWriter.append("SortedLoad,Treap-bulkLoad," + size + "," + treapBulkTime + "\n");
+        System.out.println("AVLTreeMap: put " + avlPutTime / 1000000 + " ms, bulkLoad " + avlBulkTime / 1000000
+                + " ms; Treap: put " + treapPutTime / 1000000 + " ms, bulkLoad " + treapBulkTime / 1000000 + " ms");
+    }
+
+    // Benchmark gets drawn from Zipfian distributions of increasing skew on SplayTreeMap, AVLTreeMap and an adaptive Treap
+    private static void benchmarkZipfianReads(int size, FileWriter csvWriter) throws IOException {
+        System.out.println("Zipfian reads for Data of size " + size);
+        ArrayList<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            keys.add(i);
+        }
+        Collections.shuffle(keys, new Random(size));
+
+        SplayTreeMap<Integer, Integer> splayTreeMap = new SplayTreeMap<>();
+        AVLTreeMap<Integer, Integer> AVLTreeMap = new AVLTreeMap<>();
+        Treap<Integer> adaptiveTreap = new Treap<>();
+        adaptiveTreap.setAdaptive(1.0 / 8);
+        for (Integer k : keys) {
+            splayTreeMap.put(k, k);
+            AVLTreeMap.put(k, k);
+            adaptiveTreap.put(k);
+        }
+
+        for (double skew : new double[]{0.8, 1.0, 1.2}) {
+            // rank r is the r-th most popular key; ranks are mapped to keys in shuffled order
+            int[] reads = zipfian(size, skew, 1000000, new Random(size + 1));
+            for (int ix = 0; ix < reads.length; ix++) {
+                reads[ix] = keys.get(reads[ix]);
+            }
+
+            long splayTime = benchmark(() -> {
+                for (int k : reads) {
+                    try {
+                        splayTreeMap.get(k);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            });
+            long AVLTreeMapTime = benchmark(() -> {
+                for (int k : reads) {
+                    try {
+                        AVLTreeMap.get(k);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            });
+
+            long adaptiveTime = benchmark(() -> {
+                for (int k : reads) {
+                    try {
+                        adaptiveTreap.get(k);
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            });
+
+            csvWriter.append("ZipfianGet" + skew + "," + "SplayTreeMap," + size + "," + splayTime / reads.length + "\n");
+            csvWriter.append("ZipfianGet" + skew + "," + "AVLTreeMap," + size + "," + AVLTreeMapTime / reads.length + "\n");
+            csvWriter.append("ZipfianGet" + skew + "," + "AdaptiveTreap," + size + "," + adaptiveTime / reads.length + "\n");
+            System.out.println("Zipf s=" + skew + ": SplayTreeMap " + splayTime / reads.length + " ns/get, AVLTreeMap "
+                    + AVLTreeMapTime / reads.length + " ns/get, adaptive Treap " + adaptiveTime / reads.length + " ns/get");
+        }
+    }
+
+    // Draws count ranks in [0, n) with P(rank r) proportional to 1 / (r + 1)^skew
+    private static int[] zipfian(int n, double skew, int count, Random rand) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int r = 0; r < n; r++) {
+            sum += 1.0 / Math.pow(r + 1, skew);
+            cdf[r] = sum;
+        }
+        int[] ranks = new int[count];
+        for (int ix = 0; ix < count; ix++) {
+            int r = Arrays.binarySearch(cdf, rand.nextDouble() * sum);
+            ranks[ix] = Math.min(n - 1, r < 0 ? -r - 1 : r);
+        }
+        return ranks;
+    }
+
+    // Approximate live heap after asking the collector to run
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
     // Benchmark helper function to measure execution time
     private static long benchmark(Runnable task) {
         long start = System.nanoTime();
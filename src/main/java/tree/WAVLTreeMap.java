@@ -0,0 +1,164 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * An implementation of a sorted map using a weak AVL (WAVL) tree.
+ *
+ * Every node has an integer rank kept in the aux field of the
+ * BalanceableBinaryTree, and the rank difference between a node and each of its
+ * children must be 1 or 2. Sentinel leaves have rank 0 (the aux default) and an
+ * internal node with two sentinel children has rank 1. Rebalancing only looks
+ * at rank differences next to the update and stops as soon as they are all 1
+ * or 2 again, so an insertion or deletion does at most two rotations and
+ * O(1) amortized promotions/demotions, rather than recomputing heights to the
+ * root as AVLTreeMap does. Without deletions the tree is exactly an AVL tree;
+ * with deletions its height stays below 2 log2(n).
+ */
+public class WAVLTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public WAVLTreeMap() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public WAVLTreeMap(Comparator<K> comp) {
+		super(comp);
+	}
+
+	// positional utilities for ranks
+	protected int rank(Position<Entry<K, V>> p) {
+		return tree.getAux(p);
+	}
+
+	private void setRank(Position<Entry<K, V>> p, int rank) {
+		tree.setAux(p, rank);
+	}
+
+	private void promote(Position<Entry<K, V>> p) {
+		tree.setAux(p, tree.getAux(p) + 1);
+	}
+
+	private void demote(Position<Entry<K, V>> p) {
+		tree.setAux(p, tree.getAux(p) - 1);
+	}
+
+	// rank difference between p and its child c
+	private int diff(Position<Entry<K, V>> p, Position<Entry<K, V>> c) {
+		return rank(p) - rank(c);
+	}
+
+	private boolean isLeaf(Position<Entry<K, V>> p) {
+		return tree.left(p).getElement() == null && tree.right(p).getElement() == null;
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after an insertion. */
+	@Override
+	protected void rebalanceInsert(Position<Entry<K, V>> x) throws IOException {
+		setRank(x, 1);
+		Position<Entry<K, V>> p = tree.parent(x);
+		while (p != null && diff(p, x) == 0) { // x is a 0-child
+			if (diff(p, tree.sibling(x)) == 1) { // p is 0,1: promote and continue upward
+				promote(p);
+				x = p;
+				p = tree.parent(p);
+				continue;
+			}
+			// p is 0,2: one or two rotations finish the job
+			Position<Entry<K, V>> inner = (x == tree.left(p)) ? tree.right(x) : tree.left(x);
+			if (diff(x, inner) == 2) { // single rotation
+				rotate(x);
+				demote(p);
+			} else { // double rotation
+				rotate(inner);
+				rotate(inner);
+				promote(inner);
+				demote(x);
+				demote(p);
+			}
+			return;
+		}
+	}
+
+	/** Overrides the TreeMap rebalancing hook that is called after a deletion. */
+	@Override
+	protected void rebalanceDelete(Position<Entry<K, V>> x) throws IOException {
+		Position<Entry<K, V>> y = tree.parent(x);
+		if (y == null)
+			return;
+		if (isLeaf(y) && rank(y) == 2) { // a 2,2 leaf is not allowed
+			demote(y);
+			x = y;
+			y = tree.parent(y);
+		}
+		while (y != null && diff(y, x) == 3) { // x is a 3-child
+			Position<Entry<K, V>> s = tree.sibling(x);
+			if (diff(y, s) == 2) { // sibling is a 2-child: demote y and continue upward
+				demote(y);
+				x = y;
+				y = tree.parent(y);
+				continue;
+			}
+			// sibling is a 1-child
+			Position<Entry<K, V>> outer = (s == tree.right(y)) ? tree.right(s) : tree.left(s);
+			Position<Entry<K, V>> inner = (s == tree.right(y)) ? tree.left(s) : tree.right(s);
+			if (diff(s, outer) == 2 && diff(s, inner) == 2) { // sibling is 2,2: demote both
+				demote(y);
+				demote(s);
+				x = y;
+				y = tree.parent(y);
+				continue;
+			}
+			if (diff(s, outer) == 1) { // single rotation
+				rotate(s);
+				promote(s);
+				demote(y);
+				if (isLeaf(y))
+					setRank(y, 1);
+			} else { // double rotation through the inner 1-child
+				rotate(inner);
+				rotate(inner);
+				setRank(inner, rank(inner) + 2);
+				demote(s);
+				setRank(y, rank(y) - 2);
+			}
+			return;
+		}
+	}
+
+	/** Overrides the TreeMap hook that is called for each node built by bulkLoad. */
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, V>> p) {
+		setRank(p, 1 + Math.max(rank(tree.left(p)), rank(tree.right(p)))); // the height, counting sentinels as 0
+	}
+
+	/**
+	 * Checks the rank rule at every node: sentinel leaves have rank 0, every
+	 * rank difference is 1 or 2, and internal nodes with two sentinel children
+	 * have rank 1.
+	 *
+	 * @return true if all ranks are valid
+	 */
+	protected boolean isValid() {
+		return isValid(tree.root());
+	}
+
+	private boolean isValid(Position<Entry<K, V>> p) {
+		if (p.getElement() == null)
+			return rank(p) == 0;
+		if (isLeaf(p) && rank(p) != 1)
+			return false;
+		int dl = diff(p, tree.left(p));
+		int dr = diff(p, tree.right(p));
+		return (dl == 1 || dl == 2) && (dr == 1 || dr == 2) && isValid(tree.left(p)) && isValid(tree.right(p));
+	}
+}
@@ -0,0 +1,94 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+import utils.MapEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WAVLTreeMapTest {
+
+	private static WAVLTreeMap<Integer, String> sample() throws IOException {
+		WAVLTreeMap<Integer, String> map = new WAVLTreeMap<>();
+		Integer[] arr = new Integer[] {35,26,15,24,33,4,12,1,23,21,2,5};
+
+		for(Integer i : arr) {
+			map.put(i, Integer.toString(i));
+		}
+		return map;
+	}
+
+	@Test
+	void testInsertOnlyMatchesAVL() throws IOException {
+		WAVLTreeMap<Integer, String> map = sample();
+		assertTrue(map.isValid());
+		assertEquals("15", map.get(15));
+		assertNull(map.get(-1));
+		// without deletions a WAVL tree is an AVL tree and rank - 1 is the height
+		assertEquals("[15, 4, 1, 2, 12, 5, 26, 23, 21, 24, 35, 33]", map.tree.preorder().toString());
+		assertEquals(map.tree.height(map.tree.root()) + 1, map.rank(map.tree.root()));
+	}
+
+	@Test
+	void testPutAndRemove() throws IOException {
+		WAVLTreeMap<Integer, String> map = sample();
+		assertEquals("26", map.remove(26));
+		assertNull(map.remove(26));
+		assertEquals(11, map.size());
+		assertTrue(map.isValid());
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 33, 35]", map.tree.inorder().toString());
+	}
+
+	@Test
+	void testRandomAgainstJavaUtil() throws IOException {
+		WAVLTreeMap<Integer, Integer> map = new WAVLTreeMap<>();
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(500);
+			if (rand.nextInt(2) == 0) {
+				assertEquals(expected.remove(k), map.remove(k));
+			} else {
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			}
+			if (ix % 100 == 0)
+				assertTrue(map.isValid(), "rank rule violated after step " + ix);
+		}
+		assertEquals(expected.size(), map.size());
+		assertTrue(map.tree.height(map.tree.root()) <= 2 * Math.log(map.size() + 1) / Math.log(2));
+
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : map.entrySet())
+			keys.add(e.getKey());
+		assertEquals(new ArrayList<>(expected.keySet()), keys);
+
+		for (int k : new ArrayList<>(expected.keySet())) {
+			assertEquals(expected.remove(k), map.remove(k));
+			assertTrue(map.isValid());
+		}
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		List<Entry<Integer, Integer>> entries = new ArrayList<>();
+		for (int k = 0; k < 1000; k++)
+			entries.add(new MapEntry<>(k, k));
+		WAVLTreeMap<Integer, Integer> map = new WAVLTreeMap<>();
+		map.bulkLoad(entries);
+		assertTrue(map.isValid());
+		for (int k = 0; k < 1000; k += 2)
+			map.remove(k);
+		map.put(-1, -1);
+		assertTrue(map.isValid());
+		assertEquals(501, map.size());
+	}
+}
@@ -0,0 +1,264 @@
+package tree;
+
+import interfaces.Entry;
+import interfaces.Position;
+import tree.BalanceableBinaryTree.BSTNode;
+import utils.MapEntry;
+import tree.BalanceableBinaryTree.NodeType;
+import utils.DefaultComparator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+
+/**
+ * A sorted map implemented as a zip tree (Tarjan, Levy and Timmel), a treap
+ * whose priorities are small geometric ranks.
+ *
+ * Every node gets a rank k with probability 2^-(k+1), stored in the aux field
+ * of the BalanceableBinaryTree; ranks are heap-ordered, ties going to the
+ * smaller key. A rank needs two random bits on average, so ranks are cut from
+ * one 64-bit word of a SplittableRandom at a time instead of drawing a full
+ * random int per insert from a shared java.util.Random. Ranks are O(log n),
+ * so they fit in O(log log n) bits.
+ *
+ * Updates do not rotate. An insertion stops at the first node the new node
+ * outranks and unzips the path below it into the new node's two subtrees; a
+ * deletion zips the right spine of the left subtree and the left spine of the
+ * right subtree back together. A child pointer is only written where the path
+ * switches sides, so an update writes fewer pointers than the equivalent
+ * treap rotations. The expected depth is O(log n), the same as a treap.
+ */
+public class ZipTreeMap<K extends Comparable<K>, V> extends TreeMap<K, V> {
+
+	private final SplittableRandom rand;
+	private long bits;    // random bits not used by a rank yet
+	private int bitsLeft; // how many of them
+
+	/** Constructs an empty map using the natural ordering of keys. */
+	public ZipTreeMap() {
+		super(new DefaultComparator<>(), NodeType.SIZED);
+		rand = new SplittableRandom();
+	}
+
+	/**
+	 * Constructs an empty map using the given comparator to order keys.
+	 *
+	 * @param comp comparator defining the order of keys in the map
+	 */
+	public ZipTreeMap(Comparator<K> comp) {
+		super(comp, NodeType.SIZED);
+		rand = new SplittableRandom();
+	}
+
+	/**
+	 * Constructs an empty map with seeded ranks, for reproducible shapes.
+	 *
+	 * @param seed seed of the random ranks
+	 */
+	public ZipTreeMap(long seed) {
+		super(new DefaultComparator<>(), NodeType.SIZED);
+		rand = new SplittableRandom(seed);
+	}
+
+	// geometric rank: the number of zero bits before the first one bit
+	private int nextRank() {
+		int rank = 0;
+		while (true) {
+			if (bitsLeft == 0) {
+				bits = rand.nextLong();
+				bitsLeft = 64;
+			}
+			int zeros = Long.numberOfTrailingZeros(bits);
+			if (zeros < bitsLeft) {
+				bits >>>= zeros;
+				bits >>>= 1;
+				bitsLeft -= zeros + 1;
+				return rank + zeros;
+			}
+			rank += bitsLeft; // all remaining bits are zero
+			bitsLeft = 0;
+		}
+	}
+
+	private int rank(Position<Entry<K, V>> p) {
+		return tree.getAux(p);
+	}
+
+	// whether a node of the given rank and key belongs above the internal node p
+	private boolean outranks(int rank, K key, Position<Entry<K, V>> p) {
+		return rank > rank(p) || (rank == rank(p) && compare(key, p.getElement().getKey()) < 0);
+	}
+
+	private BSTNode<Entry<K, V>> left(Position<Entry<K, V>> p) {
+		return (BSTNode<Entry<K, V>>) tree.left(p);
+	}
+
+	private BSTNode<Entry<K, V>> right(Position<Entry<K, V>> p) {
+		return (BSTNode<Entry<K, V>>) tree.right(p);
+	}
+
+	// makes child the left or right child of parent, or the root if parent is null, unless it already is
+	private void attach(BSTNode<Entry<K, V>> parent, boolean isLeft, BSTNode<Entry<K, V>> child) {
+		if (parent == null) {
+			tree.setRoot(child);
+			child.setParent(null);
+		} else if ((isLeft ? tree.left(parent) : tree.right(parent)) != child) {
+			tree.relink(parent, child, isLeft);
+		}
+	}
+
+	// recomputes subtree sizes of the given nodes, deepest first
+	private void updateSizes(ArrayList<BSTNode<Entry<K, V>>> path) {
+		for (int i = path.size() - 1; i >= 0; i--) {
+			BSTNode<Entry<K, V>> node = path.get(i);
+			tree.setSize(node, 1 + tree.getSize(tree.left(node)) + tree.getSize(tree.right(node)));
+		}
+	}
+
+	/**
+	 * Associates the given value with the given key. A new key gets a random
+	 * rank and is unzipped into the tree at the height its rank calls for.
+	 *
+	 * @param key   key with which the specified value is to be associated
+	 * @param value value to be associated with the specified key
+	 * @return the previous value associated with the key (or null, if no such
+	 *         entry)
+	 */
+	@Override
+	public V put(K key, V value) throws IllegalArgumentException, IOException {
+		Entry<K, V> newEntry = new MapEntry<>(key, value);
+		Position<Entry<K, V>> found = treeSearch(tree.root(), key);
+		if (found.getElement() != null) {
+			V old = found.getElement().getValue();
+			tree.set(found, newEntry);
+			rebalanceAccess(found);
+			return old;
+		}
+
+		// descend to the first node the new one outranks, counting the new entry on the way
+		int rank = nextRank();
+		BSTNode<Entry<K, V>> parent = null;
+		boolean isLeft = false;
+		BSTNode<Entry<K, V>> cur = (BSTNode<Entry<K, V>>) tree.root();
+		while (cur.getElement() != null && !outranks(rank, key, cur)) {
+			tree.setSize(cur, tree.getSize(cur) + 1);
+			parent = cur;
+			isLeft = compare(key, cur.getElement().getKey()) < 0;
+			cur = isLeft ? left(cur) : right(cur);
+		}
+
+		BSTNode<Entry<K, V>> node = tree.createNode(newEntry, null, null, null);
+		tree.setAux(node, rank);
+		attach(parent, isLeft, node);
+
+		// unzip the subtree at cur: smaller keys down the right spine of node's left subtree, larger down the left spine of its right one
+		ArrayList<BSTNode<Entry<K, V>>> path = new ArrayList<>();
+		BSTNode<Entry<K, V>> low = node, high = node; // last node placed on either side
+		while (cur.getElement() != null) {
+			path.add(cur);
+			if (compare(cur.getElement().getKey(), key) < 0) {
+				attach(low, low == node, cur);
+				low = cur;
+				cur = right(cur);
+			} else {
+				attach(high, high != node, cur);
+				high = cur;
+				cur = left(cur);
+			}
+		}
+		// cur is the sentinel the search ended at: it closes one side, a new one the other
+		attach(low, low == node, cur);
+		attach(high, high != node, tree.createNode(null, null, null, null));
+
+		updateSizes(path);
+		tree.setSize(node, 1 + tree.getSize(tree.left(node)) + tree.getSize(tree.right(node)));
+		tree.size += 2; // the new node and one new sentinel
+		return null;
+	}
+
+	/**
+	 * Removes the entry with the specified key, if present, zipping its two
+	 * subtrees together in its place.
+	 *
+	 * @param key the key whose entry is to be removed from the map
+	 * @return the previous value associated with the removed key, or null if no
+	 *         such entry exists
+	 */
+	@Override
+	public V remove(K key) throws IllegalArgumentException, IOException {
+		Position<Entry<K, V>> p = treeSearch(tree.root(), key);
+		if (p.getElement() == null)
+			return null;
+		V old = p.getElement().getValue();
+		for (Position<Entry<K, V>> q = tree.parent(p); q != null; q = tree.parent(q))
+			tree.setSize(q, tree.getSize(q) - 1);
+
+		BSTNode<Entry<K, V>> parent = (BSTNode<Entry<K, V>>) tree.parent(p);
+		boolean isLeft = parent != null && tree.left(parent) == p;
+		BSTNode<Entry<K, V>> low = left(p), high = right(p);
+		ArrayList<BSTNode<Entry<K, V>>> path = new ArrayList<>();
+		// the hole is the child slot the next zipped node goes into
+		BSTNode<Entry<K, V>> hole = parent;
+		boolean holeIsLeft = isLeft;
+		while (low.getElement() != null && high.getElement() != null) {
+			if (rank(low) >= rank(high)) { // ties go to the smaller keys
+				attach(hole, holeIsLeft, low);
+				path.add(low);
+				hole = low;
+				holeIsLeft = false;
+				low = right(low);
+			} else {
+				attach(hole, holeIsLeft, high);
+				path.add(high);
+				hole = high;
+				holeIsLeft = true;
+				high = left(high);
+			}
+		}
+		// one side has run out: the other, possibly a sentinel, fills the hole and the spare sentinel is dropped
+		BSTNode<Entry<K, V>> rest = low.getElement() != null ? low : high;
+		attach(hole, holeIsLeft, rest);
+
+		updateSizes(path);
+		tree.set(p, null);
+		tree.size -= 2; // the removed node and one sentinel
+		rebalanceDelete(rest);
+		return old;
+	}
+
+	/**
+	 * Overrides the TreeMap hook that is called for each node built by bulkLoad.
+	 * A bulk-loaded node's rank is its height, which is heap-ordered and, like
+	 * the random ranks, about log2 n at the root.
+	 */
+	@Override
+	protected void bulkLoadNode(Position<Entry<K, V>> p) {
+		tree.setAux(p, 1 + Math.max(tree.getAux(tree.left(p)), tree.getAux(tree.right(p))));
+	}
+
+	// checks key order, rank order with its tie rule and subtree sizes; for tests
+	boolean isValid() {
+		return isValid(tree.root(), null, null) >= 0;
+	}
+
+	// returns the subtree size, or -1 if the subtree is invalid
+	private int isValid(Position<Entry<K, V>> p, K lower, K upper) {
+		if (p.getElement() == null)
+			return 0;
+		K key = p.getElement().getKey();
+		if ((lower != null && compare(key, lower) <= 0) || (upper != null && compare(key, upper) >= 0))
+			return -1;
+		Position<Entry<K, V>> left = tree.left(p), right = tree.right(p);
+		if ((left.getElement() != null && rank(left) >= rank(p))
+				|| (right.getElement() != null && rank(right) > rank(p)))
+			return -1;
+		if (tree.parent(left) != p || tree.parent(right) != p)
+			return -1;
+		int leftSize = isValid(left, lower, key), rightSize = isValid(right, key, upper);
+		if (leftSize < 0 || rightSize < 0 || tree.getSize(p) != 1 + leftSize + rightSize)
+			return -1;
+		return tree.getSize(p);
+	}
+}
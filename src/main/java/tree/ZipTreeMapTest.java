@@ -0,0 +1,104 @@
+package tree;
+
+import interfaces.Entry;
+import org.junit.jupiter.api.Test;
+import utils.MapEntry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipTreeMapTest {
+
+	private static List<Integer> keys(ZipTreeMap<Integer, Integer> map) {
+		List<Integer> keys = new ArrayList<>();
+		for (Entry<Integer, Integer> e : map.entrySet())
+			keys.add(e.getKey());
+		return keys;
+	}
+
+	@Test
+	void testPutGetRemove() throws IOException {
+		ZipTreeMap<Integer, Integer> map = new ZipTreeMap<>(1);
+		Integer[] arr = new Integer[] {35, 26, 15, 24, 33, 4, 12, 1, 23, 21, 2, 5};
+		for (Integer i : arr)
+			assertNull(map.put(i, i * 10));
+		assertEquals("[1, 2, 4, 5, 12, 15, 21, 23, 24, 26, 33, 35]", keys(map).toString());
+		assertEquals(12, map.size());
+		assertEquals(240, map.get(24));
+		assertEquals(240, map.put(24, 7));
+		assertEquals(7, map.get(24));
+		assertEquals(12, map.size());
+		assertTrue(map.isValid());
+
+		assertEquals(7, map.remove(24));
+		assertNull(map.remove(24));
+		assertNull(map.get(24));
+		assertEquals(8, map.rank(24));
+		assertEquals(23, map.select(7).getKey());
+		assertEquals(4, map.countRange(5, 22));
+		assertTrue(map.isValid());
+
+		for (Integer i : arr)
+			map.remove(i);
+		assertTrue(map.isEmpty());
+		assertEquals(1, map.tree.size()); // only the sentinel root is left
+		map.put(3, 3);
+		assertEquals("[3]", keys(map).toString());
+	}
+
+	@Test
+	void testSortedInsertionStaysShallow() throws IOException {
+		ZipTreeMap<Integer, Integer> map = new ZipTreeMap<>(1);
+		for (int k = 0; k < 100000; k++)
+			map.put(k, k);
+		assertTrue(map.isValid());
+		assertTrue(map.tree.height(map.tree.root()) < 80); // the expected depth is about 1.5 log2 n = 25
+		for (int k = 0; k < 100000; k += 2)
+			map.remove(k);
+		assertEquals(50000, map.size());
+		assertTrue(map.isValid());
+	}
+
+	@Test
+	void testRandomAgainstTreeMap() throws IOException {
+		ZipTreeMap<Integer, Integer> map = new ZipTreeMap<>(1);
+		java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+		Random rand = new Random(1);
+
+		for (int ix = 0; ix < 20000; ix++) {
+			int k = rand.nextInt(2000);
+			if (rand.nextInt(3) == 0)
+				assertEquals(expected.remove(k), map.remove(k));
+			else
+				assertEquals(expected.put(k, ix), map.put(k, ix));
+			if (ix % 1000 == 0)
+				assertTrue(map.isValid());
+		}
+		assertTrue(map.isValid());
+		assertEquals(expected.size(), map.size());
+		assertEquals(new ArrayList<>(expected.keySet()), keys(map));
+		assertEquals(2 * expected.size() + 1, map.tree.size());
+	}
+
+	@Test
+	void testBulkLoad() throws IOException {
+		List<Entry<Integer, Integer>> entries = new ArrayList<>();
+		for (int k = 0; k < 1000; k++)
+			entries.add(new MapEntry<>(k, k));
+		ZipTreeMap<Integer, Integer> map = new ZipTreeMap<>(1);
+		map.bulkLoad(entries);
+		assertTrue(map.isValid());
+		for (int k = 1000; k < 2000; k++)
+			map.put(k, k);
+		for (int k = 0; k < 2000; k += 3)
+			map.remove(k);
+		assertTrue(map.isValid());
+		assertEquals(1333, map.size());
+	}
+}